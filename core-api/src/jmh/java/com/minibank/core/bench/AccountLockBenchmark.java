@@ -0,0 +1,76 @@
+/**
+ * AccountLockManager under 8 threads, with a critical section that parks for `workMicros`
+ * (stand-in for the DB round trips of a transfer):
+ * - disjoint: every thread transfers between its own two accounts, so the critical sections overlap
+ * - shared: every thread transfers between the same two accounts, so they queue up
+ *
+ * With the default stripe count the disjoint pairs can occasionally share a stripe, as they would in production.
+ */
+
+package com.minibank.core.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.minibank.core.service.AccountLockManager;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class AccountLockBenchmark {
+
+    @Param({ "256" })
+    public int stripes;
+
+    @Param({ "200" })
+    public long workMicros;
+
+    private AccountLockManager locks;
+    private long workNanos;
+    private final AtomicInteger nextPair = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Pair {
+        String from;
+        String to;
+
+        @Setup
+        public void setup(AccountLockBenchmark bench) {
+            int n = bench.nextPair.getAndIncrement();
+            from = "acc-" + (2 * n);
+            to = "acc-" + (2 * n + 1);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        locks = new AccountLockManager(stripes);
+        workNanos = TimeUnit.MICROSECONDS.toNanos(workMicros);
+    }
+
+    @Benchmark
+    public void disjoint(Pair pair) {
+        try (var held = locks.lockPair(pair.from, pair.to)) {
+            LockSupport.parkNanos(workNanos);
+        }
+    }
+
+    @Benchmark
+    public void shared() {
+        try (var held = locks.lockPair("shared-from", "shared-to")) {
+            LockSupport.parkNanos(workNanos);
+        }
+    }
+}
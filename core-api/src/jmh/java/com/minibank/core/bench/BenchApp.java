@@ -0,0 +1,110 @@
+package com.minibank.core.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.CoreApiApplication;
+import com.minibank.core.domain.AccountEntity;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.repo.UserRepository;
+
+/**
+ * The whole application on a throwaway SQLite file, for benchmarks of the real service/controller beans.
+ * The demo seeders run as usual (demo user + accounts); risk.scorer.mode=local, so the outbox dispatcher
+ * scores in-JVM and never leaves it.
+ */
+final class BenchApp implements AutoCloseable {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private final Path dir;
+    private final ConfigurableApplicationContext ctx;
+
+    private BenchApp(Path dir, ConfigurableApplicationContext ctx) {
+        this.dir = dir;
+        this.ctx = ctx;
+    }
+
+    static BenchApp start() {
+        Path dir;
+        try {
+            dir = Files.createTempDirectory("core-api-bench-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(CoreApiApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:sqlite:" + dir.resolve("bench.db"),
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "server.port=0",
+                        "risk.scorer.mode=local",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        return new BenchApp(dir, ctx);
+    }
+
+    <T> T bean(Class<T> type) {
+        return ctx.getBean(type);
+    }
+
+    String demoUserId() {
+        return bean(UserRepository.class).findByEmail("demo@digitalbanking.dev").orElseThrow().getId();
+    }
+
+    /** A fresh CAD account for the demo user with the given balance. */
+    AccountEntity newAccount(String name, BigDecimal balance) {
+        AccountEntity a = new AccountEntity();
+        a.setUserId(demoUserId());
+        a.setName(name);
+        a.setType("CHECKING");
+        a.setCurrency("CAD");
+        a.setBalance(balance);
+        return bean(AccountRepository.class).save(a);
+    }
+
+    /** Inserts n rows built by {@code row(i)}, one transaction per chunk (JDBC batching does the rest). */
+    <E> List<E> seed(JpaRepository<E, String> repo, int n, IntFunction<E> row) {
+        TransactionTemplate tx = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        List<E> saved = new ArrayList<>(n);
+        for (int from = 0; from < n; from += SEED_CHUNK) {
+            int to = Math.min(n, from + SEED_CHUNK);
+            List<E> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) chunk.add(row.apply(i));
+            saved.addAll(tx.execute(status -> repo.saveAll(chunk)));
+        }
+        return saved;
+    }
+
+    /** Spreads n timestamps evenly over the last {@code hours} hours. */
+    static Instant spread(int i, int n, int hours) {
+        long windowMs = hours * 3_600_000L;
+        return Instant.now().minusMillis(windowMs - (windowMs * i / Math.max(1, n)) - 1);
+    }
+
+    @Override
+    public void close() {
+        ctx.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
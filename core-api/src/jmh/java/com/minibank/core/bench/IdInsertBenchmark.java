@@ -0,0 +1,141 @@
+/**
+ * Insert throughput and file size of a transfers-shaped SQLite table, by primary key scheme.
+ *
+ * One invocation inserts `rows` rows into a fresh database (batches of 1000, one transaction per batch,
+ * same as the app's JDBC batching). The resulting file size and page count are reported next to the time as
+ * the secondary results insert:fileBytes and insert:pages.
+ *
+ * Defaults are small enough for a laptop run; the 10M-row comparison is:
+ *   ./gradlew jmhJar && java -jar build/libs/*-jmh.jar IdInsertBenchmark -p rows=10000000
+ */
+
+package com.minibank.core.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.minibank.core.domain.IdGenerator;
+import com.minibank.core.domain.RandomIdGenerator;
+import com.minibank.core.domain.TimeOrderedIdGenerator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class IdInsertBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({ "random", "uuidv7", "compact" })
+    public String scheme;
+
+    @Param({ "1000000" })
+    public int rows;
+
+    private Path dir;
+    private Path db;
+    private IdGenerator ids;
+
+    /** Size of the database after one insert() run. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileStats {
+        public long fileBytes;
+        public long pages;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            fileBytes = 0;
+            pages = 0;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() throws IOException, SQLException {
+        ids = switch (scheme) {
+            case "random" -> new RandomIdGenerator();
+            case "uuidv7" -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.UUID);
+            case "compact" -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.COMPACT);
+            default -> throw new IllegalArgumentException(scheme);
+        };
+        dir = Files.createTempDirectory("id-bench");
+        db = dir.resolve("bench.db");
+
+        try (Connection c = open(); Statement s = c.createStatement()) {
+            s.execute("""
+                    create table transfers (
+                      id varchar(255) not null primary key,
+                      user_id varchar(255) not null,
+                      amount numeric(18,2) not null,
+                      created_at timestamp not null
+                    )""");
+            s.execute("create index idx_transfers_user_created on transfers (user_id, created_at)");
+        }
+    }
+
+    @Benchmark
+    public long insert(FileStats stats) throws IOException, SQLException {
+        try (Connection c = open();
+                PreparedStatement ps = c.prepareStatement(
+                        "insert into transfers (id, user_id, amount, created_at) values (?, ?, ?, ?)")) {
+            c.setAutoCommit(false);
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < rows; i++) {
+                ps.setString(1, ids.next());
+                ps.setString(2, "user-" + (i & 63));
+                ps.setLong(3, 100 + (i % 50_000));
+                ps.setLong(4, now + i);
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    ps.executeBatch();
+                    c.commit();
+                }
+            }
+            ps.executeBatch();
+            c.commit();
+
+            // measured here so JMH reports them with this invocation (one cheap pragma next to `rows` inserts)
+            try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery("pragma page_count")) {
+                rs.next();
+                stats.pages = rs.getLong(1);
+            }
+        }
+        stats.fileBytes = Files.size(db);
+        return rows;
+    }
+
+    @TearDown(Level.Invocation)
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(db);
+        Files.deleteIfExists(dir);
+    }
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + db);
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * BigDecimal vs long minor units (Money) on the operations a transfer performs:
+ * - transfer*: funds check, debit, credit, 24h window update; transferMoney is the shape TransferService
+ *   uses (currency-checked Money values, a new one per balance update)
+ * - windowSum*: summing 1440 minute buckets (StatsService read)
+ *
+ * Run with ./gradlew jmh; compare ops/s and gc.alloc.rate.norm (bytes per op).
+ */
+
+package com.minibank.core.bench;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.minibank.core.domain.Money;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyBenchmark {
+
+    private static final int ACCOUNTS = 64;
+    private static final int AMOUNTS = 1024;
+    private static final int BUCKETS = 24 * 60;
+
+    private BigDecimal[] balances;
+    private long[] balancesMinor;
+    private Money[] balancesMoney;
+
+    private BigDecimal[] amounts;
+    private long[] amountsMinor;
+
+    private BigDecimal windowTotal;
+    private long windowTotalMinor;
+    private Money windowTotalMoney;
+
+    private BigDecimal[] bucketSums;
+    private long[] bucketSumsMinor;
+
+    private int i;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rnd = new SplittableRandom(42);
+
+        balances = new BigDecimal[ACCOUNTS];
+        balancesMinor = new long[ACCOUNTS];
+        balancesMoney = new Money[ACCOUNTS];
+        for (int a = 0; a < ACCOUNTS; a++) {
+            long minor = 1_000_000_00L;
+            balancesMinor[a] = minor;
+            balances[a] = Money.toBigDecimal(minor);
+            balancesMoney[a] = new Money(minor, "CAD");
+        }
+
+        amounts = new BigDecimal[AMOUNTS];
+        amountsMinor = new long[AMOUNTS];
+        for (int k = 0; k < AMOUNTS; k++) {
+            long minor = rnd.nextLong(1, 50_000); // 0.01 .. 499.99
+            amountsMinor[k] = minor;
+            amounts[k] = Money.toBigDecimal(minor);
+        }
+
+        windowTotal = BigDecimal.ZERO.setScale(Money.SCALE);
+        windowTotalMinor = 0;
+        windowTotalMoney = new Money(0, "CAD");
+
+        bucketSums = new BigDecimal[BUCKETS];
+        bucketSumsMinor = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            long minor = rnd.nextLong(0, 1_000_00);
+            bucketSumsMinor[b] = minor;
+            bucketSums[b] = Money.toBigDecimal(minor);
+        }
+    }
+
+    @Benchmark
+    public boolean transferBigDecimal() {
+        int k = (i++) & (AMOUNTS - 1);
+        int from = k & (ACCOUNTS - 1);
+        int to = (k + 1) & (ACCOUNTS - 1);
+        BigDecimal amount = amounts[k];
+
+        if (balances[from].compareTo(amount) < 0) return false;
+        balances[from] = balances[from].subtract(amount);
+        balances[to] = balances[to].add(amount);
+        windowTotal = windowTotal.add(amount);
+        return true;
+    }
+
+    @Benchmark
+    public boolean transferMinor() {
+        int k = (i++) & (AMOUNTS - 1);
+        int from = k & (ACCOUNTS - 1);
+        int to = (k + 1) & (ACCOUNTS - 1);
+        long amount = amountsMinor[k];
+
+        if (balancesMinor[from] < amount) return false;
+        balancesMinor[from] = Math.subtractExact(balancesMinor[from], amount);
+        balancesMinor[to] = Math.addExact(balancesMinor[to], amount);
+        windowTotalMinor += amount;
+        return true;
+    }
+
+    @Benchmark
+    public boolean transferMoney() {
+        int k = (i++) & (AMOUNTS - 1);
+        int from = k & (ACCOUNTS - 1);
+        int to = (k + 1) & (ACCOUNTS - 1);
+        Money amount = new Money(amountsMinor[k], "CAD");
+
+        if (balancesMoney[from].isLessThan(amount)) return false;
+        balancesMoney[from] = balancesMoney[from].minus(amount);
+        balancesMoney[to] = balancesMoney[to].plus(amount);
+        windowTotalMoney = windowTotalMoney.plus(amount);
+        return true;
+    }
+
+    @Benchmark
+    public BigDecimal windowSumBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal b : bucketSums) {
+            sum = sum.add(b);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long windowSumMinor() {
+        long sum = 0;
+        for (long b : bucketSumsMinor) {
+            sum += b;
+        }
+        return sum;
+    }
+
+    /** The API boundary cost that remains: parsing a request amount into minor units. */
+    @Benchmark
+    public long toMinor() {
+        return Money.toMinor(amounts[(i++) & (AMOUNTS - 1)]);
+    }
+}
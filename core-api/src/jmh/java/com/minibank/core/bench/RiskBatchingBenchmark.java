@@ -0,0 +1,163 @@
+/**
+ * RiskClient.score under concurrent load, one POST /score per call vs coalesced POST /score/batch calls
+ * (RiskScoreBatcher). Throughput plus the SampleTime percentiles show what batching buys and what the window
+ * costs in tail latency.
+ *
+ * Target: a local risk-service at -Dbench.risk.url, default http://127.0.0.1:8000/risk:
+ *   cd risk-service && uvicorn app.main:app --port 8000 --workers 4
+ *   ./gradlew jmh -PjmhIncludes=RiskBatchingBenchmark
+ *
+ * Without a Python environment, -Dbench.risk.stub=true swaps in an in-process stand-in with a fixed cost per HTTP
+ * request (overheadMicros, on `workers` threads) and a small cost per item; its numbers only show the shape:
+ *   ./gradlew jmhJar && java -Dbench.risk.stub=true -jar build/libs/*-jmh.jar RiskBatchingBenchmark
+ */
+
+package com.minibank.core.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import com.minibank.core.client.RiskCallGuard;
+import com.minibank.core.client.RiskClient;
+import com.minibank.core.client.RiskScoreMemo;
+import com.minibank.core.client.RiskScorer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class RiskBatchingBenchmark {
+
+    private static final String DEFAULT_URL = "http://127.0.0.1:8000/risk";
+    private static final byte[] ONE = "{\"riskScore\":12,\"reasons\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final RiskScorer.ScoreRequest REQUEST = new RiskScorer.ScoreRequest(
+            "u1", "a1", "a2", new BigDecimal("120.00"), "CAD", Instant.parse("2026-01-15T12:00:00Z"), 3,
+            new BigDecimal("400.00"));
+
+    @Param({ "false", "true" })
+    public boolean batching;
+
+    @Param({ "2" })
+    public long windowMs;
+
+    @Param({ "100" })
+    public int maxBatch;
+
+    // stand-in only (bench.risk.stub)
+    @Param({ "300" })
+    public int overheadMicros;
+
+    @Param({ "4" })
+    public int workers;
+
+    private HttpServer stub;
+    private ExecutorService stubWorkers;
+    private HttpComponentsClientHttpRequestFactory factory;
+    private RiskClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String url = Boolean.getBoolean("bench.risk.stub")
+                ? startStub()
+                : System.getProperty("bench.risk.url", DEFAULT_URL);
+
+        factory = new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(128)
+                        .setMaxConnTotal(128)
+                        .build())
+                .build());
+        RestClient rest = RestClient.builder().baseUrl(url).requestFactory(factory).build();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // a guard that never refuses: the benchmark is about transport cost, not protection
+        RiskCallGuard guard = new RiskCallGuard(30_000, 1024, 20, 20, 100, 60_000, 100, 1_000, 1, registry);
+        // memo off: every call here has the same features, so it would answer them all from memory
+        RiskScoreMemo memo = new RiskScoreMemo(rest, guard, false, 1, 1, 1, registry);
+        client = new RiskClient(rest, guard, memo, batching, windowMs, maxBatch, registry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.close();
+        factory.destroy();
+        if (stub != null) {
+            stub.stop(0);
+            stubWorkers.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public RiskScorer.ScoreResponse score() {
+        return client.score(REQUEST);
+    }
+
+    private String startStub() throws IOException {
+        stubWorkers = Executors.newFixedThreadPool(workers);
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        stub.setExecutor(stubWorkers);
+        stub.createContext("/risk/score", this::answer);
+        stub.start();
+        return "http://127.0.0.1:" + stub.getAddress().getPort() + "/risk";
+    }
+
+    // /risk/score answers one result; /risk/score/batch one per item (counted by their userId fields)
+    private void answer(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        boolean batch = exchange.getRequestURI().getPath().endsWith("/batch");
+        int items = batch ? count(body, "\"userId\"") : 1;
+
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(overheadMicros + 5L * items));
+
+        byte[] out;
+        if (batch) {
+            StringBuilder sb = new StringBuilder("{\"results\":[");
+            for (int i = 0; i < items; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(new String(ONE, StandardCharsets.UTF_8));
+            }
+            out = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        } else {
+            out = ONE;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, out.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(out);
+        }
+    }
+
+    private static int count(String s, String needle) {
+        int n = 0;
+        for (int i = s.indexOf(needle); i >= 0; i = s.indexOf(needle, i + needle.length())) n++;
+        return n;
+    }
+}
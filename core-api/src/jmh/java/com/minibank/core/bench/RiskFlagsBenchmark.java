@@ -0,0 +1,85 @@
+/**
+ * RiskController.flags (GET /api/risk/flags?minScore=70, first page of 50) with `assessments` scored transfers
+ * in the table. Scores are uniform over 0..99, so about 30% of the rows qualify.
+ */
+
+package com.minibank.core.bench;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.minibank.core.domain.RiskAssessmentEntity;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.repo.RiskAssessmentRepository;
+import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.web.RiskController;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RiskFlagsBenchmark {
+
+    private static final String[] REASONS = {
+            "[]", "[\"high_amount\"]", "[\"high_frequency\",\"high_total\"]", "[\"new_account\",\"high_amount\"]" };
+
+    @Param({ "10000", "100000" })
+    public int assessments;
+
+    private BenchApp app;
+    private RiskController controller;
+    private String userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = BenchApp.start();
+        controller = app.bean(RiskController.class);
+        userId = app.demoUserId();
+        String from = app.newAccount("bench-from", BigDecimal.ZERO).getId();
+        String to = app.newAccount("bench-to", BigDecimal.ZERO).getId();
+
+        List<TransferEntity> transfers = app.seed(app.bean(TransferRepository.class), assessments, i -> {
+            TransferEntity t = new TransferEntity();
+            t.setUserId(userId);
+            t.setFromAccountId(from);
+            t.setToAccountId(to);
+            t.setAmount(new BigDecimal(1 + i % 5000));
+            t.setCurrency("CAD");
+            t.setStatus("APPROVED");
+            t.setIdempotencyKey("flags-" + i);
+            t.setCreatedAt(BenchApp.spread(i, assessments, 24 * 30));
+            return t;
+        });
+
+        app.seed(app.bean(RiskAssessmentRepository.class), assessments, i -> {
+            int score = (int) ((i * 2654435761L) % 100); // deterministic, evenly spread
+            RiskAssessmentEntity ra = new RiskAssessmentEntity();
+            ra.setTransferId(transfers.get(i).getId());
+            ra.setRiskScore(score);
+            ra.setLevel(score >= 70 ? "HIGH" : score >= 40 ? "MEDIUM" : "LOW");
+            ra.setReasonsJson(REASONS[i & 3]);
+            return ra;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<RiskController.RiskFlagItem> flags() {
+        return controller.flags(userId, 70, null, 50).getBody();
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * The reasonsJson round trip: RiskReasonsCodec.toJson (outbox dispatcher, per scored transfer) and
+ * RiskReasonsCodec.parse (read model backfill; the transfer endpoints no longer parse), by number of reason codes.
+ */
+
+package com.minibank.core.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.minibank.core.service.RiskReasonsCodec;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RiskReasonsCodecBenchmark {
+
+    private static final String[] CODES = { "high_amount", "high_frequency", "high_total", "new_account", "night_time" };
+
+    @Param({ "0", "2", "5" })
+    public int reasons;
+
+    private RiskReasonsCodec codec;
+    private List<String> list;
+    private String json;
+
+    @Setup
+    public void setup() {
+        codec = new RiskReasonsCodec(JsonMapper.builder().build());
+        list = new ArrayList<>();
+        for (int i = 0; i < reasons; i++) list.add(CODES[i]);
+        json = codec.toJson(list);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return codec.toJson(list);
+    }
+
+    @Benchmark
+    public List<String> parse() {
+        return codec.parse(json);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * StatsService.last24h with `history` transfers spread over the last 24h:
+ * - warm: the in-memory minute window is already loaded (the steady state)
+ * - cold: a fresh StatsService, so the window is loaded from SQLite first (startup / evicted key)
+ */
+
+package com.minibank.core.bench;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.repo.TransferRollupRepository;
+import com.minibank.core.service.StatsService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatsServiceBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int history;
+
+    private BenchApp app;
+    private TransferRepository transferRepo;
+    private TransferRollupRepository rollupRepo;
+    private StatsService stats;
+    private String userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = BenchApp.start();
+        transferRepo = app.bean(TransferRepository.class);
+        rollupRepo = app.bean(TransferRollupRepository.class);
+        stats = app.bean(StatsService.class);
+        userId = app.demoUserId();
+        String from = app.newAccount("bench-from", BigDecimal.ZERO).getId();
+        String to = app.newAccount("bench-to", BigDecimal.ZERO).getId();
+
+        app.seed(transferRepo, history, i -> {
+            TransferEntity t = new TransferEntity();
+            t.setUserId(userId);
+            t.setFromAccountId(from);
+            t.setToAccountId(to);
+            t.setAmount(new BigDecimal(1 + i % 500).movePointLeft(1));
+            t.setCurrency("CAD");
+            t.setStatus("APPROVED");
+            t.setIdempotencyKey("hist-" + i);
+            t.setCreatedAt(BenchApp.spread(i, history, 24));
+            return t;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public StatsService.TransferWindowStatsDto warm() {
+        return stats.last24h(userId, "CAD");
+    }
+
+    @Benchmark
+    public StatsService.TransferWindowStatsDto cold() {
+        return new StatsService(transferRepo, rollupRepo, 1).last24h(userId, "CAD");
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * GET /api/transfers (OFFSET + count(*)) vs GET /api/transfers/keyset (seek on createdAt, id),
+ * page 1 and page 10,000 of 25 rows, over 250k transfers of one user.
+ *
+ * Expect offset to grow with the page number (SQLite walks and discards every skipped row, plus the count)
+ * and keyset to stay flat.
+ */
+
+package com.minibank.core.bench;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.web.KeysetCursor;
+import com.minibank.core.web.TransfersController;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransferPagingBenchmark {
+
+    private static final int SIZE = 25;
+    private static final int ROWS = 10_000 * SIZE;
+
+    @Param({ "offset", "keyset" })
+    public String mode;
+
+    @Param({ "1", "10000" })
+    public int page;
+
+    private BenchApp app;
+    private TransfersController controller;
+    private String userId;
+    private String cursor; // keyset position of the requested page (null for page 1)
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = BenchApp.start();
+        controller = app.bean(TransfersController.class);
+        TransferRepository transferRepo = app.bean(TransferRepository.class);
+        userId = app.demoUserId();
+        String from = app.newAccount("bench-from", BigDecimal.ZERO).getId();
+        String to = app.newAccount("bench-to", BigDecimal.ZERO).getId();
+
+        app.seed(transferRepo, ROWS, i -> {
+            TransferEntity t = new TransferEntity();
+            t.setUserId(userId);
+            t.setFromAccountId(from);
+            t.setToAccountId(to);
+            t.setAmount(new BigDecimal(1 + i % 5000));
+            t.setCurrency("CAD");
+            t.setStatus("APPROVED");
+            t.setIdempotencyKey("page-" + i);
+            t.setCreatedAt(BenchApp.spread(i, ROWS, 24 * 365));
+            return t;
+        });
+
+        if (page > 1) {
+            // the last row of the previous page, found once the slow way
+            TransferEntity last = transferRepo
+                    .findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of((page - 1) * SIZE - 1, 1))
+                    .getContent().get(0);
+            cursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Object fetchPage() {
+        return "offset".equals(mode)
+                ? controller.listTransfers(userId, page - 1, SIZE)
+                : controller.listTransfersKeyset(userId, cursor, SIZE);
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * TransferService.createTransfer end to end: locks, balance checks, 24h window, transfer + ledger + outbox
+ * insert and commit on a temp SQLite file. Risk scoring runs after commit with the local rules (see BenchApp).
+ *
+ * Two fresh accounts ping-pong 0.01 so balances never run out; every call uses a new idempotency key.
+ */
+
+package com.minibank.core.bench;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.service.TransferService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransferServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    private BenchApp app;
+    private TransferService transfers;
+    private String userId;
+    private String a;
+    private String b;
+    private long seq;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = BenchApp.start();
+        transfers = app.bean(TransferService.class);
+        userId = app.demoUserId();
+        a = app.newAccount("bench-a", new BigDecimal("1000000.00")).getId();
+        b = app.newAccount("bench-b", new BigDecimal("1000000.00")).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public TransferEntity createTransfer() {
+        long n = seq++;
+        boolean even = (n & 1) == 0;
+        return transfers.createTransfer(userId, even ? a : b, even ? b : a, AMOUNT, "CAD", null, "bench-" + n);
+    }
+}
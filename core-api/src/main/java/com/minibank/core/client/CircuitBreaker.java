@@ -0,0 +1,170 @@
+/**
+ * Count-based circuit breaker for the risk-service calls (see RiskCallGuard).
+ *
+ * - CLOSED: every call goes through; the outcomes of the last `window` calls are kept. Once at least
+ *   `minCalls` are in, the breaker opens when failures reach failureRatePct of them, or calls slower than
+ *   slowCallMs reach slowRatePct of them (a service that answers in 4s is as bad as one that errors)
+ * - OPEN: calls are refused without touching the network until openMs has passed
+ * - HALF_OPEN: up to halfOpenProbes calls go through; all of them succeeding (and fast) closes the breaker,
+ *   any failure or slow answer opens it again for another openMs
+ *
+ * State is exported as the gauge risk.client.breaker.state (0 closed, 1 half-open, 2 open) and every
+ * transition is counted in risk.client.breaker.transitions{to}.
+ */
+
+package com.minibank.core.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int minCalls;
+    private final int failureRatePct;
+    private final long slowCallNanos;
+    private final int slowRatePct;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // ring of the last window outcomes, CLOSED only
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int probesStarted;
+    private int probesPassed;
+
+    private final AtomicInteger stateGauge = new AtomicInteger();
+    private final Counter toOpen;
+    private final Counter toHalfOpen;
+    private final Counter toClosed;
+
+    public CircuitBreaker(
+            int window,
+            int minCalls,
+            int failureRatePct,
+            long slowCallMs,
+            int slowRatePct,
+            long openMs,
+            int halfOpenProbes,
+            MeterRegistry meterRegistry) {
+        if (window < 1 || minCalls < 1 || minCalls > window || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.minCalls = minCalls;
+        this.failureRatePct = failureRatePct;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.slowRatePct = slowRatePct;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.halfOpenProbes = halfOpenProbes;
+        this.failed = new boolean[window];
+        this.slow = new boolean[window];
+
+        Gauge.builder("risk.client.breaker.state", stateGauge, AtomicInteger::get).register(meterRegistry);
+        this.toOpen = transitions(meterRegistry, "open");
+        this.toHalfOpen = transitions(meterRegistry, "half_open");
+        this.toClosed = transitions(meterRegistry, "closed");
+    }
+
+    private static Counter transitions(MeterRegistry registry, String to) {
+        return Counter.builder("risk.client.breaker.transitions")
+                .tag("to", to)
+                .register(registry);
+    }
+
+    /** false: the call must not be made (open, or half-open with all probes out). */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntil < 0) return false;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) return false;
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /** Outcome of a call that tryAcquire let through; elapsedNanos decides whether it counts as slow. */
+    public synchronized void record(boolean success, long elapsedNanos) {
+        boolean isSlow = elapsedNanos >= slowCallNanos;
+
+        switch (state) {
+            case OPEN -> {
+                // a call from before the breaker opened; it no longer says anything
+            }
+            case HALF_OPEN -> {
+                if (!success || isSlow) {
+                    open();
+                } else if (++probesPassed >= halfOpenProbes) {
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                add(!success, isSlow);
+                if (recorded >= minCalls
+                        && (failures * 100 >= failureRatePct * recorded || slowCalls * 100 >= slowRatePct * recorded)) {
+                    open();
+                }
+            }
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void add(boolean isFailure, boolean isSlow) {
+        if (recorded == failed.length) {
+            if (failed[next]) failures--;
+            if (slow[next]) slowCalls--;
+        } else {
+            recorded++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        if (isFailure) failures++;
+        if (isSlow) slowCalls++;
+        next = (next + 1) % failed.length;
+    }
+
+    private void open() {
+        openUntil = System.nanoTime() + openNanos;
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        log.warn("Risk service circuit breaker {} -> {}. failures={} slow={} calls={}",
+                state, to, failures, slowCalls, recorded);
+        state = to;
+        probesStarted = 0;
+        probesPassed = 0;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        stateGauge.set(to.ordinal());
+        switch (to) {
+            case OPEN -> toOpen.increment();
+            case HALF_OPEN -> toHalfOpen.increment();
+            case CLOSED -> toClosed.increment();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * In-JVM version of the risk-service's rules (risk-service/app/main.py), so scoring a transfer is a few
+ * comparisons instead of an HTTP round trip.
+ *
+ * Same additive thresholds, same reason codes, same cap; each rule's threshold, points and reason code come
+ * from risk.rules.* so they can be kept in step with the service without a code change:
+ * - amount >= large-amount.min                 -> large_amount   (+30)
+ * - last24hTransferCount >= high-frequency.min -> high_frequency (+25)
+ * - last24hTransferTotal >= high-total.min     -> high_total     (+20)
+ * The score is capped at risk.rules.max-score (100). Thresholds are inclusive, as in the service.
+ */
+
+package com.minibank.core.client;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LocalRiskScorer implements RiskScorer {
+
+    public enum Signal {
+        AMOUNT, COUNT_24H, TOTAL_24H
+    }
+
+    public record Rule(Signal signal, BigDecimal min, int points, String reason) {
+    }
+
+    private final List<Rule> rules;
+    private final int maxScore;
+
+    public LocalRiskScorer(
+            @Value("${risk.rules.large-amount.min:500}") BigDecimal largeAmountMin,
+            @Value("${risk.rules.large-amount.points:30}") int largeAmountPoints,
+            @Value("${risk.rules.large-amount.reason:large_amount}") String largeAmountReason,
+            @Value("${risk.rules.high-frequency.min:5}") BigDecimal highFrequencyMin,
+            @Value("${risk.rules.high-frequency.points:25}") int highFrequencyPoints,
+            @Value("${risk.rules.high-frequency.reason:high_frequency}") String highFrequencyReason,
+            @Value("${risk.rules.high-total.min:1000}") BigDecimal highTotalMin,
+            @Value("${risk.rules.high-total.points:20}") int highTotalPoints,
+            @Value("${risk.rules.high-total.reason:high_total}") String highTotalReason,
+            @Value("${risk.rules.max-score:100}") int maxScore) {
+        this.rules = List.of(
+                new Rule(Signal.AMOUNT, largeAmountMin, largeAmountPoints, largeAmountReason),
+                new Rule(Signal.COUNT_24H, highFrequencyMin, highFrequencyPoints, highFrequencyReason),
+                new Rule(Signal.TOTAL_24H, highTotalMin, highTotalPoints, highTotalReason));
+        this.maxScore = maxScore;
+    }
+
+    @Override
+    public ScoreResponse score(ScoreRequest request) {
+        int score = 0;
+        List<String> reasons = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            if (value(rule.signal(), request).compareTo(rule.min()) >= 0) {
+                score += rule.points();
+                reasons.add(rule.reason());
+            }
+        }
+        return new ScoreResponse(Math.min(score, maxScore), reasons);
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    private static BigDecimal value(Signal signal, ScoreRequest request) {
+        return switch (signal) {
+            case AMOUNT -> request.amount();
+            case COUNT_24H -> BigDecimal.valueOf(request.last24hTransferCount());
+            case TOTAL_24H -> request.last24hTransferTotal();
+        };
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Everything a risk-service call has to get past before and while it runs, so a slow or dead service costs
+ * a bounded amount and then nothing at all.
+ *
+ * - deadline: the call gets risk.client.deadline-ms in total; past that the caller gets a failure and the
+ *   call is interrupted (connect and read timeouts on the shared client, see RiskClientConfig, are capped by it)
+ * - bulkhead: at most risk.client.max-concurrent calls in flight, counting calls abandoned by their deadline
+ *   until they actually end; beyond that the call is refused instead of queued
+ * - circuit breaker (CircuitBreaker): once failures or slow answers dominate, calls are refused for a while,
+ *   then a few probes decide whether to resume
+ *
+ * A refused or timed-out call throws RiskUnavailableException; RiskOutboxDispatcher handles it like any
+ * other failure (retry with backoff, then the fail-open score 0). Outcomes are counted in
+ * risk.client.calls{result=success|error|timeout|bulkhead_full|circuit_open}.
+ */
+
+package com.minibank.core.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class RiskCallGuard {
+
+    public static class RiskUnavailableException extends RuntimeException {
+        public RiskUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final long deadlineMs;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter successes;
+    private final Counter errors;
+    private final Counter timeouts;
+    private final Counter bulkheadFull;
+    private final Counter circuitOpen;
+
+    public RiskCallGuard(
+            @Value("${risk.client.deadline-ms:2500}") long deadlineMs,
+            @Value("${risk.client.max-concurrent:16}") int maxConcurrent,
+            @Value("${risk.client.breaker.window:20}") int window,
+            @Value("${risk.client.breaker.min-calls:10}") int minCalls,
+            @Value("${risk.client.breaker.failure-rate:50}") int failureRatePct,
+            @Value("${risk.client.breaker.slow-call-ms:1000}") long slowCallMs,
+            @Value("${risk.client.breaker.slow-rate:80}") int slowRatePct,
+            @Value("${risk.client.breaker.open-ms:10000}") long openMs,
+            @Value("${risk.client.breaker.half-open-probes:3}") int halfOpenProbes,
+            MeterRegistry meterRegistry) {
+        this.deadlineMs = deadlineMs;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.breaker = new CircuitBreaker(
+                window, minCalls, failureRatePct, slowCallMs, slowRatePct, openMs, halfOpenProbes, meterRegistry);
+        this.successes = calls(meterRegistry, "success");
+        this.errors = calls(meterRegistry, "error");
+        this.timeouts = calls(meterRegistry, "timeout");
+        this.bulkheadFull = calls(meterRegistry, "bulkhead_full");
+        this.circuitOpen = calls(meterRegistry, "circuit_open");
+    }
+
+    private static Counter calls(MeterRegistry registry, String result) {
+        return Counter.builder("risk.client.calls")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public long deadlineMs() {
+        return deadlineMs;
+    }
+
+    public CircuitBreaker.State breakerState() {
+        return breaker.state();
+    }
+
+    public <T> T call(Callable<T> work) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadFull.increment();
+            throw new RiskUnavailableException("Too many risk service calls in flight", null);
+        }
+        if (!breaker.tryAcquire()) {
+            bulkhead.release();
+            circuitOpen.increment();
+            throw new RiskUnavailableException("Risk service circuit is open", null);
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) bulkhead.release();
+        };
+        Future<T> future;
+        try {
+            future = workers.submit(() -> {
+                started.set(true);
+                try {
+                    return work.call();
+                } finally {
+                    release.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+
+        try {
+            T result = future.get(deadlineMs, TimeUnit.MILLISECONDS);
+            breaker.record(true, System.nanoTime() - start);
+            successes.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (!started.get()) release.run(); // cancelled before it ran: its finally never will
+            breaker.record(false, System.nanoTime() - start);
+            timeouts.increment();
+            throw new RiskUnavailableException("Risk service call exceeded " + deadlineMs + "ms", e);
+        } catch (ExecutionException e) {
+            breaker.record(false, System.nanoTime() - start);
+            errors.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RiskUnavailableException("Risk service call failed", cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            if (!started.get()) release.run();
+            Thread.currentThread().interrupt();
+            throw new RiskUnavailableException("Interrupted waiting for the risk service", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -1,69 +1,98 @@
 /**
  * HTTP client to the FastAPI risk-service.
- * Contract: POST /score -> { riskScore, reasons[] }.
+ * Contract: POST /score -> { riskScore, reasons[] };
+ *           POST /score/batch { items[] } -> { results[] } (positional).
  * Base URL comes from config; keep paths relative to avoid double-prefix issues.
+ *
+ * Uses the shared, pooled riskRestClient (see RiskClientConfig for timeouts and the connection pool);
+ * every HTTP call goes through RiskCallGuard (deadline, bulkhead, circuit breaker). With
+ * risk.client.batch.enabled, concurrent score() calls are coalesced by RiskScoreBatcher into batch calls.
+ * Requests that land in the same rule buckets as an earlier one are answered by RiskScoreMemo instead.
  */
 
 package com.minibank.core.client;
 
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
-import java.math.BigDecimal;
-import java.time.Instant;
-import java.util.List;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Component
-public class RiskClient {
+public class RiskClient implements RiskScorer, AutoCloseable {
+
+  public record BatchRequest(List<ScoreRequest> items) {
+  }
+
+  public record BatchResponse(List<ScoreResponse> results) {
+  }
 
   private final RestClient restClient;
+  private final RiskCallGuard guard;
+  private final RiskScoreMemo memo;
+  private final RiskScoreBatcher batcher; // null: one call per score
+  private final long batchWaitMs; // the window, then the guarded call's own deadline
 
-  public RiskClient(@Value("${risk.base-url}") String baseUrl) {
-    this.restClient = RestClient.builder().baseUrl(baseUrl).build();
+  public RiskClient(
+      RestClient riskRestClient,
+      RiskCallGuard guard,
+      RiskScoreMemo memo,
+      @Value("${risk.client.batch.enabled:false}") boolean batchEnabled,
+      @Value("${risk.client.batch.window-ms:2}") long batchWindowMs,
+      @Value("${risk.client.batch.max-size:100}") int batchMaxSize,
+      MeterRegistry meterRegistry) {
+    this.restClient = riskRestClient;
+    this.guard = guard;
+    this.memo = memo;
+    this.batcher = batchEnabled
+        ? new RiskScoreBatcher(this::scoreBatch, batchWindowMs, batchMaxSize, meterRegistry)
+        : null;
+    this.batchWaitMs = batchWindowMs + guard.deadlineMs();
   }
 
-  public record ScoreRequest(
-      String userId,
-      String fromAccountId,
-      String toAccountId,
-      double amount,
-      String currency,
-      Instant timestamp,
-      int last24hTransferCount,
-      BigDecimal last24hTransferTotal
-  ) {}
+  @Override
+  public ScoreResponse score(ScoreRequest request) {
+    return memo.score(
+        request.amount(), request.last24hTransferCount(), request.last24hTransferTotal(), () -> call(request));
+  }
 
-  public record ScoreResponse(
-      int riskScore,
-      List<String> reasons
-  ) {}
+  private ScoreResponse call(ScoreRequest request) {
+    if (batcher == null) {
+      return guard.call(() -> restClient.post()
+          .uri("/score")
+          .body(request)
+          .retrieve()
+          .body(ScoreResponse.class));
+    }
 
-  public ScoreResponse scoreTransfer(
-      String userId,
-      String fromAccountId,
-      String toAccountId,
-      BigDecimal amount,
-      String currency,
-      int last24hCount,
-      BigDecimal last24hTotal
-  ) {
-    ScoreRequest req = new ScoreRequest(
-        userId,
-        fromAccountId,
-        toAccountId,
-        amount.doubleValue(),
-        currency,
-        Instant.now(),
-        last24hCount,
-        last24hTotal
-    );
+    try {
+      return batcher.submit(request).orTimeout(batchWaitMs, TimeUnit.MILLISECONDS).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      if (e.getCause() instanceof TimeoutException te) {
+        throw new RiskCallGuard.RiskUnavailableException("Risk score batch exceeded " + batchWaitMs + "ms", te);
+      }
+      throw e;
+    }
+  }
 
-    return restClient.post()
-        .uri("/score")
-        .body(req)
+  /** One POST /score/batch; results[i] scores requests[i]. */
+  public List<ScoreResponse> scoreBatch(List<ScoreRequest> requests) {
+    BatchResponse response = guard.call(() -> restClient.post()
+        .uri("/score/batch")
+        .body(new BatchRequest(requests))
         .retrieve()
-        .body(ScoreResponse.class);
+        .body(BatchResponse.class));
+    return response == null ? null : response.results();
   }
-}
 
+  @Override
+  public void close() {
+    if (batcher != null) batcher.close();
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Coalesces concurrent score calls into POST /score/batch calls (risk.client.batch.enabled).
+ *
+ * - the first request of a batch opens a window of risk.client.batch.window-ms; everything that arrives
+ *   before it closes, up to risk.client.batch.max-size, goes out as one call (a full batch goes at once)
+ * - a batch is sent on its own virtual thread, so the next one is collected while the last is in flight;
+ *   how many batches run at once is the RiskCallGuard bulkhead's business
+ * - results are positional and completed onto each caller's future; a failed batch fails all of its callers
+ *   (the outbox retries them individually)
+ * - close() fails everything not yet handed to a sender, including a batch the collector was still filling
+ *
+ * Batch sizes are recorded in risk.client.batch.size.
+ */
+
+package com.minibank.core.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class RiskScoreBatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RiskScoreBatcher.class);
+
+    private record Pending(RiskScorer.ScoreRequest request, CompletableFuture<RiskScorer.ScoreResponse> result) {
+    }
+
+    private final Function<List<RiskScorer.ScoreRequest>, List<RiskScorer.ScoreResponse>> send;
+    private final long windowNanos;
+    private final int maxSize;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread collector;
+    private final DistributionSummary batchSizes;
+    private volatile boolean closed;
+
+    public RiskScoreBatcher(
+            Function<List<RiskScorer.ScoreRequest>, List<RiskScorer.ScoreResponse>> send,
+            long windowMs,
+            int maxSize,
+            MeterRegistry meterRegistry) {
+        if (maxSize < 1) throw new IllegalArgumentException("risk.client.batch.max-size must be >= 1");
+        this.send = send;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxSize = maxSize;
+        this.batchSizes = DistributionSummary.builder("risk.client.batch.size").register(meterRegistry);
+        this.collector = Thread.ofVirtual().name("risk-batcher").start(this::collect);
+    }
+
+    public CompletableFuture<RiskScorer.ScoreResponse> submit(RiskScorer.ScoreRequest request) {
+        CompletableFuture<RiskScorer.ScoreResponse> result = new CompletableFuture<>();
+        queue.add(new Pending(request, result));
+        if (closed) failQueued(); // raced close(): nobody else will drain it
+        return result;
+    }
+
+    private void collect() {
+        List<Pending> batch = List.of();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch = new ArrayList<>(maxSize);
+                batch.add(queue.take());
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxSize) {
+                    // whatever is already queued costs nothing to take
+                    if (queue.drainTo(batch, maxSize - batch.size()) > 0) continue;
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                List<Pending> ready = batch;
+                senders.execute(() -> dispatch(ready));
+                batch = List.of();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException e) {
+            // closed while handing the batch off
+        }
+        fail(batch);
+    }
+
+    private void dispatch(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<RiskScorer.ScoreRequest> requests = new ArrayList<>(batch.size());
+            for (Pending p : batch) requests.add(p.request());
+
+            List<RiskScorer.ScoreResponse> results = send.apply(requests);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Risk service returned "
+                        + (results == null ? 0 : results.size()) + " results for " + batch.size() + " requests");
+            }
+            for (int i = 0; i < batch.size(); i++) batch.get(i).result().complete(results.get(i));
+        } catch (RuntimeException e) {
+            log.debug("Risk score batch failed. size={} error={}", batch.size(), e.toString());
+            for (Pending p : batch) p.result().completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+        senders.shutdownNow();
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left);
+    }
+
+    private static void fail(List<Pending> pending) {
+        for (Pending p : pending) {
+            p.result().completeExceptionally(new IllegalStateException("Risk score batcher closed"));
+        }
+    }
+}
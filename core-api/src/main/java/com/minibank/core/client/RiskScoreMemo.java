@@ -0,0 +1,178 @@
+/**
+ * Memoized risk-service scores. The service is a pure function of (amount, last24hTransferCount,
+ * last24hTransferTotal) and its rules only compare them to thresholds, so two requests on the same side of
+ * every threshold get the same answer; the second one never needs an HTTP call.
+ *
+ * - the breakpoints come from GET /rules, along with a rules version; they are re-read every
+ *   risk.score.cache.rules-refresh-ms, in the background: scoring keeps using the old rules meanwhile, so a slow
+ *   or down service never holds up callers. Only the very first load is waited for, by the one caller that
+ *   triggers it; concurrent callers go uncached until it is in
+ * - key: the rules version plus, per feature, how many of its breakpoints the value reaches. A new version
+ *   means new keys, so results scored under old rules are never served again
+ * - entries: IdempotencyCache (bounded LRU, risk.score.cache.ttl-ms), so concurrent identical misses share
+ *   one call; failures are not cached
+ * - rules unavailable (older service, outage) or a feature this client doesn't know: no caching, every call
+ *   goes through, and /rules is tried again after the refresh interval
+ *
+ * Hit rate: risk.score.cache.requests{result=hit|coalesced|miss|bypass}; bypass = not cacheable (no usable rules).
+ */
+
+package com.minibank.core.client;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.minibank.core.service.IdempotencyCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class RiskScoreMemo {
+    private static final Logger log = LoggerFactory.getLogger(RiskScoreMemo.class);
+
+    private static final List<String> FEATURES = List.of("amount", "last24hTransferCount", "last24hTransferTotal");
+
+    /** GET /rules as published by the risk-service. */
+    public record RulesDto(String version, Integer maxScore, List<RuleDto> rules) {
+    }
+
+    public record RuleDto(String feature, BigDecimal min, Integer points, String reason) {
+    }
+
+    /** usable == false: don't cache (no rules, or rules this client can't bucket). */
+    record Rules(boolean usable, String version, List<BigDecimal[]> breakpoints, long loadedAtNanos) {
+    }
+
+    private static final Rules NOT_LOADED = new Rules(false, null, List.of(), 0);
+
+    private final RestClient restClient;
+    private final RiskCallGuard guard;
+    private final boolean enabled;
+    private final long refreshNanos;
+    private final IdempotencyCache<RiskScorer.ScoreResponse> cache;
+    private final Counter bypassed;
+
+    private volatile Rules rules;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public RiskScoreMemo(
+            RestClient riskRestClient,
+            RiskCallGuard guard,
+            @Value("${risk.score.cache.enabled:true}") boolean enabled,
+            @Value("${risk.score.cache.max-entries:10000}") int maxEntries,
+            @Value("${risk.score.cache.ttl-ms:600000}") long ttlMs,
+            @Value("${risk.score.cache.rules-refresh-ms:60000}") long rulesRefreshMs,
+            MeterRegistry meterRegistry) {
+        this.restClient = riskRestClient;
+        this.guard = guard;
+        this.enabled = enabled;
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(rulesRefreshMs);
+        this.cache = new IdempotencyCache<>(
+                maxEntries, Duration.ofMillis(ttlMs), result -> counter(meterRegistry, result));
+        this.bypassed = counter(meterRegistry, "bypass");
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("risk.score.cache.requests").tag("result", result).register(registry);
+    }
+
+    public RiskScorer.ScoreResponse score(
+            BigDecimal amount,
+            int last24hTransferCount,
+            BigDecimal last24hTransferTotal,
+            Supplier<RiskScorer.ScoreResponse> call) {
+        if (!enabled || amount == null || last24hTransferTotal == null) return call.get();
+
+        Rules current = currentRules();
+        if (!current.usable()) {
+            bypassed.increment();
+            return call.get();
+        }
+
+        BigDecimal[] values = { amount, BigDecimal.valueOf(last24hTransferCount), last24hTransferTotal };
+        StringBuilder key = new StringBuilder();
+        for (int f = 0; f < values.length; f++) {
+            if (f > 0) key.append('.');
+            key.append(bucket(values[f], current.breakpoints().get(f)));
+        }
+        return cache.getOrCompute(current.version(), key.toString(), call);
+    }
+
+    /** How many of the (ascending) breakpoints the value reaches; thresholds are inclusive. */
+    static int bucket(BigDecimal value, BigDecimal[] breakpoints) {
+        int n = 0;
+        while (n < breakpoints.length && value.compareTo(breakpoints[n]) >= 0) n++;
+        return n;
+    }
+
+    private Rules currentRules() {
+        Rules r = rules;
+        if (r != null && System.nanoTime() - r.loadedAtNanos() < refreshNanos) return r;
+
+        if (!refreshing.compareAndSet(false, true)) {
+            return (r != null) ? r : NOT_LOADED; // someone else is loading them
+        }
+        if (r == null) {
+            return refresh();
+        }
+        Thread.ofVirtual().name("risk-rules-refresh").start(this::refresh);
+        return r;
+    }
+
+    private Rules refresh() {
+        try {
+            Rules r = load();
+            rules = r;
+            return r;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private Rules load() {
+        long now = System.nanoTime();
+        RulesDto dto;
+        try {
+            dto = guard.call(() -> restClient.get().uri("/rules").retrieve().body(RulesDto.class));
+        } catch (Exception e) {
+            log.debug("Risk rules unavailable; scores are not cached. error={}", e.toString());
+            return new Rules(false, null, List.of(), now);
+        }
+        return toRules(dto, now);
+    }
+
+    static Rules toRules(RulesDto dto, long now) {
+        if (dto == null || dto.version() == null || dto.rules() == null) return new Rules(false, null, List.of(), now);
+
+        Map<String, List<BigDecimal>> byFeature = new TreeMap<>();
+        for (RuleDto rule : dto.rules()) {
+            if (rule.min() == null || !FEATURES.contains(rule.feature())) {
+                log.warn("Risk rules use a feature this client can't bucket; scores are not cached. rule={}", rule);
+                return new Rules(false, null, List.of(), now);
+            }
+            byFeature.computeIfAbsent(rule.feature(), k -> new ArrayList<>()).add(rule.min());
+        }
+
+        List<BigDecimal[]> breakpoints = new ArrayList<>(FEATURES.size());
+        for (String feature : FEATURES) {
+            breakpoints.add(byFeature.getOrDefault(feature, List.of()).stream()
+                    .sorted()
+                    .toArray(BigDecimal[]::new));
+        }
+        return new Rules(true, dto.version(), breakpoints, now);
+    }
+}
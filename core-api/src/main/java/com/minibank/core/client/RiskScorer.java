@@ -0,0 +1,32 @@
+/**
+ * Scores one transfer: the contract shared by the in-JVM rule engine (LocalRiskScorer) and the
+ * FastAPI risk-service (RiskClient). Which one the outbox dispatcher uses is risk.scorer.mode
+ * (see RiskClientConfig): local, remote, or shadow (local answers, remote is compared in the background).
+ *
+ * Request/response mirror the risk-service's POST /score JSON; reason codes are the service's.
+ */
+
+package com.minibank.core.client;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public interface RiskScorer {
+
+    record ScoreRequest(
+            String userId,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount, // exact decimal on the wire; a double would round amounts like 0.1
+            String currency,
+            Instant timestamp,
+            int last24hTransferCount,
+            BigDecimal last24hTransferTotal) {
+    }
+
+    record ScoreResponse(int riskScore, List<String> reasons) {
+    }
+
+    ScoreResponse score(ScoreRequest request);
+}
@@ -1,12 +1,15 @@
 
 /**
- * Adapter around RiskClient used by the service layer.
+ * Sandbox scoring for /api/risk/score, over the same shared, pooled riskRestClient as RiskClient;
+ * every HTTP call goes through RiskCallGuard (deadline, bulkhead, circuit breaker) like RiskClient's.
  * Keeps Core API decoupled from transport details (HTTP, JSON shape).
  */
 
 
 package com.minibank.core.client;
 
+import java.math.BigDecimal;
+
 import com.minibank.dto.RiskScoreRequest;
 import com.minibank.dto.RiskScoreResponse;
 
@@ -17,13 +20,30 @@ import org.springframework.web.client.RestClient;
 @Component
 public class RiskScoringClient {
     private final RestClient restClient;
+    private final RiskCallGuard guard;
+    private final RiskScoreMemo memo;
 
-    public RiskScoringClient(RestClient riskRestClient) {
+    public RiskScoringClient(RestClient riskRestClient, RiskCallGuard guard, RiskScoreMemo memo) {
         this.restClient = riskRestClient;
+        this.guard = guard;
+        this.memo = memo;
     }
 
+    // Same rule buckets as an earlier request -> the memoized answer, no HTTP call
     public RiskScoreResponse score(RiskScoreRequest request) {
-        return restClient.post()
+        RiskScorer.ScoreResponse r = memo.score(
+                BigDecimal.valueOf(request.amount()),
+                request.last24hTransferCount(),
+                BigDecimal.valueOf(request.last24hTransferTotal()),
+                () -> {
+                    RiskScoreResponse resp = call(request);
+                    return resp == null ? null : new RiskScorer.ScoreResponse(resp.riskScore(), resp.reasons());
+                });
+        return r == null ? null : new RiskScoreResponse(r.riskScore(), r.reasons());
+    }
+
+    private RiskScoreResponse call(RiskScoreRequest request) {
+        return guard.call(() -> restClient.post()
                 .uri("/score")
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(request)
@@ -31,12 +51,8 @@ public class RiskScoringClient {
                 .onStatus(HttpStatusCode::isError, (req, res) -> {
                     throw new RuntimeException("Risk service error: HTTP " + res.getStatusCode());
                 })
-                .body(RiskScoreResponse.class);
-
+                .body(RiskScoreResponse.class));
     }
     
 
 }
-
-
-
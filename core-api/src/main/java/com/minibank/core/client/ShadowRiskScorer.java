@@ -0,0 +1,92 @@
+/**
+ * risk.scorer.mode=shadow: the local rule engine answers, and the same request is replayed against the
+ * risk-service in the background to check the two agree before switching the service off.
+ *
+ * - the caller never waits for (or fails because of) the remote call
+ * - at most risk.scorer.shadow.max-in-flight remote calls run at once; beyond that a comparison is skipped
+ * - outcomes are counted as risk.scorer.shadow{result=match|mismatch|error|skipped}; mismatches are logged
+ *   with both answers
+ */
+
+package com.minibank.core.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class ShadowRiskScorer implements RiskScorer, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ShadowRiskScorer.class);
+
+    private final RiskScorer primary;
+    private final RiskScorer shadow;
+    private final Semaphore permits;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter matches;
+    private final Counter mismatches;
+    private final Counter errors;
+    private final Counter skipped;
+
+    public ShadowRiskScorer(RiskScorer primary, RiskScorer shadow, int maxInFlight, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.shadow = shadow;
+        this.permits = new Semaphore(maxInFlight);
+        this.matches = counter(meterRegistry, "match");
+        this.mismatches = counter(meterRegistry, "mismatch");
+        this.errors = counter(meterRegistry, "error");
+        this.skipped = counter(meterRegistry, "skipped");
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("risk.scorer.shadow")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public ScoreResponse score(ScoreRequest request) {
+        ScoreResponse answer = primary.score(request);
+
+        if (!permits.tryAcquire()) {
+            skipped.increment();
+            return answer;
+        }
+        workers.execute(() -> {
+            try {
+                compare(request, answer);
+            } finally {
+                permits.release();
+            }
+        });
+        return answer;
+    }
+
+    private void compare(ScoreRequest request, ScoreResponse answer) {
+        ScoreResponse other;
+        try {
+            other = shadow.score(request);
+        } catch (Exception e) {
+            errors.increment();
+            log.debug("Shadow risk scoring failed. error={}", e.toString());
+            return;
+        }
+
+        if (other != null && other.riskScore() == answer.riskScore() && answer.reasons().equals(other.reasons())) {
+            matches.increment();
+        } else {
+            mismatches.increment();
+            log.warn("Shadow risk score differs. local={} remote={} request={}", answer, other, request);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
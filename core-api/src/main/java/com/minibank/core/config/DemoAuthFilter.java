@@ -3,6 +3,9 @@
  * - Accepts Authorization: Bearer demo-token
  * - Not production security (no users DB, no JWT validation, no refresh tokens)
  * Purpose: keep the demo gated without adding full auth complexity.
+ *
+ * The token maps to the demo user; its id is looked up once and attached to the request
+ * as USER_ID_ATTRIBUTE, so controllers take it via @RequestAttribute instead of querying users.
  */
 
 package com.minibank.core.config;
@@ -15,12 +18,27 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.minibank.core.domain.UserEntity;
+import com.minibank.core.repo.UserRepository;
+
 import java.io.IOException;
 
 @Component
 public class DemoAuthFilter extends OncePerRequestFilter {
 
+    public static final String USER_ID_ATTRIBUTE = "minibank.userId";
+
     private static final String DEMO_TOKEN = "Bearer demo-token";
+    private static final String DEMO_EMAIL = "demo@digitalbanking.dev";
+
+    private final UserRepository users;
+
+    // resolved on first use (the seeder may still be running at startup); only a hit is kept
+    private volatile String demoUserId;
+
+    public DemoAuthFilter(UserRepository users) {
+        this.users = users;
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -37,14 +55,24 @@ public class DemoAuthFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
 
-        if (authHeader == null || !authHeader.equals(DEMO_TOKEN)) {
+        String userId = (authHeader != null && authHeader.equals(DEMO_TOKEN)) ? demoUserId() : null;
+        if (userId == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
             response.getWriter().write("{\"error\":\"Unauthorized\"}");
             return;
         }
 
+        request.setAttribute(USER_ID_ATTRIBUTE, userId);
         filterChain.doFilter(request, response);
     }
-}
 
+    private String demoUserId() {
+        String id = demoUserId;
+        if (id == null) {
+            id = users.findByEmail(DEMO_EMAIL).map(UserEntity::getId).orElse(null);
+            demoUserId = id;
+        }
+        return id;
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 
+import com.minibank.core.client.LocalRiskScorer;
+import com.minibank.core.client.RiskScorer;
 import com.minibank.core.domain.AccountEntity;
 import com.minibank.core.domain.LedgerEntryEntity;
 import com.minibank.core.domain.RiskAssessmentEntity;
@@ -33,7 +35,8 @@ public class DemoTransferSeeder {
             TransferRepository transfers,
             RiskAssessmentRepository risks,
             LedgerEntryRepository ledger,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            LocalRiskScorer scorer) {
         return args -> {
             String email = "demo@digitalbanking.dev";
 
@@ -67,7 +70,7 @@ public class DemoTransferSeeder {
 
             // Create a burst inside the "last 24h" window (all created now, which is within
             // 24h)
-            // Mix amounts to trigger: large_amount + velocity + high_24h_total
+            // Mix amounts to trigger: large_amount + high_frequency + high_total
             List<BigDecimal> amounts = List.of(
                     bd("120.00"),
                     bd("200.00"),
@@ -130,14 +133,15 @@ public class DemoTransferSeeder {
 
                 ledger.saveAll(List.of(debit, credit));
 
-                // Risk assessment (local mirror of your FastAPI rules)
-                RiskCalc rc = computeRisk(amt, count, total);
-                String reasonsJson = objectMapper.writeValueAsString(rc.reasons);
+                // Risk assessment from the same rule engine the dispatcher uses in local mode
+                RiskScorer.ScoreResponse rs = scorer.score(new RiskScorer.ScoreRequest(
+                        user.getId(), from.getId(), to.getId(), amt, "CAD", t.getCreatedAt(), count, total));
+                String reasonsJson = objectMapper.writeValueAsString(rs.reasons());
 
                 RiskAssessmentEntity ra = new RiskAssessmentEntity();
                 ra.setTransferId(t.getId());
-                ra.setRiskScore(rc.score);
-                ra.setLevel(scoreToLevel(rc.score));
+                ra.setRiskScore(rs.riskScore());
+                ra.setLevel(scoreToLevel(rs.riskScore()));
                 ra.setReasonsJson(reasonsJson);
 
                 risks.save(ra);
@@ -149,29 +153,6 @@ public class DemoTransferSeeder {
         return accounts.stream().filter(a -> name.equals(a.getName())).findFirst().orElse(null);
     }
 
-    // Mirrors your FastAPI scoring rules
-    private RiskCalc computeRisk(BigDecimal amount, int last24hCount, BigDecimal last24hTotal) {
-        int score = 0;
-        java.util.List<String> reasons = new java.util.ArrayList<>();
-
-        if (amount.compareTo(bd("500.00")) >= 0) {
-            score += 30;
-            reasons.add("large_amount");
-        }
-        if (last24hCount >= 5) {
-            score += 25;
-            reasons.add("velocity");
-        }
-        if (last24hTotal.compareTo(bd("1000.00")) >= 0) {
-            score += 20;
-            reasons.add("high_24h_total");
-        }
-
-        if (score > 100)
-            score = 100;
-        return new RiskCalc(score, reasons);
-    }
-
     private String scoreToLevel(int score) {
         if (score >= 70)
             return "HIGH";
@@ -184,14 +165,4 @@ public class DemoTransferSeeder {
         return new BigDecimal(v);
     }
 
-    private static class RiskCalc {
-        final int score;
-        final java.util.List<String> reasons;
-
-        RiskCalc(int score, java.util.List<String> reasons) {
-            this.score = score;
-            this.reasons = reasons;
-        }
-    }
-
 }
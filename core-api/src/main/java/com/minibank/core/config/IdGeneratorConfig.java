@@ -0,0 +1,38 @@
+/**
+ * Installs the primary key generator used by the entities (see Ids).
+ * - ids.generator=time-ordered (default): UUIDv7, appends to the end of the PK index
+ * - ids.generator=random: the previous random UUIDv4 keys
+ * - ids.format=uuid (default) | compact: 36-char UUID text or 26-char base32 (time-ordered only)
+ */
+
+package com.minibank.core.config;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.minibank.core.domain.IdGenerator;
+import com.minibank.core.domain.Ids;
+import com.minibank.core.domain.RandomIdGenerator;
+import com.minibank.core.domain.TimeOrderedIdGenerator;
+
+@Configuration
+public class IdGeneratorConfig {
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    public IdGeneratorConfig(
+            @Value("${ids.generator:time-ordered}") String generator,
+            @Value("${ids.format:uuid}") String format) {
+        IdGenerator g = switch (generator.toLowerCase(Locale.ROOT)) {
+            case "time-ordered" -> new TimeOrderedIdGenerator(
+                    TimeOrderedIdGenerator.Format.valueOf(format.toUpperCase(Locale.ROOT)));
+            case "random" -> new RandomIdGenerator();
+            default -> throw new IllegalArgumentException("Unknown ids.generator: " + generator);
+        };
+        Ids.use(g);
+        log.info("Primary keys: generator={} format={}", generator, format);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Opt-in (ids.migrate-on-startup=true) re-keying of existing rows to time-ordered ids.
+ *
+ * - ledger_entries and risk_assessments: legacy random UUIDs are replaced, in batches, by ids derived from
+ *   each row's createdAt, so old rows sort where they belong; then VACUUM rebuilds the tables/indexes in key order
+ * - transfers are NOT re-keyed: their ids are public (API responses, Idempotency replays, prefix search, other
+ *   tables' transferId). Old transfers keep their random ids; new ones are time-ordered and append at the end.
+ *
+ * Safe to re-run: rows that already have a time-ordered id are skipped.
+ */
+
+package com.minibank.core.config;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.domain.IdGenerator;
+import com.minibank.core.domain.Ids;
+import com.minibank.core.domain.RandomIdGenerator;
+
+import jakarta.persistence.EntityManager;
+
+@Component
+@Order(0) // before the seeders
+@ConditionalOnProperty(name = "ids.migrate-on-startup", havingValue = "true")
+public class IdMigrationRunner implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(IdMigrationRunner.class);
+
+    private record Table(String entity, String table) {
+    }
+
+    private static final List<Table> TABLES = List.of(
+            new Table("LedgerEntryEntity", "ledger_entries"),
+            new Table("RiskAssessmentEntity", "risk_assessments"));
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+
+    public IdMigrationRunner(
+            EntityManager em,
+            JdbcTemplate jdbc,
+            PlatformTransactionManager txManager,
+            @Value("${ids.migrate-batch-size:1000}") int batchSize) {
+        this.em = em;
+        this.jdbc = jdbc;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        IdGenerator generator = Ids.generator();
+        if (generator instanceof RandomIdGenerator) {
+            log.warn("ids.migrate-on-startup is set but ids.generator=random; nothing to migrate to");
+            return;
+        }
+
+        long total = 0;
+        for (Table t : TABLES) {
+            long migrated = 0;
+            int n;
+            while ((n = migrateBatch(t, generator)) > 0) {
+                migrated += n;
+            }
+            log.info("Re-keyed {} rows in {}", migrated, t.table());
+            total += migrated;
+        }
+
+        if (total > 0) {
+            // rewrite the files in key order so the B-tree pages are dense and sequential again
+            jdbc.execute("VACUUM");
+        }
+    }
+
+    private int migrateBatch(Table t, IdGenerator generator) {
+        Integer n = txTemplate.execute(status -> {
+            // legacy UUIDv4 text: 36 chars with version '4' where v7 has '7'
+            List<Object[]> rows = em.createQuery(
+                    "select e.id, e.createdAt from " + t.entity() + " e"
+                            + " where length(e.id) = 36 and substring(e.id, 15, 1) <> '7'",
+                    Object[].class)
+                    .setMaxResults(batchSize)
+                    .getResultList();
+            if (rows.isEmpty()) return 0;
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String oldId = (String) row[0];
+                Instant createdAt = (Instant) row[1];
+                updates.add(new Object[] { generator.nextAt(createdAt.toEpochMilli()), oldId });
+            }
+            jdbc.batchUpdate("update " + t.table() + " set id = ? where id = ?", updates);
+            return rows.size();
+        });
+        return (n == null) ? 0 : n;
+    }
+}
@@ -1,23 +1,145 @@
+/**
+ * The one HTTP client to the risk-service, shared by RiskClient (transfer scoring) and RiskScoringClient
+ * (the /api/risk/score sandbox), plus the choice of RiskScorer.
+ *
+ * Connections are pooled and reused (keep-alive) instead of opened per call:
+ * - risk.client.pool.max-per-route / max-total: all calls go to one route, so max-per-route is the real cap
+ * - connections idle for risk.client.pool.idle-evict-ms, or older than ttl-ms, are closed in the background,
+ *   so a stale socket the service already dropped isn't handed out
+ * - SO_KEEPALIVE on, connect/read timeouts from risk.client.*, capped by the RiskCallGuard deadline
+ * - waiting for a free connection is bounded by risk.client.pool.acquire-timeout-ms
+ * - risk.client.http2=true switches to the JDK client speaking HTTP/2 cleartext (h2c upgrade), which
+ *   multiplexes calls over one connection; the risk-service must run an h2c-capable server
+ *
+ * Timing per request is the standard http.client.requests timer (the RestClient.Builder is Boot's, with
+ * observations on); pool saturation is risk.client.pool.{leased,pending,available,max}.
+ */
+
 package com.minibank.core.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import com.minibank.core.client.LocalRiskScorer;
+import com.minibank.core.client.RiskCallGuard;
+import com.minibank.core.client.RiskClient;
+import com.minibank.core.client.RiskScorer;
+import com.minibank.core.client.ShadowRiskScorer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class RiskClientConfig {
 
         @Bean
-        RestClient riskRestClient(RestClient.Builder builder,
-                        @Value("${risk.base-url}") String baseUrl) {
+        ClientHttpRequestFactory riskRequestFactory(
+                        @Value("${risk.client.connect-timeout-ms:500}") long connectTimeoutMs,
+                        @Value("${risk.client.read-timeout-ms:2000}") long readTimeoutMs,
+                        @Value("${risk.client.http2:false}") boolean http2,
+                        @Value("${risk.client.pool.max-per-route:64}") int maxPerRoute,
+                        @Value("${risk.client.pool.max-total:64}") int maxTotal,
+                        @Value("${risk.client.pool.idle-evict-ms:30000}") long idleEvictMs,
+                        @Value("${risk.client.pool.ttl-ms:300000}") long ttlMs,
+                        @Value("${risk.client.pool.acquire-timeout-ms:250}") long acquireTimeoutMs,
+                        RiskCallGuard guard,
+                        MeterRegistry meterRegistry) {
+
+                long connectMs = Math.min(connectTimeoutMs, guard.deadlineMs());
+                long readMs = Math.min(readTimeoutMs, guard.deadlineMs());
+
+                if (http2) {
+                        HttpClient jdk = HttpClient.newBuilder()
+                                        .version(HttpClient.Version.HTTP_2)
+                                        .connectTimeout(Duration.ofMillis(connectMs))
+                                        .build();
+                        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(jdk);
+                        factory.setReadTimeout(Duration.ofMillis(readMs));
+                        return factory;
+                }
+
+                PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                                .setMaxConnPerRoute(maxPerRoute)
+                                .setMaxConnTotal(maxTotal)
+                                .setDefaultSocketConfig(SocketConfig.custom()
+                                                .setSoKeepAlive(true)
+                                                .setTcpNoDelay(true)
+                                                .build())
+                                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                                .setConnectTimeout(Timeout.ofMilliseconds(connectMs))
+                                                .setSocketTimeout(Timeout.ofMilliseconds(readMs))
+                                                .setTimeToLive(TimeValue.ofMilliseconds(ttlMs))
+                                                .build())
+                                .build();
+
+                CloseableHttpClient client = HttpClients.custom()
+                                .setConnectionManager(pool)
+                                .setDefaultRequestConfig(RequestConfig.custom()
+                                                .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                                                .setResponseTimeout(Timeout.ofMilliseconds(readMs))
+                                                .build())
+                                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                                .evictExpiredConnections()
+                                .build();
 
-                HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+                poolGauge(meterRegistry, "leased", pool, p -> p.getTotalStats().getLeased());
+                poolGauge(meterRegistry, "pending", pool, p -> p.getTotalStats().getPending());
+                poolGauge(meterRegistry, "available", pool, p -> p.getTotalStats().getAvailable());
+                poolGauge(meterRegistry, "max", pool, p -> p.getTotalStats().getMax());
+
+                // closes the client (and its pool) on shutdown: the factory is a DisposableBean
+                return new HttpComponentsClientHttpRequestFactory(client);
+        }
+
+        private static void poolGauge(MeterRegistry registry, String name, PoolingHttpClientConnectionManager pool,
+                        ToDoubleFunction<PoolingHttpClientConnectionManager> value) {
+                Gauge.builder("risk.client.pool." + name, pool, value).register(registry);
+        }
+
+        @Bean
+        RestClient riskRestClient(RestClient.Builder builder,
+                        @Value("${risk.base-url}") String baseUrl,
+                        ClientHttpRequestFactory riskRequestFactory) {
 
                 return builder
                                 .baseUrl(baseUrl)
-                                .requestFactory(factory)
+                                .requestFactory(riskRequestFactory)
                                 .build();
         }
+
+        /** The scorer the outbox dispatcher uses: risk.scorer.mode = local (default) | remote | shadow. */
+        @Bean
+        @Primary
+        RiskScorer riskScorer(@Value("${risk.scorer.mode:local}") String mode,
+                        @Value("${risk.scorer.shadow.max-in-flight:64}") int shadowMaxInFlight,
+                        LocalRiskScorer local,
+                        RiskClient remote,
+                        MeterRegistry meterRegistry) {
+
+                return switch (mode) {
+                        case "local" -> local;
+                        case "remote" -> remote;
+                        case "shadow" -> new ShadowRiskScorer(local, remote, shadowMaxInFlight, meterRegistry);
+                        default -> throw new IllegalArgumentException("Unknown risk.scorer.mode: " + mode);
+                };
+        }
 }
@@ -0,0 +1,36 @@
+/**
+ * Rebuilds transfer_rollups_hourly at startup when it doesn't account for every APPROVED transfer:
+ * a database from before the rollups existed, or transfers the demo seeder wrote straight through
+ * the repositories. stats.rollups.rebuild-on-startup=true forces a rebuild regardless.
+ */
+
+package com.minibank.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.minibank.core.service.TransferRollups;
+
+@Component
+@Order(4) // after the seeders and the transfer_views backfill
+public class TransferRollupBackfill implements CommandLineRunner {
+
+    private final TransferRollups rollups;
+    private final boolean force;
+
+    public TransferRollupBackfill(
+            TransferRollups rollups,
+            @Value("${stats.rollups.rebuild-on-startup:false}") boolean force) {
+        this.rollups = rollups;
+        this.force = force;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (force || !rollups.inSync()) {
+            rollups.rebuild();
+        }
+    }
+}
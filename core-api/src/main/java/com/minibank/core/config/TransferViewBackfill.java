@@ -0,0 +1,96 @@
+/**
+ * Creates the missing transfer_views rows (see TransferViewEntity) at startup:
+ * transfers from before the read model existed, and the demo seeder's transfers, which are
+ * written straight through the repositories. Batched; a no-op once every transfer has its row.
+ */
+
+package com.minibank.core.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.domain.RiskAssessmentEntity;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.domain.TransferViewEntity;
+import com.minibank.core.repo.RiskAssessmentRepository;
+import com.minibank.core.repo.TransferViewRepository;
+import com.minibank.core.service.RiskReasonsCodec;
+
+import jakarta.persistence.EntityManager;
+
+@Component
+@Order(3) // after the seeders
+public class TransferViewBackfill implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(TransferViewBackfill.class);
+
+    private final EntityManager em;
+    private final TransferViewRepository views;
+    private final RiskAssessmentRepository risks;
+    private final RiskReasonsCodec reasonsCodec;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+
+    public TransferViewBackfill(
+            EntityManager em,
+            TransferViewRepository views,
+            RiskAssessmentRepository risks,
+            RiskReasonsCodec reasonsCodec,
+            PlatformTransactionManager txManager,
+            @Value("${transfer.views.backfill-batch-size:500}") int batchSize) {
+        this.em = em;
+        this.views = views;
+        this.risks = risks;
+        this.reasonsCodec = reasonsCodec;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        long total = 0;
+        int n;
+        while ((n = backfillBatch()) > 0) {
+            total += n;
+        }
+        if (total > 0) log.info("Backfilled {} transfer_views rows", total);
+    }
+
+    private int backfillBatch() {
+        Integer n = txTemplate.execute(status -> {
+            List<TransferEntity> missing = em.createQuery(
+                    "select t from TransferEntity t"
+                            + " where not exists (select 1 from TransferViewEntity v where v.id = t.id)",
+                    TransferEntity.class)
+                    .setMaxResults(batchSize)
+                    .getResultList();
+            if (missing.isEmpty()) return 0;
+
+            Map<String, RiskAssessmentEntity> assessments = risks
+                    .findByTransferIdIn(missing.stream().map(TransferEntity::getId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(RiskAssessmentEntity::getTransferId, Function.identity(), (a, b) -> a));
+
+            for (TransferEntity t : missing) {
+                TransferViewEntity v = TransferViewEntity.of(t);
+                RiskAssessmentEntity ra = assessments.get(t.getId());
+                if (ra != null) {
+                    v.applyRisk(ra.getRiskScore(), ra.getLevel(), reasonsCodec.parse(ra.getReasonsJson()));
+                }
+                views.save(v);
+            }
+            return missing.size();
+        });
+        return (n == null) ? 0 : n;
+    }
+}
@@ -0,0 +1,34 @@
+package com.minibank.core.db;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chooses the reader or writer pool for each physical connection:
+ * - inside a transaction: its read-only flag decides (Spring Data's finders are readOnly=true)
+ * - outside one: READER while the thread is marked read-only (GET requests, see ReadOnlyRequestFilter)
+ * So an explicit read-write transaction always gets the writer, even from a GET handler.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { READER, WRITER }
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    /** Marks the current thread read-only until {@link #clearReadOnly()}. */
+    public static void markReadOnly() {
+        READ_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clearReadOnly() {
+        READ_ONLY.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READER : Route.WRITER;
+        }
+        return READ_ONLY.get() != null ? Route.READER : Route.WRITER;
+    }
+}
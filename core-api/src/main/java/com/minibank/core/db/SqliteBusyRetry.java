@@ -0,0 +1,83 @@
+/**
+ * Retries a write transaction that failed with SQLITE_BUSY / SQLITE_LOCKED.
+ *
+ * With a single writer connection and busy_timeout this should be rare (another process on the file,
+ * a checkpoint racing a reader upgrade), but when it happens the whole transaction is rolled back and
+ * can simply be run again. Bounded: sqlite.busy.max-retries attempts, exponential backoff with jitter
+ * starting at sqlite.busy.backoff-ms; after that the original exception propagates.
+ *
+ * The work must be a complete transaction (e.g. a TransactionTemplate call), never a piece of one.
+ */
+
+package com.minibank.core.db;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class SqliteBusyRetry {
+    private static final Logger log = LoggerFactory.getLogger(SqliteBusyRetry.class);
+
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final long MAX_BACKOFF_MS = 1000;
+
+    private final int maxRetries;
+    private final long backoffMs;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public SqliteBusyRetry(
+            @Value("${sqlite.busy.max-retries:3}") int maxRetries,
+            @Value("${sqlite.busy.backoff-ms:25}") long backoffMs,
+            MeterRegistry meterRegistry) {
+        this.maxRetries = maxRetries;
+        this.backoffMs = backoffMs;
+        this.retries = Counter.builder("sqlite.busy.retries").register(meterRegistry);
+        this.exhausted = Counter.builder("sqlite.busy.exhausted").register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> tx) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return tx.get();
+            } catch (RuntimeException e) {
+                if (!isBusy(e)) throw e;
+                if (attempt >= maxRetries) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                long delay = Math.min(MAX_BACKOFF_MS, backoffMs << attempt);
+                delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+                log.debug("SQLite busy, retrying in {}ms (attempt {})", delay, attempt + 1);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    static boolean isBusy(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLiteException se) {
+                int primary = se.getResultCode().code & 0xFF; // extended codes (BUSY_SNAPSHOT, ...) share the low byte
+                return primary == SQLITE_BUSY || primary == SQLITE_LOCKED;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+}
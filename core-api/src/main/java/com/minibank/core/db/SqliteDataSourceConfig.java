@@ -0,0 +1,117 @@
+/**
+ * SQLite data-source layer: one writer connection, a small pool of readers, WAL journaling.
+ *
+ * - every connection opens with journal_mode=WAL plus the sqlite.pragma.* settings below,
+ *   so readers see the last committed snapshot instead of blocking behind the writer
+ * - the writer pool has exactly one connection: SQLite allows one writer anyway, and queueing
+ *   in Hikari (bounded by connection-timeout) is cheaper than bouncing off SQLITE_BUSY
+ * - reader connections run with query_only, so a misrouted write fails loudly
+ * - ReadWriteRoutingDataSource picks the pool per connection; LazyConnectionDataSourceProxy delays
+ *   the pick until the first statement, when the transaction's read-only flag is known
+ *
+ * Pool wait time is published by Hikari as hikaricp.connections.acquire{pool=sqlite-writer|sqlite-reader}
+ * (plus .pending/.active/.timeout) under /actuator/metrics.
+ */
+
+package com.minibank.core.db;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class SqliteDataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${sqlite.pool.readers:4}")
+    private int readers;
+
+    @Value("${sqlite.pool.connection-timeout-ms:30000}")
+    private long connectionTimeoutMs;
+
+    @Value("${sqlite.pragma.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${sqlite.pragma.mmap-size:268435456}")
+    private long mmapSize;
+
+    // negative = KiB, so -65536 is a 64 MiB page cache per connection
+    @Value("${sqlite.pragma.cache-size:-65536}")
+    private int cacheSize;
+
+    @Value("${sqlite.pragma.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    HikariDataSource sqliteWriterPool(MeterRegistry meterRegistry) {
+        HikariConfig cfg = baseConfig("sqlite-writer", meterRegistry);
+        cfg.setMaximumPoolSize(1);
+        cfg.setMinimumIdle(1);
+        return new HikariDataSource(cfg);
+    }
+
+    @Bean(destroyMethod = "close")
+    HikariDataSource sqliteReaderPool(MeterRegistry meterRegistry) {
+        HikariConfig cfg = baseConfig("sqlite-reader", meterRegistry);
+        cfg.setMaximumPoolSize(readers);
+        cfg.setMinimumIdle(1);
+        cfg.setConnectionInitSql("PRAGMA query_only = 1");
+        return new HikariDataSource(cfg);
+    }
+
+    // the pools are DataSources too; JPA/JdbcTemplate must get the routing one
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource sqliteWriterPool, HikariDataSource sqliteReaderPool) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.WRITER, sqliteWriterPool,
+                ReadWriteRoutingDataSource.Route.READER, sqliteReaderPool));
+        routing.setDefaultTargetDataSource(sqliteWriterPool);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        // SQLite defaults; set explicitly so the proxy doesn't open a connection just to ask
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        return lazy;
+    }
+
+    private HikariConfig baseConfig(String poolName, MeterRegistry meterRegistry) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setPoolName(poolName);
+        cfg.setJdbcUrl(url);
+        cfg.setDriverClassName("org.sqlite.JDBC");
+        cfg.setConnectionTimeout(connectionTimeoutMs);
+        cfg.setDataSourceProperties(pragmas());
+        cfg.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return cfg;
+    }
+
+    // sqlite-jdbc applies these (by pragma name) when it opens each connection
+    private Properties pragmas() {
+        Properties p = new Properties();
+        p.setProperty("journal_mode", "WAL");
+        p.setProperty("synchronous", synchronous);
+        p.setProperty("mmap_size", Long.toString(mmapSize));
+        p.setProperty("cache_size", Integer.toString(cacheSize));
+        p.setProperty("busy_timeout", Integer.toString(busyTimeoutMs));
+        return p;
+    }
+}
@@ -2,13 +2,16 @@ package com.minibank.core.domain;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "accounts")
@@ -28,17 +31,23 @@ public class AccountEntity {
     @Column(nullable = false)
     private String currency;
 
+    // minor units (see Money); still DECIMAL(18,2) in the DB
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false, precision = 18, scale = 2) // necessary for financial precision
-    private BigDecimal balance;
+    private long balance;
 
     @Column(nullable = false)
     private Instant createdAt;
 
+    // safety net behind AccountLockManager: a lost update fails instead of silently overwriting
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @PrePersist // makes sure method runs before entity is persisted
     void onCreate() {
-        if (id == null) id = UUID.randomUUID().toString();
+        if (id == null) id = Ids.newId();
         if (createdAt == null) createdAt = Instant.now();
-        if (balance == null) balance = BigDecimal.ZERO; // most efficient method for instatiating BigDecimal to 0
     }
 
     public String getId() {
@@ -62,9 +71,20 @@ public class AccountEntity {
     }
 
     public BigDecimal getBalance() {
+        return Money.toBigDecimal(balance);
+    }
+
+    @JsonIgnore
+    public long getBalanceMinor() {
         return balance;
     }
 
+    /** The balance with this account's currency, for currency-checked arithmetic. */
+    @JsonIgnore
+    public Money getBalanceMoney() {
+        return new Money(balance, currency);
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -86,6 +106,17 @@ public class AccountEntity {
     }
 
     public void setBalance(BigDecimal balance) {
+        this.balance = Money.toMinor(balance);
+    }
+
+    public void setBalanceMinor(long balance) {
         this.balance = balance;
     }
+
+    public void setBalanceMoney(Money balance) {
+        if (!balance.currency().equals(currency)) {
+            throw new IllegalArgumentException("Currency Mismatch");
+        }
+        this.balance = balance.minor();
+    }
 }
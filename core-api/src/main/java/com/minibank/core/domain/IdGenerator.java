@@ -0,0 +1,13 @@
+package com.minibank.core.domain;
+
+/**
+ * Primary key generator used by the entities' @PrePersist hooks (through Ids).
+ * Implementations must be thread-safe.
+ */
+public interface IdGenerator {
+
+    String next();
+
+    /** An id for a row created at the given time (used when re-keying existing rows). */
+    String nextAt(long epochMillis);
+}
@@ -0,0 +1,28 @@
+/**
+ * Static access to the configured IdGenerator.
+ * Entities assign their own keys in @PrePersist and aren't Spring beans, so the generator is installed
+ * once at startup (IdGeneratorConfig) instead of being injected. The default, also used by plain unit tests,
+ * is time-ordered UUIDv7 text.
+ */
+
+package com.minibank.core.domain;
+
+public final class Ids {
+
+    private static volatile IdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.UUID);
+
+    private Ids() {
+    }
+
+    public static String newId() {
+        return generator.next();
+    }
+
+    public static IdGenerator generator() {
+        return generator;
+    }
+
+    public static void use(IdGenerator g) {
+        generator = g;
+    }
+}
@@ -2,16 +2,22 @@ package com.minibank.core.domain;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "ledger_entries")
+@Table(
+    name = "ledger_entries",
+    indexes = @Index(name = "idx_ledger_account_created", columnList = "accountId, createdAt")
+)
 public class LedgerEntryEntity {
     @Id
     private String id;
@@ -25,18 +31,21 @@ public class LedgerEntryEntity {
     @Column(nullable = false)
     private String type;
 
+    // amount and balance are minor units (see Money); still DECIMAL(18,2) in the DB
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false, precision = 18, scale = 2) // necessary for financial precision
-    private BigDecimal amount;
+    private long amount;
 
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false, precision = 18, scale = 2) // necessary for financial precision
-    private BigDecimal balance;
+    private long balance;
 
     @Column(nullable = false)
     private Instant createdAt;
 
     @PrePersist
     void onCreate() {
-        if (id == null) id = UUID.randomUUID().toString();
+        if (id == null) id = Ids.newId();
         if (createdAt == null) createdAt = Instant.now();
     }
 
@@ -57,10 +66,20 @@ public class LedgerEntryEntity {
     }
 
     public BigDecimal getAmount() {
-        return amount;
+        return Money.toBigDecimal(amount);
     }
 
     public BigDecimal getBalance() {
+        return Money.toBigDecimal(balance);
+    }
+
+    @JsonIgnore
+    public long getAmountMinor() {
+        return amount;
+    }
+
+    @JsonIgnore
+    public long getBalanceMinor() {
         return balance;
     }
 
@@ -80,10 +99,18 @@ public class LedgerEntryEntity {
     }
     
     public void setAmount(BigDecimal amount) {
-        this.amount = amount;
+        this.amount = Money.toMinor(amount);
     }
 
     public void setBalance(BigDecimal balance) {
+        this.balance = Money.toMinor(balance);
+    }
+
+    public void setAmountMinor(long amount) {
+        this.amount = amount;
+    }
+
+    public void setBalanceMinor(long balance) {
         this.balance = balance;
     }
 
@@ -0,0 +1,25 @@
+/**
+ * Maps a long minor-units attribute to the existing DECIMAL(18,2) column,
+ * so entities can keep amounts as longs without a schema change.
+ */
+
+package com.minibank.core.domain;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minor) {
+        return (minor == null) ? null : Money.toBigDecimal(minor);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return (amount == null) ? null : Money.toMinorRounded(amount);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Amount in long minor units (cents) plus its currency.
+ *
+ * Used on the transfer hot path (balance checks, balance updates, the ledger engine, 24h window sums)
+ * where BigDecimal would allocate on every compare/add/subtract. All supported currencies use 2 decimals,
+ * matching the precision 18 / scale 2 columns; BigDecimal stays at the API and DB boundary only.
+ *
+ * Arithmetic is exact and currency-checked: overflow throws instead of wrapping, and mixing currencies
+ * throws "Currency Mismatch". The static helpers convert bare minor units (entities, MinorUnitsConverter).
+ */
+
+package com.minibank.core.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record Money(long minor, String currency) {
+
+    public static final int SCALE = 2;
+
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinor(amount), currency);
+    }
+
+    /** Exact conversion; amounts with more than 2 decimals (non-zero) are rejected, not rounded. */
+    public static long toMinor(BigDecimal amount) {
+        BigDecimal scaled;
+        try {
+            scaled = amount.setScale(SCALE);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places", e);
+        }
+        try {
+            return scaled.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large", e);
+        }
+    }
+
+    /**
+     * For values read back from the DB: SQLite keeps NUMERIC as INTEGER/REAL, so "100.5" or "100" come back
+     * instead of "100.50"; rescale instead of rejecting.
+     */
+    public static long toMinorRounded(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minor);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minor, other.minor), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minor, other.minor), currency);
+    }
+
+    public boolean isLessThan(Money other) {
+        requireSameCurrency(other);
+        return minor < other.minor;
+    }
+
+    public void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency Mismatch");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
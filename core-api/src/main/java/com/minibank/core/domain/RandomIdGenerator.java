@@ -0,0 +1,17 @@
+package com.minibank.core.domain;
+
+import java.util.UUID;
+
+/** The previous scheme (random UUIDv4), kept selectable via ids.generator=random. */
+public final class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Override
+    public String nextAt(long epochMillis) {
+        return next();
+    }
+}
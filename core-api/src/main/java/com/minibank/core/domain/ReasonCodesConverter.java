@@ -0,0 +1,24 @@
+package com.minibank.core.domain;
+
+import java.util.List;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Risk reason codes as one newline-separated TEXT column (TransferViewEntity.riskReasons).
+ * Codes are short identifiers from the risk-service, so a split is all a read costs; no JSON parsing.
+ */
+@Converter
+public class ReasonCodesConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> reasons) {
+        return (reasons == null || reasons.isEmpty()) ? "" : String.join("\n", reasons);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return (column == null || column.isEmpty()) ? List.of() : List.of(column.split("\n"));
+    }
+}
@@ -1,16 +1,22 @@
 package com.minibank.core.domain;
 
 import java.time.Instant;
-import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "risk_assessments")
+@Table(
+    name = "risk_assessments",
+    indexes = {
+    @Index(name = "idx_risk_score_created", columnList = "riskScore, createdAt"),
+    @Index(name = "idx_risk_transfer", columnList = "transferId")
+  }
+)
 public class RiskAssessmentEntity {
     @Id
     private String id;
@@ -32,7 +38,7 @@ public class RiskAssessmentEntity {
 
     @PrePersist
     void onCreate() {
-        if (id == null) id = UUID.randomUUID().toString();
+        if (id == null) id = Ids.newId();
         if (createdAt == null) createdAt = Instant.now();
     }
 
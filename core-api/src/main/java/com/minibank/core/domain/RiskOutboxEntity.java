@@ -0,0 +1,174 @@
+/**
+ * Pending risk-scoring work, written in the same transaction as the TransferEntity.
+ * RiskOutboxDispatcher drains it after commit, so the transfer never waits on the risk-service.
+ * Carries the scoring inputs as they were at transfer time (24h window included).
+ */
+
+package com.minibank.core.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(
+    name = "risk_outbox",
+    indexes = {
+    @Index(name = "idx_risk_outbox_status_next", columnList = "status, nextAttemptAt")
+  }
+)
+public class RiskOutboxEntity {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String transferId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String fromAccountId;
+
+    @Column(nullable = false)
+    private String toAccountId;
+
+    @Column(nullable = false, precision = 18, scale = 2) // necessary for financial precision
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(nullable = false)
+    private int last24hCount;
+
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal last24hTotal;
+
+    @Column(nullable = false)
+    private String status; // "PENDING" / "DONE" / "DEAD"
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant processedAt;
+
+    @PrePersist
+    void onCreate() {
+        if (id == null) id = Ids.newId();
+        if (createdAt == null) createdAt = Instant.now();
+        if (nextAttemptAt == null) nextAttemptAt = createdAt;
+        if (status == null) status = "PENDING";
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public int getLast24hCount() {
+        return last24hCount;
+    }
+
+    public BigDecimal getLast24hTotal() {
+        return last24hTotal;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public void setFromAccountId(String fromAccountId) {
+        this.fromAccountId = fromAccountId;
+    }
+
+    public void setToAccountId(String toAccountId) {
+        this.toAccountId = toAccountId;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public void setLast24hCount(int last24hCount) {
+        this.last24hCount = last24hCount;
+    }
+
+    public void setLast24hTotal(BigDecimal last24hTotal) {
+        this.last24hTotal = last24hTotal;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Time-ordered 128-bit ids (UUIDv7 layout, RFC 9562):
+ * - 48 bits unix millis | version 7 | 12-bit counter | variant | 62 random bits
+ * - the counter makes ids strictly increasing within this process, even within one millisecond
+ *   (it starts at a random value each millisecond and borrows the next millisecond on overflow)
+ *
+ * New rows therefore append to the right edge of the primary key B-tree instead of landing on random pages.
+ *
+ * Formats (both sort in creation order as plain text):
+ * - UUID: canonical 36-char form, same column type and shape as the previous random UUIDs
+ * - COMPACT: 26-char lowercase Crockford base32 of the same bits (ULID-style), ~28% smaller keys and indexes
+ *
+ * Prefix search keeps working (it's still a text prefix), but the leading characters are now the timestamp,
+ * so a short prefix matches everything created around the same time; the random tail is what disambiguates.
+ */
+
+package com.minibank.core.domain;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    public enum Format {
+        UUID, COMPACT
+    }
+
+    private static final char[] CROCKFORD = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+    private static final int COUNTER_BITS = 12;
+
+    private final Format format;
+
+    // (millis << 12) | counter of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public TimeOrderedIdGenerator(Format format) {
+        this.format = format;
+    }
+
+    @Override
+    public String next() {
+        // start each new millisecond in the lower half of the counter range, leaving room to increment
+        long candidate = (System.currentTimeMillis() << COUNTER_BITS)
+                | ThreadLocalRandom.current().nextLong(1L << (COUNTER_BITS - 1));
+        long prev;
+        long next;
+        do {
+            prev = last.get();
+            next = (candidate > prev) ? candidate : prev + 1;
+        } while (!last.compareAndSet(prev, next));
+
+        return format(next >>> COUNTER_BITS, next & ((1L << COUNTER_BITS) - 1));
+    }
+
+    @Override
+    public String nextAt(long epochMillis) {
+        return format(epochMillis, ThreadLocalRandom.current().nextLong(1L << COUNTER_BITS));
+    }
+
+    private String format(long millis, long counter) {
+        long msb = (millis << 16) | 0x7000L | counter;
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return (format == Format.COMPACT) ? compact(msb, lsb) : new UUID(msb, lsb).toString();
+    }
+
+    /** 128 bits as 26 base32 digits, most significant first (the first digit carries the top 3 bits). */
+    static String compact(long msb, long lsb) {
+        char[] out = new char[26];
+        for (int i = 25; i >= 0; i--) {
+            out[i] = CROCKFORD[(int) (lsb & 31)];
+            lsb = (lsb >>> 5) | (msb << 59);
+            msb >>>= 5;
+        }
+        return new String(out);
+    }
+}
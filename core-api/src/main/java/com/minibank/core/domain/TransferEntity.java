@@ -2,7 +2,6 @@ package com.minibank.core.domain;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -53,7 +52,7 @@ public class TransferEntity {
 
     @PrePersist
     void onCreate() {
-        if (id == null) id = UUID.randomUUID().toString();
+        if (id == null) id = Ids.newId();
         if (createdAt == null) createdAt = Instant.now();
     }
 
@@ -97,6 +96,10 @@ public class TransferEntity {
         return createdAt;
     }
 
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public void setUserId(String userId) {
         this.userId = userId;
     }
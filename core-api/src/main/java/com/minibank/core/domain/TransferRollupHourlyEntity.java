@@ -0,0 +1,94 @@
+/**
+ * Hourly rollup of a user's APPROVED transfers per currency: one row per (userId, currency, epochHour).
+ *
+ * - upserted in the transaction that inserts the transfers (TransferRollups.addAll), so it always
+ *   matches the committed transfers
+ * - read by the 7d/30d stats windows and the hourly chart series (at most 720 rows for 30 days)
+ * - can be regenerated from the transfers table at any time (TransferRollups.rebuild)
+ *
+ * epochHour = seconds since the epoch / 3600 (UTC); amounts in minor units.
+ */
+
+package com.minibank.core.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@IdClass(TransferRollupHourlyEntity.Key.class)
+@Table(
+    name = "transfer_rollups_hourly",
+    indexes = @Index(name = "idx_rollups_user_hour", columnList = "userId, epochHour")
+)
+public class TransferRollupHourlyEntity {
+
+    public static class Key implements Serializable {
+        private String userId;
+        private String currency;
+        private long epochHour;
+
+        public Key() {
+        }
+
+        public Key(String userId, String currency, long epochHour) {
+            this.userId = userId;
+            this.currency = currency;
+            this.epochHour = epochHour;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k
+                    && epochHour == k.epochHour
+                    && Objects.equals(userId, k.userId)
+                    && Objects.equals(currency, k.currency);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, currency, epochHour);
+        }
+    }
+
+    @Id
+    private String userId;
+
+    @Id
+    private String currency;
+
+    @Id
+    private long epochHour;
+
+    @Column(nullable = false)
+    private long transferCount;
+
+    @Column(nullable = false)
+    private long totalMinor;
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getEpochHour() {
+        return epochHour;
+    }
+
+    public long getTransferCount() {
+        return transferCount;
+    }
+
+    public long getTotalMinor() {
+        return totalMinor;
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Read model for the transfer endpoints: the transfer's fields plus its risk result, in one row.
+ *
+ * - inserted in the same transaction as the transfer (TransferService, ledger engine write-behind)
+ * - risk columns filled in the same transaction that stores the RiskAssessment (RiskOutboxDispatcher)
+ * - rows missing for older transfers are backfilled at startup (TransferViewBackfill)
+ *
+ * Same id as the transfer, so a detail read is one primary key lookup.
+ */
+
+package com.minibank.core.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+@Entity
+@Table(
+    name = "transfer_views",
+    indexes = @Index(name = "idx_transfer_views_user_created", columnList = "userId, createdAt")
+)
+public class TransferViewEntity implements Persistable<String> {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String fromAccountId;
+
+    @Column(nullable = false)
+    private String toAccountId;
+
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(nullable = false)
+    private String status;
+
+    private String memo;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // null until the transfer has been scored
+    private Integer riskScore;
+
+    private String riskLevel;
+
+    @Convert(converter = ReasonCodesConverter.class)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private List<String> riskReasons = List.of();
+
+    // the id is copied from the transfer, so save() can't tell new from existing by a null id
+    @Transient
+    private boolean isNew = true;
+
+    protected TransferViewEntity() {
+    }
+
+    public static TransferViewEntity of(TransferEntity t) {
+        TransferViewEntity v = new TransferViewEntity();
+        v.id = t.getId();
+        v.userId = t.getUserId();
+        v.fromAccountId = t.getFromAccountId();
+        v.toAccountId = t.getToAccountId();
+        v.amount = t.getAmount();
+        v.currency = t.getCurrency();
+        v.status = t.getStatus();
+        v.memo = t.getMemo();
+        v.createdAt = t.getCreatedAt();
+        return v;
+    }
+
+    public void applyRisk(int score, String level, List<String> reasons) {
+        this.riskScore = score;
+        this.riskLevel = level;
+        this.riskReasons = (reasons == null) ? List.of() : List.copyOf(reasons);
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMemo() {
+        return memo;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getRiskScore() {
+        return riskScore;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public List<String> getRiskReasons() {
+        return riskReasons;
+    }
+}
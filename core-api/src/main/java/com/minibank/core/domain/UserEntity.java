@@ -1,7 +1,6 @@
 package com.minibank.core.domain;
 
 import java.time.Instant;
-import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -23,7 +22,7 @@ public class UserEntity {
 
     @PrePersist
     void onCreate() {
-        if (id == null) id = UUID.randomUUID().toString();
+        if (id == null) id = Ids.newId();
         if (createdAt == null) createdAt = Instant.now();
     }
 
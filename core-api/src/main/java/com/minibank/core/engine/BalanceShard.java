@@ -0,0 +1,225 @@
+/**
+ * One single-writer partition of the in-memory balances.
+ * Every account is owned by exactly one shard (hash of the account id); only the shard thread
+ * reads or writes its balances, so no locks are needed on the hot path.
+ *
+ * Per batch drained from the queue:
+ * 1) apply debits in memory (funds check), queue credits as they arrive
+ * 2) journal all accepted debits with one force (group commit)
+ * 3) acknowledge callers, hand the credit side to the destination shard, queue rows for write-behind
+ *
+ * Balances are long minor units plus the account's currency in a mutable holder per account; debits are
+ * Money, checked against that currency, and the holder is updated in place instead of replaced.
+ *
+ * The queue itself is unbounded so shard->shard credit hand-off can never block (no cross-shard deadlock);
+ * callers are bounded by a permit per debit instead (back-pressure at queue-capacity).
+ */
+
+package com.minibank.core.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.minibank.core.domain.Money;
+
+final class BalanceShard implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(BalanceShard.class);
+    private static final int MAX_BATCH = 256;
+
+    interface Command {
+    }
+
+    record Debit(JournalRecord record, CompletableFuture<JournalRecord> ack) implements Command {
+    }
+
+    record Credit(JournalRecord record, long segment) implements Command {
+    }
+
+    private record Stop() implements Command {
+    }
+
+    private final int index;
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private final Semaphore debitPermits;
+    private final Map<String, Balance> balances = new HashMap<>();
+    private final Function<String, Money> balanceLoader;
+    private final LedgerJournal journal;
+    private final WriteBehindFlusher writeBehind;
+    private final Function<String, BalanceShard> shardFor;
+
+    BalanceShard(
+            int index,
+            int capacity,
+            Function<String, Money> balanceLoader,
+            LedgerJournal journal,
+            WriteBehindFlusher writeBehind,
+            Function<String, BalanceShard> shardFor) {
+        this.index = index;
+        this.debitPermits = new Semaphore(capacity);
+        this.balanceLoader = balanceLoader;
+        this.journal = journal;
+        this.writeBehind = writeBehind;
+        this.shardFor = shardFor;
+    }
+
+    CompletableFuture<JournalRecord> submitDebit(JournalRecord record, long timeoutMs) throws InterruptedException {
+        if (!debitPermits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Ledger engine is overloaded, please retry");
+        }
+        CompletableFuture<JournalRecord> ack = new CompletableFuture<>();
+        queue.add(new Debit(record, ack));
+        return ack;
+    }
+
+    void submitCredit(JournalRecord record, long segment) {
+        queue.add(new Credit(record, segment));
+    }
+
+    void stop() {
+        queue.add(new Stop());
+    }
+
+    // Recovery only: called before the shard thread is started.
+
+    void replayDebit(JournalRecord r) {
+        Balance b = balance(r.fromAccountId());
+        b.debit(r.amount());
+        writeBehind.add(new WriteBehindFlusher.Side(r, "DEBIT", r.fromAccountId(), b.minor, LedgerJournal.RECOVERED));
+    }
+
+    void replayCredit(JournalRecord r) {
+        Balance b = balance(r.toAccountId());
+        b.credit(r.amountMinor());
+        writeBehind.add(new WriteBehindFlusher.Side(r, "CREDIT", r.toAccountId(), b.minor, LedgerJournal.RECOVERED));
+    }
+
+    @Override
+    public void run() {
+        List<Command> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            boolean stop = process(batch);
+            batch.clear();
+            if (stop) return;
+        }
+    }
+
+    private boolean process(List<Command> batch) {
+        boolean stop = false;
+        List<Debit> accepted = new ArrayList<>();
+        long[] acceptedAfter = new long[batch.size()];
+
+        for (Command cmd : batch) {
+            if (cmd instanceof Debit d) {
+                debitPermits.release();
+                JournalRecord r = d.record();
+                Money amount = r.amount();
+                Balance from;
+                try {
+                    LedgerJournal.checkFits(r); // a record the journal would refuse fails alone, not the batch
+                    from = balance(r.fromAccountId());
+                    if (from.isLessThan(amount)) {
+                        throw new IllegalArgumentException("Insufficient funds");
+                    }
+                } catch (RuntimeException e) {
+                    d.ack().completeExceptionally(e);
+                    continue;
+                }
+                from.debit(amount);
+                acceptedAfter[accepted.size()] = from.minor;
+                accepted.add(d);
+            } else if (cmd instanceof Credit c) {
+                // already journaled with its debit; credits can't fail (both currencies were checked before it)
+                JournalRecord r = c.record();
+                Balance to = balance(r.toAccountId());
+                to.credit(r.amountMinor());
+                writeBehind.add(new WriteBehindFlusher.Side(r, "CREDIT", r.toAccountId(), to.minor, c.segment()));
+            } else if (cmd instanceof Stop) {
+                stop = true;
+            }
+        }
+
+        if (accepted.isEmpty()) return stop;
+
+        long segment;
+        try {
+            segment = journal.append(accepted.stream().map(Debit::record).toList());
+        } catch (RuntimeException e) {
+            log.error("Ledger journal append failed on shard {}; rejecting {} transfers", index, accepted.size(), e);
+            // undo in reverse so each account ends where it started
+            for (int i = accepted.size() - 1; i >= 0; i--) {
+                JournalRecord r = accepted.get(i).record();
+                balances.get(r.fromAccountId()).credit(r.amountMinor());
+                accepted.get(i).ack().completeExceptionally(e);
+            }
+            return stop;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            Debit d = accepted.get(i);
+            JournalRecord r = d.record();
+            writeBehind.add(new WriteBehindFlusher.Side(r, "DEBIT", r.fromAccountId(), acceptedAfter[i], segment));
+            shardFor.apply(r.toAccountId()).submitCredit(r, segment);
+            d.ack().complete(r);
+        }
+        return stop;
+    }
+
+    private Balance balance(String accountId) {
+        Balance b = balances.get(accountId);
+        if (b == null) {
+            b = new Balance(balanceLoader.apply(accountId));
+            balances.put(accountId, b);
+        }
+        return b;
+    }
+
+    private static final class Balance {
+        final String currency;
+        long minor;
+
+        Balance(Money loaded) {
+            this.currency = loaded.currency();
+            this.minor = loaded.minor();
+        }
+
+        // Money.isLessThan/minus, without replacing the holder on every transfer
+        boolean isLessThan(Money amount) {
+            requireCurrency(amount);
+            return minor < amount.minor();
+        }
+
+        void debit(Money amount) {
+            requireCurrency(amount);
+            minor = Math.subtractExact(minor, amount.minor());
+        }
+
+        void credit(long amountMinor) {
+            minor = Math.addExact(minor, amountMinor);
+        }
+
+        private void requireCurrency(Money amount) {
+            if (!currency.equals(amount.currency())) {
+                throw new IllegalArgumentException("Currency Mismatch");
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.minibank.core.engine;
+
+import java.time.Instant;
+
+import com.minibank.core.domain.Money;
+
+/**
+ * One accepted transfer as written to the ledger journal.
+ * Written once, after the debit side has been applied and before the caller is acknowledged;
+ * the credit side is re-derived from the same record on replay. amountMinor + currency make up amount().
+ */
+record JournalRecord(
+        long seq,
+        String transferId,
+        String userId,
+        String fromAccountId,
+        String toAccountId,
+        long amountMinor,
+        String currency,
+        String memo,
+        String idempotencyKey,
+        Instant createdAt) {
+
+    Money amount() {
+        return new Money(amountMinor, currency);
+    }
+}
@@ -0,0 +1,376 @@
+/**
+ * Optional "ledger engine" mode for TransferService (ledger.engine.enabled=true).
+ *
+ * Balances live in memory, partitioned into N single-writer BalanceShards by account id.
+ * A transfer is validated and applied in memory, journaled to an append-only local file, and only then
+ * acknowledged; SQLite is updated asynchronously by the WriteBehindFlusher in batches.
+ *
+ * Restart: balances are lazily loaded from SQLite (which holds a per-account prefix of the history)
+ * and every journaled side that didn't make it to SQLite is replayed before traffic is accepted.
+ *
+ * Tradeoffs (intentional):
+ * - reads (GET /api/accounts, ledger, transfer lists) see SQLite, i.e. lag by up to one flush interval
+ * - the credit side lands on the destination shard right after the debit is acknowledged
+ * - while enabled, all balance changes must go through the engine (it owns the balances)
+ * - a side SQLite keeps refusing (see WriteBehindFlusher) halts the engine: transfers are rejected until a restart
+ */
+
+package com.minibank.core.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.domain.Ids;
+import com.minibank.core.domain.LedgerEntryEntity;
+import com.minibank.core.domain.Money;
+import com.minibank.core.domain.RiskOutboxEntity;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.repo.LedgerEntryRepository;
+import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.service.AccountDirectory;
+import com.minibank.core.service.ChangeVersions;
+import com.minibank.core.service.RiskOutboxDispatcher;
+import com.minibank.core.service.StatsService;
+import com.minibank.core.service.TransferRollups;
+import com.minibank.core.service.TransferSearchIndex;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+@Component
+@ConditionalOnProperty(name = "ledger.engine.enabled", havingValue = "true")
+public class LedgerEngine {
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+    // transfer ids per IN-list when recovery asks SQLite which sides it already has
+    private static final int RECOVERY_LOOKUP_CHUNK = 500;
+
+    private final AccountRepository accounts;
+    private final AccountDirectory directory;
+    private final TransferRepository transfers;
+    private final LedgerEntryRepository ledger;
+    private final RiskOutboxDispatcher riskDispatcher;
+    private final StatsService statsService;
+    private final TransferSearchIndex searchIndex;
+    private final ChangeVersions versions;
+    private final long ackTimeoutMs;
+    private final long flushIntervalMs;
+
+    private final LedgerJournal journal;
+    private final WriteBehindFlusher writeBehind;
+    private final BalanceShard[] shards;
+    private final Thread[] shardThreads;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ledger-engine-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicLong seq = new AtomicLong();
+    // (userId, idempotencyKey) -> transfer, from submit until its row is in SQLite
+    private final ConcurrentHashMap<String, CompletableFuture<TransferEntity>> inflight = new ConcurrentHashMap<>();
+    private volatile boolean accepting;
+
+    public LedgerEngine(
+            AccountRepository accounts,
+            AccountDirectory directory,
+            TransferRepository transfers,
+            LedgerEntryRepository ledger,
+            RiskOutboxDispatcher riskDispatcher,
+            StatsService statsService,
+            TransferSearchIndex searchIndex,
+            ChangeVersions versions,
+            TransferRollups rollups,
+            EntityManager em,
+            PlatformTransactionManager txManager,
+            @Value("${ledger.engine.shards:4}") int shardCount,
+            @Value("${ledger.engine.queue-capacity:4096}") int queueCapacity,
+            @Value("${ledger.engine.journal-dir:./data/journal}") String journalDir,
+            @Value("${ledger.engine.journal-max-bytes:67108864}") long journalMaxBytes,
+            @Value("${ledger.engine.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${ledger.engine.flush-batch-size:500}") int flushBatchSize,
+            @Value("${ledger.engine.flush-max-attempts:5}") int flushMaxAttempts,
+            @Value("${ledger.engine.ack-timeout-ms:5000}") long ackTimeoutMs) {
+        this.accounts = accounts;
+        this.directory = directory;
+        this.transfers = transfers;
+        this.ledger = ledger;
+        this.riskDispatcher = riskDispatcher;
+        this.statsService = statsService;
+        this.searchIndex = searchIndex;
+        this.versions = versions;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.flushIntervalMs = flushIntervalMs;
+
+        this.journal = new LedgerJournal(Path.of(journalDir), journalMaxBytes);
+        this.writeBehind = new WriteBehindFlusher(
+                flushBatchSize, flushMaxAttempts, em, accounts, statsService, rollups,
+                new TransactionTemplate(txManager), this::onFlushed);
+
+        this.shards = new BalanceShard[shardCount];
+        this.shardThreads = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new BalanceShard(i, queueCapacity, this::loadBalance, journal, writeBehind, this::shardFor);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        recover();
+
+        for (int i = 0; i < shards.length; i++) {
+            shardThreads[i] = new Thread(shards[i], "ledger-engine-shard-" + i);
+            shardThreads[i].setDaemon(true);
+            shardThreads[i].start();
+        }
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        accepting = true;
+        log.info("Ledger engine started: shards={} journal={}", shards.length, journal);
+    }
+
+    /**
+     * Applies a transfer in memory and returns once it is journaled.
+     * The returned entity is not yet in SQLite; the write-behind flusher inserts it shortly after.
+     * After an ack timeout the transfer may still be applied; a retry with the same key returns it.
+     */
+    public TransferEntity submit(
+            String userId,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount,
+            String currency,
+            String memo,
+            String idempotencyKey) {
+
+        if (!accepting) {
+            throw new IllegalStateException("Ledger engine is not accepting transfers");
+        }
+
+        String key = userId + '\u0000' + idempotencyKey;
+        CompletableFuture<TransferEntity> mine = new CompletableFuture<>();
+        CompletableFuture<TransferEntity> prior = inflight.putIfAbsent(key, mine);
+        if (prior != null) {
+            return await(prior); // same key, still in memory only
+        }
+
+        CompletableFuture<JournalRecord> ack;
+        try {
+            var existing = transfers.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+            if (existing.isPresent()) {
+                inflight.remove(key, mine);
+                mine.complete(existing.get());
+                return existing.get();
+            }
+
+            validate(userId, fromAccountId, toAccountId, amount, currency);
+            Money money = Money.of(amount, currency);
+
+            JournalRecord record = new JournalRecord(
+                    seq.incrementAndGet(),
+                    Ids.newId(),
+                    userId,
+                    fromAccountId,
+                    toAccountId,
+                    money.minor(),
+                    money.currency(),
+                    memo,
+                    idempotencyKey,
+                    Instant.now());
+
+            ack = shardFor(fromAccountId).submitDebit(record, ackTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inflight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw new IllegalStateException("Interrupted while submitting transfer", e);
+        } catch (RuntimeException e) {
+            inflight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+
+        // Queued: only the shard decides now. If we stop waiting (ack timeout), `mine` stays in `inflight`,
+        // so a retry with the same key gets this transfer instead of debiting a second time.
+        ack.whenComplete((accepted, error) -> {
+            if (error != null) {
+                inflight.remove(key, mine);
+                mine.completeExceptionally(error);
+            } else {
+                mine.complete(toTransfer(accepted)); // stays in `inflight` until flushed
+            }
+        });
+        return await(mine);
+    }
+
+    private void validate(String userId, String fromAccountId, String toAccountId, BigDecimal amount, String currency) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            throw new IllegalArgumentException("Source and destination accounts must be different");
+        }
+
+        directory.requireTransferable(userId, fromAccountId, toAccountId, currency);
+    }
+
+    private Money loadBalance(String accountId) {
+        return accounts.findById(accountId).orElseThrow().getBalanceMoney();
+    }
+
+    BalanceShard shardFor(String accountId) {
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);
+        return shards[Math.floorMod(h, shards.length)];
+    }
+
+    private <T> T await(CompletableFuture<T> f) {
+        try {
+            return f.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Ledger engine did not acknowledge the transfer in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ledger engine", e);
+        }
+    }
+
+    private void flushSafely() {
+        if (writeBehind.halted()) return;
+        try {
+            while (writeBehind.flushOnce() > 0) {
+                // keep draining while there is a backlog
+            }
+        } catch (RuntimeException e) {
+            if (writeBehind.halted()) {
+                // the side stays journaled: after the cause is fixed, a restart replays it (recover)
+                accepting = false;
+                log.error("Ledger engine halted: write-behind can't persist a side; rejecting transfers until restart", e);
+            } else {
+                log.warn("Ledger engine write-behind failed; will retry. error={}", e.toString());
+            }
+        }
+    }
+
+    private void onFlushed(WriteBehindFlusher.Flushed flushed) {
+        journal.sidesFlushed(flushed.sidesBySegment());
+        for (JournalRecord r : flushed.transfers()) {
+            inflight.remove(r.userId() + '\u0000' + r.idempotencyKey());
+            statsService.record(r.transferId(), r.userId(), r.currency(), r.createdAt(), r.amountMinor());
+            searchIndex.record(r.transferId(), r.userId(), r.currency(), r.createdAt(), r.amountMinor(), "APPROVED");
+            versions.transferCommitted(r.userId(), r.fromAccountId(), r.toAccountId());
+        }
+        for (RiskOutboxEntity work : flushed.riskWork()) {
+            riskDispatcher.submit(work);
+        }
+    }
+
+    /**
+     * Replays journaled sides that are missing from SQLite, then flushes them synchronously.
+     * Runs before the shard threads start, so the shards' maps are only touched by this thread.
+     */
+    private void recover() {
+        List<JournalRecord> records = journal.readAll();
+        if (records.isEmpty()) return;
+
+        List<String> transferIds = records.stream().map(JournalRecord::transferId).distinct().toList();
+        Set<String> persistedSides = new HashSet<>();
+        for (int from = 0; from < transferIds.size(); from += RECOVERY_LOOKUP_CHUNK) {
+            List<String> chunk = transferIds.subList(from, Math.min(from + RECOVERY_LOOKUP_CHUNK, transferIds.size()));
+            for (LedgerEntryEntity e : ledger.findByTransferIdIn(chunk)) {
+                persistedSides.add(e.getTransferId() + ":" + e.getType());
+            }
+        }
+
+        long replayed = replayMissing(records, persistedSides, this::shardFor);
+        for (JournalRecord r : records) {
+            seq.accumulateAndGet(r.seq(), Math::max);
+        }
+
+        while (writeBehind.flushOnce() > 0) {
+            // synchronous: nothing is accepted until SQLite has caught up
+        }
+
+        try {
+            journal.dropRecovered();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to drop ledger journal segments after recovery", e);
+        }
+        log.info("Ledger engine recovered {} journal records ({} sides replayed)", records.size(), replayed);
+    }
+
+    /** Hands every side not in persistedSides ("transferId:DEBIT|CREDIT") to its shard; returns how many. */
+    static long replayMissing(
+            List<JournalRecord> records, Set<String> persistedSides, Function<String, BalanceShard> shardFor) {
+        long replayed = 0;
+        for (JournalRecord r : records) {
+            if (!persistedSides.contains(r.transferId() + ":DEBIT")) {
+                shardFor.apply(r.fromAccountId()).replayDebit(r);
+                replayed++;
+            }
+            if (!persistedSides.contains(r.transferId() + ":CREDIT")) {
+                shardFor.apply(r.toAccountId()).replayCredit(r);
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        accepting = false;
+        for (BalanceShard shard : shards) shard.stop();
+        for (Thread t : shardThreads) {
+            if (t != null) t.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushSafely();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close ledger journal. error={}", e.toString());
+        }
+    }
+
+    private static TransferEntity toTransfer(JournalRecord r) {
+        TransferEntity t = new TransferEntity();
+        t.setId(r.transferId());
+        t.setUserId(r.userId());
+        t.setFromAccountId(r.fromAccountId());
+        t.setToAccountId(r.toAccountId());
+        t.setAmount(Money.toBigDecimal(r.amountMinor()));
+        t.setCurrency(r.currency());
+        t.setMemo(r.memo());
+        t.setStatus("APPROVED");
+        t.setIdempotencyKey(r.idempotencyKey());
+        t.setCreatedAt(r.createdAt());
+        return t;
+    }
+}
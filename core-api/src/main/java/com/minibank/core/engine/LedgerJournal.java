@@ -0,0 +1,309 @@
+/**
+ * Append-only local journal for the ledger engine, split into segment files (ledger-<n>.journal).
+ *
+ * Frame layout: [int length][payload][long crc32(payload)]; strings in the payload are [int length][UTF-8 bytes]
+ * - appends are group-committed: a shard writes all frames of its batch, then forces once
+ * - a torn tail (crash mid-write) fails the length/CRC check and is ignored on read
+ * - a failed append is cut off again before the error reaches the shard, which then rejects the batch
+ * - a record that couldn't be framed is refused (checkFits) before it joins a batch, so it can't fail the others
+ * - a new segment is started once the active one reaches journal-max-bytes; a closed segment is deleted as
+ *   soon as every side journaled in it is in SQLite, so the journal stays bounded under steady load
+ * - segments left by the previous run are only read (recovery) and then dropped; appends always go to a new one
+ */
+
+package com.minibank.core.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+class LedgerJournal implements AutoCloseable {
+
+    /** Segment of the sides replayed from the previous run's segments (see dropRecovered). */
+    static final long RECOVERED = 0;
+
+    /** Largest payload a frame may carry; read() treats anything bigger as corruption. */
+    static final int MAX_PAYLOAD = 1_000_000;
+
+    // seq, amount, createdAt, memo flag: everything in a payload that isn't a string
+    private static final int FIXED_BYTES = 8 + 8 + 8 + 4 + 1;
+
+    private static final Pattern SEGMENT = Pattern.compile("ledger-(\\d{12})\\.journal");
+
+    private final Path dir;
+    private final long maxBytes;
+    private final List<Path> previous; // left by the previous run, oldest first
+
+    // segment -> sides (debit + credit) journaled there but not yet flushed to SQLite; guarded by this
+    private final TreeMap<Long, Long> unflushed = new TreeMap<>();
+    private long active;
+    private FileChannel channel;
+
+    LedgerJournal(Path dir, long maxBytes) {
+        try {
+            Files.createDirectories(dir);
+            this.dir = dir;
+            this.maxBytes = maxBytes;
+            this.previous = listSegments(dir);
+            this.active = previous.isEmpty() ? 1 : segmentId(previous.get(previous.size() - 1)) + 1;
+            this.channel = open(active);
+            unflushed.put(active, 0L);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open ledger journal in " + dir, e);
+        }
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(segmentFile(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentFile(long segment) {
+        return dir.resolve(String.format("ledger-%012d.journal", segment));
+    }
+
+    private static long segmentId(Path file) {
+        Matcher m = SEGMENT.matcher(file.getFileName().toString());
+        return m.matches() ? Long.parseLong(m.group(1)) : -1;
+    }
+
+    private static List<Path> listSegments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(f -> segmentId(f) >= 0)
+                    .sorted(Comparator.comparingLong(LedgerJournal::segmentId))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    /**
+     * Appends the records and forces them to disk; returns once they are durable, with the segment they went to
+     * (hand it back through sidesFlushed).
+     */
+    synchronized long append(List<JournalRecord> records) {
+        if (records.isEmpty()) return active;
+        long start = -1;
+        try {
+            if (channel.size() >= maxBytes) {
+                roll();
+            }
+            start = channel.position();
+            for (JournalRecord r : records) {
+                byte[] payload = encode(r);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+
+                ByteBuffer frame = ByteBuffer.allocate(4 + payload.length + 8);
+                frame.putInt(payload.length).put(payload).putLong(crc.getValue()).flip();
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+            channel.force(false);
+            unflushed.merge(active, 2L * records.size(), Long::sum);
+            return active;
+        } catch (IOException e) {
+            // the caller undoes these transfers, so none of their frames may survive to be replayed
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.force(true);
+                } catch (IOException te) {
+                    e.addSuppressed(te);
+                    // don't append acknowledged frames behind a possibly torn one: readers stop there
+                    try {
+                        roll();
+                    } catch (IOException re) {
+                        e.addSuppressed(re);
+                    }
+                }
+            }
+            throw new UncheckedIOException("Ledger journal append failed", e);
+        }
+    }
+
+    private void roll() throws IOException {
+        FileChannel next = open(active + 1);
+        channel.close();
+        channel = next;
+        active++;
+        unflushed.put(active, 0L);
+        dropFlushed();
+    }
+
+    /** Called by the write-behind flusher after a successful commit, with the sides it wrote per segment. */
+    synchronized void sidesFlushed(Map<Long, Integer> sidesBySegment) {
+        for (Map.Entry<Long, Integer> e : sidesBySegment.entrySet()) {
+            unflushed.computeIfPresent(e.getKey(), (segment, sides) -> sides - e.getValue());
+        }
+        dropFlushed();
+    }
+
+    // a closed segment with nothing left to flush is no longer needed, not even by recovery
+    private void dropFlushed() {
+        Iterator<Map.Entry<Long, Long>> it = unflushed.headMap(active, false).entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Long> e = it.next();
+            if (e.getValue() > 0) continue;
+            try {
+                Files.deleteIfExists(segmentFile(e.getKey()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to delete ledger journal segment " + e.getKey(), ex);
+            }
+            it.remove();
+        }
+    }
+
+    /** Deletes the previous run's segments; call once everything replayed from them is in SQLite. */
+    synchronized void dropRecovered() throws IOException {
+        for (Path segment : previous) {
+            Files.deleteIfExists(segment);
+        }
+        previous.clear();
+    }
+
+    /** Reads every intact record of the previous run, oldest segment first. */
+    synchronized List<JournalRecord> readAll() {
+        List<JournalRecord> out = new ArrayList<>();
+        for (Path segment : previous) {
+            read(segment, out);
+        }
+        return out;
+    }
+
+    // stops at the first torn or corrupt frame of the segment
+    private static void read(Path file, List<JournalRecord> out) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            while (true) {
+                int len;
+                try {
+                    len = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (len <= 0 || len > MAX_PAYLOAD) break;
+
+                byte[] payload = new byte[len];
+                long crcValue;
+                try {
+                    in.readFully(payload);
+                    crcValue = in.readLong();
+                } catch (EOFException e) {
+                    break; // torn tail
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (crc.getValue() != crcValue) break;
+
+                out.add(decode(payload));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read ledger journal " + file, e);
+        }
+    }
+
+    /**
+     * Throws IllegalArgumentException if the record can't be journaled (a required field is missing, or it
+     * could exceed MAX_PAYLOAD). Counts 3 bytes per char, the UTF-8 worst case, so nothing is encoded here.
+     */
+    static void checkFits(JournalRecord r) {
+        if (r.transferId() == null || r.userId() == null || r.fromAccountId() == null || r.toAccountId() == null
+                || r.currency() == null || r.idempotencyKey() == null || r.createdAt() == null) {
+            throw new IllegalArgumentException("Transfer is missing a required field");
+        }
+        long bound = FIXED_BYTES
+                + maxEncoded(r.transferId()) + maxEncoded(r.userId())
+                + maxEncoded(r.fromAccountId()) + maxEncoded(r.toAccountId())
+                + maxEncoded(r.currency()) + maxEncoded(r.memo()) + maxEncoded(r.idempotencyKey());
+        if (bound > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Transfer is too large");
+        }
+    }
+
+    private static long maxEncoded(String s) {
+        return (s == null) ? 0 : 4 + 3L * s.length();
+    }
+
+    private static byte[] encode(JournalRecord r) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(r.seq());
+            writeString(out, r.transferId());
+            writeString(out, r.userId());
+            writeString(out, r.fromAccountId());
+            writeString(out, r.toAccountId());
+            out.writeLong(r.amountMinor());
+            writeString(out, r.currency());
+            out.writeBoolean(r.memo() != null);
+            if (r.memo() != null) writeString(out, r.memo());
+            writeString(out, r.idempotencyKey());
+            out.writeLong(r.createdAt().getEpochSecond());
+            out.writeInt(r.createdAt().getNano());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static JournalRecord decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long seq = in.readLong();
+            String transferId = readString(in);
+            String userId = readString(in);
+            String from = readString(in);
+            String to = readString(in);
+            long amountMinor = in.readLong();
+            String currency = readString(in);
+            String memo = in.readBoolean() ? readString(in) : null;
+            String key = readString(in);
+            Instant createdAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            return new JournalRecord(seq, transferId, userId, from, to, amountMinor, currency, memo, key, createdAt);
+        }
+    }
+
+    // writeUTF would cap each string at 64 KB and throw mid-batch beyond that
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > MAX_PAYLOAD) throw new IOException("Corrupt string length " + len);
+        byte[] utf8 = new byte[len];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return dir.toString();
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Write-behind for the ledger engine: persists applied sides to SQLite in batches.
+ *
+ * One "side" is one ledger entry (DEBIT or CREDIT) plus the balance it left behind.
+ * Per flush, in one transaction:
+ * - DEBIT sides also insert the TransferEntity, its TransferView row and its risk_outbox row,
+ *   and add the transfer to its hourly rollup (one upsert per touched hour, at the end)
+ * - every side inserts its LedgerEntryEntity
+ * - each touched account gets the balance of its last side in the batch
+ *
+ * Sides of one account are always queued in the order they were applied (single-writer shard),
+ * so what reaches SQLite is a prefix of each account's history; recovery relies on that.
+ *
+ * A failed flush puts its batch back and is retried on the next tick, up to max-attempts times. After that the
+ * batch is split and its first half retried alone, down to a single side; a single side that still fails halts
+ * the write-behind (halted() is true, flushOnce throws). Skipping it would break the prefix above, so it stays
+ * pending (and journaled) for recovery once the cause is fixed.
+ */
+
+package com.minibank.core.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.domain.AccountEntity;
+import com.minibank.core.domain.LedgerEntryEntity;
+import com.minibank.core.domain.Money;
+import com.minibank.core.domain.RiskOutboxEntity;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.domain.TransferViewEntity;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.service.StatsService;
+import com.minibank.core.service.TransferRollups;
+
+import jakarta.persistence.EntityManager;
+
+final class WriteBehindFlusher {
+
+    /** segment: the journal segment holding the record (LedgerJournal.append). */
+    record Side(JournalRecord record, String type, String accountId, long balanceAfterMinor, long segment) {
+    }
+
+    record Flushed(List<JournalRecord> transfers, List<RiskOutboxEntity> riskWork, Map<Long, Integer> sidesBySegment) {
+    }
+
+    private final ConcurrentLinkedDeque<Side> pending = new ConcurrentLinkedDeque<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final EntityManager em;
+    private final AccountRepository accounts;
+    private final StatsService statsService;
+    private final TransferRollups rollups;
+    private final TransactionTemplate txTemplate;
+    private final Consumer<Flushed> afterCommit;
+
+    // flusher thread only: batch size while a failing batch is being split, and for how many more sides
+    private int limit;
+    private int narrowedFor;
+    private int attempts;
+    private volatile Side stuck;
+
+    WriteBehindFlusher(
+            int batchSize,
+            int maxAttempts,
+            EntityManager em,
+            AccountRepository accounts,
+            StatsService statsService,
+            TransferRollups rollups,
+            TransactionTemplate txTemplate,
+            Consumer<Flushed> afterCommit) {
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.limit = batchSize;
+        this.em = em;
+        this.accounts = accounts;
+        this.statsService = statsService;
+        this.rollups = rollups;
+        this.txTemplate = txTemplate;
+        this.afterCommit = afterCommit;
+    }
+
+    void add(Side side) {
+        pending.addLast(side);
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /** Sides queued and not yet flushed, oldest first. */
+    List<Side> pending() {
+        return List.copyOf(pending);
+    }
+
+    /** True once a single side has failed max-attempts times; nothing is flushed after that. */
+    boolean halted() {
+        return stuck != null;
+    }
+
+    /** Flushes one batch; returns the number of sides written. */
+    int flushOnce() {
+        Side halt = stuck;
+        if (halt != null) {
+            throw new IllegalStateException("Ledger write-behind is halted at " + describe(halt));
+        }
+        List<Side> batch = new ArrayList<>(limit);
+        Side s;
+        while (batch.size() < limit && (s = pending.pollFirst()) != null) {
+            batch.add(s);
+        }
+        if (batch.isEmpty()) return 0;
+
+        Flushed flushed;
+        try {
+            flushed = txTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            // put them back in front, in order, and retry on the next tick
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+            if (++attempts < maxAttempts) throw e;
+
+            attempts = 0;
+            if (batch.size() > 1) {
+                // not transient: retry the first half alone, so a side that always fails ends up on its own
+                limit = batch.size() / 2;
+                narrowedFor = batch.size();
+                throw e;
+            }
+            stuck = batch.get(0);
+            throw new IllegalStateException("Ledger write-behind halted: " + describe(stuck)
+                    + " failed " + maxAttempts + " times", e);
+        }
+
+        attempts = 0;
+        if (narrowedFor > 0) {
+            narrowedFor -= batch.size();
+            if (narrowedFor <= 0) limit = batchSize; // past the split batch: back to full batches
+        }
+        afterCommit.accept(flushed);
+        return batch.size();
+    }
+
+    private static String describe(Side side) {
+        return side.type() + " side of transfer " + side.record().transferId();
+    }
+
+    private Flushed write(List<Side> batch) {
+        // reads first, so nothing pending gets auto-flushed half way
+        Map<String, Long> lastBalance = new LinkedHashMap<>();
+        Map<String, Window> windows = new HashMap<>();
+        for (Side side : batch) {
+            lastBalance.put(side.accountId(), side.balanceAfterMinor());
+            if ("DEBIT".equals(side.type())) {
+                String key = side.record().userId() + "|" + side.record().currency();
+                if (!windows.containsKey(key)) {
+                    StatsService.WindowTotals last24h =
+                            statsService.last24hTotals(side.record().userId(), side.record().currency());
+                    windows.put(key, new Window(last24h.count(), last24h.sum()));
+                }
+            }
+        }
+        List<AccountEntity> touched = accounts.findAllById(lastBalance.keySet());
+
+        List<JournalRecord> transfers = new ArrayList<>();
+        List<RiskOutboxEntity> riskWork = new ArrayList<>();
+        List<TransferEntity> inserted = new ArrayList<>();
+        Map<Long, Integer> sidesBySegment = new HashMap<>();
+
+        for (Side side : batch) {
+            JournalRecord r = side.record();
+
+            if ("DEBIT".equals(side.type())) {
+                TransferEntity t = new TransferEntity();
+                t.setId(r.transferId());
+                t.setUserId(r.userId());
+                t.setFromAccountId(r.fromAccountId());
+                t.setToAccountId(r.toAccountId());
+                t.setAmount(Money.toBigDecimal(r.amountMinor()));
+                t.setCurrency(r.currency());
+                t.setMemo(r.memo());
+                t.setStatus("APPROVED");
+                t.setIdempotencyKey(r.idempotencyKey());
+                t.setCreatedAt(r.createdAt());
+                em.persist(t);
+                em.persist(TransferViewEntity.of(t));
+                transfers.add(r);
+                inserted.add(t);
+
+                // same semantics as TransferService: the window includes this transfer
+                Window window = windows.get(r.userId() + "|" + r.currency());
+                window.count++;
+                window.total = window.total.plus(r.amount());
+
+                RiskOutboxEntity work = new RiskOutboxEntity();
+                work.setTransferId(r.transferId());
+                work.setUserId(r.userId());
+                work.setFromAccountId(r.fromAccountId());
+                work.setToAccountId(r.toAccountId());
+                work.setAmount(Money.toBigDecimal(r.amountMinor()));
+                work.setCurrency(r.currency());
+                work.setLast24hCount(window.count);
+                work.setLast24hTotal(window.total.toBigDecimal());
+                em.persist(work);
+                riskWork.add(work);
+            }
+
+            LedgerEntryEntity e = new LedgerEntryEntity();
+            e.setAccountId(side.accountId());
+            e.setTransferId(r.transferId());
+            e.setType(side.type());
+            e.setAmountMinor(r.amountMinor());
+            e.setBalanceMinor(side.balanceAfterMinor());
+            e.setCreatedAt(r.createdAt());
+            em.persist(e);
+            sidesBySegment.merge(side.segment(), 1, Integer::sum);
+        }
+
+        for (AccountEntity a : touched) {
+            a.setBalanceMinor(lastBalance.get(a.getId()));
+        }
+        rollups.addAll(inserted);
+
+        return new Flushed(transfers, riskWork, sidesBySegment);
+    }
+
+    private static final class Window {
+        int count;
+        Money total;
+
+        Window(int count, Money total) {
+            this.count = count;
+            this.total = total;
+        }
+    }
+}
@@ -1,12 +1,130 @@
 package com.minibank.core.repo;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.minibank.core.domain.LedgerEntryEntity;
 
+import jakarta.persistence.QueryHint;
+
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, String> {
-  List<LedgerEntryEntity> findAllByAccountIdOrderByCreatedAtDesc(String accountId);
-}
 
+  // Flat row for exports: scalar columns, so streaming doesn't fill the persistence context with entities
+  interface ExportRow {
+    String getId();
+
+    String getTransferId();
+
+    String getType();
+
+    Long getAmount(); // minor units (MinorUnitsConverter)
+
+    Long getBalance();
+
+    Instant getCreatedAt();
+  }
+
+  List<LedgerEntryEntity> findByTransferIdIn(Collection<String> transferIds);
+
+  // The ledger reads below join the account on (id, userId): an account that isn't the caller's reads as empty,
+  // without a separate ownership lookup. Ordered by (createdAt, id) desc on idx_ledger_account_created.
+
+  @Query("""
+      select e
+      from LedgerEntryEntity e, AccountEntity a
+      where a.id = e.accountId
+          and a.userId = :userId
+          and e.accountId = :accountId
+      order by e.createdAt desc, e.id desc
+      """)
+  List<LedgerEntryEntity> findFirstPage(
+      @Param("userId") String userId,
+      @Param("accountId") String accountId,
+      Limit limit);
+
+  @Query("""
+      select e
+      from LedgerEntryEntity e, AccountEntity a
+      where a.id = e.accountId
+          and a.userId = :userId
+          and e.accountId = :accountId
+          and e.createdAt <= :createdAt
+          and (e.createdAt < :createdAt or e.id < :id)
+      order by e.createdAt desc, e.id desc
+      """)
+  List<LedgerEntryEntity> findPageAfter(
+      @Param("userId") String userId,
+      @Param("accountId") String accountId,
+      @Param("createdAt") Instant createdAt,
+      @Param("id") String id,
+      Limit limit);
+
+  // Balance history (AccountStatements): every entry carries the balance it left, so a point in time is one seek
+  // on idx_ledger_account_created to the entry just before it, whatever the account's age. Callers check ownership.
+
+  Optional<LedgerEntryEntity> findFirstByAccountIdAndCreatedAtLessThanOrderByCreatedAtDescIdDesc(
+      String accountId, Instant before);
+
+  Optional<LedgerEntryEntity> findFirstByAccountIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(
+      String accountId, Instant from);
+
+  @Query("""
+      select e
+      from LedgerEntryEntity e
+      where e.accountId = :accountId
+          and e.createdAt >= :from
+          and e.createdAt < :to
+      order by e.createdAt asc, e.id asc
+      """)
+  List<LedgerEntryEntity> findInRange(
+      @Param("accountId") String accountId,
+      @Param("from") Instant from,
+      @Param("to") Instant to,
+      Limit limit);
+
+  @Query("""
+      select e
+      from LedgerEntryEntity e
+      where e.accountId = :accountId
+          and e.createdAt < :to
+          and e.createdAt >= :createdAt
+          and (e.createdAt > :createdAt or e.id > :id)
+      order by e.createdAt asc, e.id asc
+      """)
+  List<LedgerEntryEntity> findInRangeAfter(
+      @Param("accountId") String accountId,
+      @Param("to") Instant to,
+      @Param("createdAt") Instant createdAt,
+      @Param("id") String id,
+      Limit limit);
+
+  // Must be consumed inside a transaction and closed (try-with-resources)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      select
+        e.id as id,
+        e.transferId as transferId,
+        e.type as type,
+        e.amount as amount,
+        e.balance as balance,
+        e.createdAt as createdAt
+      from LedgerEntryEntity e, AccountEntity a
+      where a.id = e.accountId
+          and a.userId = :userId
+          and e.accountId = :accountId
+      order by e.createdAt desc, e.id desc
+      """)
+  Stream<ExportRow> streamForExport(
+      @Param("userId") String userId,
+      @Param("accountId") String accountId);
+}
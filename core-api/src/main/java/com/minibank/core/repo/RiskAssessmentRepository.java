@@ -1,11 +1,92 @@
 package com.minibank.core.repo;
 
 import com.minibank.core.domain.RiskAssessmentEntity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 public interface RiskAssessmentRepository extends JpaRepository<RiskAssessmentEntity, String> {
+
+    // One row of GET /api/risk/flags: the assessment joined with its transfer
+    interface FlagRow {
+        String getAssessmentId();
+
+        Integer getRiskScore();
+
+        String getLevel();
+
+        String getReasonsJson();
+
+        Instant getAssessedAt();
+
+        String getTransferId();
+
+        String getFromAccountId();
+
+        String getToAccountId();
+
+        BigDecimal getAmount();
+
+        String getCurrency();
+
+        String getStatus();
+
+        Instant getCreatedAt();
+    }
+
     Optional<RiskAssessmentEntity> findByTransferId(String transferId);
-    List<RiskAssessmentEntity> findByRiskScoreGreaterThanEqual(Integer minScore);
-}
 
+    List<RiskAssessmentEntity> findByTransferIdIn(Collection<String> transferIds);
+
+    // Flags, highest score first: walks idx_risk_score_created backwards and joins each transfer by id.
+    // Keyset on (riskScore, createdAt, id); the caller's userId is checked on the joined transfer.
+
+    @Query("""
+            select
+              ra.id as assessmentId, ra.riskScore as riskScore, ra.level as level, ra.reasonsJson as reasonsJson,
+              ra.createdAt as assessedAt, t.id as transferId, t.fromAccountId as fromAccountId,
+              t.toAccountId as toAccountId, t.amount as amount, t.currency as currency, t.status as status,
+              t.createdAt as createdAt
+            from RiskAssessmentEntity ra, TransferEntity t
+            where t.id = ra.transferId
+                and t.userId = :userId
+                and ra.riskScore >= :minScore
+            order by ra.riskScore desc, ra.createdAt desc, ra.id desc
+            """)
+    List<FlagRow> findFlags(
+            @Param("userId") String userId,
+            @Param("minScore") int minScore,
+            Limit limit);
+
+    @Query("""
+            select
+              ra.id as assessmentId, ra.riskScore as riskScore, ra.level as level, ra.reasonsJson as reasonsJson,
+              ra.createdAt as assessedAt, t.id as transferId, t.fromAccountId as fromAccountId,
+              t.toAccountId as toAccountId, t.amount as amount, t.currency as currency, t.status as status,
+              t.createdAt as createdAt
+            from RiskAssessmentEntity ra, TransferEntity t
+            where t.id = ra.transferId
+                and t.userId = :userId
+                and ra.riskScore >= :minScore
+                and ra.riskScore <= :score
+                and (ra.riskScore < :score
+                    or ra.createdAt < :createdAt
+                    or (ra.createdAt = :createdAt and ra.id < :id))
+            order by ra.riskScore desc, ra.createdAt desc, ra.id desc
+            """)
+    List<FlagRow> findFlagsAfter(
+            @Param("userId") String userId,
+            @Param("minScore") int minScore,
+            @Param("score") int score,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") String id,
+            Limit limit);
+}
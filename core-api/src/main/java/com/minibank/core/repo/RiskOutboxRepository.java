@@ -0,0 +1,54 @@
+package com.minibank.core.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minibank.core.domain.RiskOutboxEntity;
+
+public interface RiskOutboxRepository extends JpaRepository<RiskOutboxEntity, String> {
+
+  List<RiskOutboxEntity> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+      String status, Instant now, Pageable pageable);
+
+  long countByStatus(String status);
+
+  // All transitions are guarded by status = 'PENDING' so a row is completed at most once.
+
+  @Modifying
+  @Query("""
+      update RiskOutboxEntity o
+      set o.status = 'DONE', o.attempts = o.attempts + 1, o.processedAt = :now, o.lastError = null
+      where o.id = :id and o.status = 'PENDING'
+      """)
+  int markDone(@Param("id") String id, @Param("now") Instant now);
+
+  @Modifying
+  @Query("""
+      update RiskOutboxEntity o
+      set o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, o.lastError = :error
+      where o.id = :id and o.status = 'PENDING'
+      """)
+  int markRetry(
+      @Param("id") String id,
+      @Param("attempts") int attempts,
+      @Param("nextAttemptAt") Instant nextAttemptAt,
+      @Param("error") String error);
+
+  @Modifying
+  @Query("""
+      update RiskOutboxEntity o
+      set o.status = 'DEAD', o.attempts = :attempts, o.processedAt = :now, o.lastError = :error
+      where o.id = :id and o.status = 'PENDING'
+      """)
+  int markDead(
+      @Param("id") String id,
+      @Param("attempts") int attempts,
+      @Param("now") Instant now,
+      @Param("error") String error);
+}
@@ -3,16 +3,23 @@ package com.minibank.core.repo;
 import java.util.Optional;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.minibank.core.domain.TransferEntity;
 
+import jakarta.persistence.QueryHint;
+
 public interface TransferRepository extends JpaRepository<TransferEntity, String> {
 
   interface WindowStats {
@@ -21,11 +28,27 @@ public interface TransferRepository extends JpaRepository<TransferEntity, String
     BigDecimal getTransferTotal();
   }
 
-  Optional<TransferEntity> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+  interface WindowRow {
+    String getId();
+
+    Instant getCreatedAt();
+
+    BigDecimal getAmount();
+  }
 
-  List<TransferEntity> findTop10ByUserIdAndIdStartingWithOrderByCreatedAtDesc(String userId, String prefix);
+  interface RollupSource {
+    String getUserId();
 
-  Optional<TransferEntity> findByUserIdAndId(String userId, String id);
+    String getCurrency();
+
+    Instant getCreatedAt();
+
+    BigDecimal getAmount();
+  }
+
+  Optional<TransferEntity> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+
+  List<TransferEntity> findByUserIdAndIdempotencyKeyIn(String userId, Collection<String> idempotencyKeys);
 
   @Query("""
       select
@@ -43,6 +66,56 @@ public interface TransferRepository extends JpaRepository<TransferEntity, String
       @Param("status") String status,
       @Param("currency") String currency);
 
+  // Same rows as windowStats, one per transfer: used to fill StatsService's minute buckets on a cold miss
+  @Query("""
+      select
+        t.id as id,
+        t.createdAt as createdAt,
+        t.amount as amount
+      from TransferEntity t
+      where t.userId = :userId
+          and t.createdAt >= :since
+          and t.status = :status
+          and (:currency is null or t.currency = :currency)
+      """)
+  List<WindowRow> windowRows(
+      @Param("userId") String userId,
+      @Param("since") Instant since,
+      @Param("status") String status,
+      @Param("currency") String currency);
+
   Page<TransferEntity> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
+  // Keyset paging on idx_transfers_user_created: seek to the cursor and read `limit` rows; no count(*), no OFFSET
+  List<TransferEntity> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Limit limit);
+
+  @Query("""
+      select t
+      from TransferEntity t
+      where t.userId = :userId
+          and t.createdAt <= :createdAt
+          and (t.createdAt < :createdAt or t.id < :id)
+      order by t.createdAt desc, t.id desc
+      """)
+  List<TransferEntity> findPageAfter(
+      @Param("userId") String userId,
+      @Param("createdAt") Instant createdAt,
+      @Param("id") String id,
+      Limit limit);
+
+  long countByStatus(String status);
+
+  // Input of TransferRollups.rebuild. Must be consumed inside a transaction and closed (try-with-resources)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      select
+        t.userId as userId,
+        t.currency as currency,
+        t.createdAt as createdAt,
+        t.amount as amount
+      from TransferEntity t
+      where t.status = :status
+      """)
+  Stream<RollupSource> streamForRollups(@Param("status") String status);
+
 }
@@ -0,0 +1,80 @@
+package com.minibank.core.repo;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minibank.core.domain.TransferRollupHourlyEntity;
+
+public interface TransferRollupRepository
+    extends JpaRepository<TransferRollupHourlyEntity, TransferRollupHourlyEntity.Key> {
+
+  interface Totals {
+    long getTransferCount();
+
+    long getTotalMinor();
+  }
+
+  interface HourRow {
+    long getEpochHour();
+
+    long getTransferCount();
+
+    long getTotalMinor();
+  }
+
+  // SQLite upsert: adds to the hour's row, creating it on the hour's first transfer (conflict target = primary key)
+  @Modifying
+  @Query(value = """
+      insert into transfer_rollups_hourly (user_id, currency, epoch_hour, transfer_count, total_minor)
+      values (:userId, :currency, :epochHour, :transferCount, :totalMinor)
+      on conflict (user_id, currency, epoch_hour) do update set
+          transfer_count = transfer_count + excluded.transfer_count,
+          total_minor = total_minor + excluded.total_minor
+      """, nativeQuery = true)
+  int add(
+      @Param("userId") String userId,
+      @Param("currency") String currency,
+      @Param("epochHour") long epochHour,
+      @Param("transferCount") long transferCount,
+      @Param("totalMinor") long totalMinor);
+
+  // Range reads on idx_rollups_user_hour: at most one row per currency per hour in the window
+
+  @Query("""
+      select
+        coalesce(sum(r.transferCount), 0) as transferCount,
+        coalesce(sum(r.totalMinor), 0) as totalMinor
+      from TransferRollupHourlyEntity r
+      where r.userId = :userId
+          and r.epochHour >= :fromHour
+          and (:currency is null or r.currency = :currency)
+      """)
+  Totals totalsSince(
+      @Param("userId") String userId,
+      @Param("fromHour") long fromHour,
+      @Param("currency") String currency);
+
+  @Query("""
+      select
+        r.epochHour as epochHour,
+        sum(r.transferCount) as transferCount,
+        sum(r.totalMinor) as totalMinor
+      from TransferRollupHourlyEntity r
+      where r.userId = :userId
+          and r.epochHour >= :fromHour
+          and (:currency is null or r.currency = :currency)
+      group by r.epochHour
+      order by r.epochHour
+      """)
+  List<HourRow> hoursSince(
+      @Param("userId") String userId,
+      @Param("fromHour") long fromHour,
+      @Param("currency") String currency);
+
+  @Query("select coalesce(sum(r.transferCount), 0) from TransferRollupHourlyEntity r")
+  long countTransfers();
+}
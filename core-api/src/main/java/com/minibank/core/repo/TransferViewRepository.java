@@ -0,0 +1,46 @@
+package com.minibank.core.repo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.minibank.core.domain.TransferViewEntity;
+
+public interface TransferViewRepository extends JpaRepository<TransferViewEntity, String> {
+
+  interface SearchRow {
+    String getId();
+
+    Instant getCreatedAt();
+
+    BigDecimal getAmount();
+
+    String getCurrency();
+
+    String getStatus();
+  }
+
+  Optional<TransferViewEntity> findByIdAndUserId(String id, String userId);
+
+  // Fallback for users too large for TransferSearchIndex's memory budget
+  List<TransferViewEntity> findTop10ByUserIdAndIdStartingWithOrderByCreatedAtDesc(String userId, String prefix);
+
+  // Everything TransferSearchIndex keeps per transfer; one scan of idx_transfer_views_user_created on a cold miss
+  @Query("""
+      select
+        v.id as id,
+        v.createdAt as createdAt,
+        v.amount as amount,
+        v.currency as currency,
+        v.status as status
+      from TransferViewEntity v
+      where v.userId = :userId
+      """)
+  List<SearchRow> searchRows(@Param("userId") String userId, Limit limit);
+}
@@ -0,0 +1,169 @@
+/**
+ * Bounded, in-memory cache of account metadata (owner, currency, type) for request validation.
+ *
+ * - ownership/currency checks read from here instead of loading the account rows
+ * - a miss loads the account once; unknown ids throw NoSuchElementException and are not cached
+ * - entries are evicted least-recently-used past maxEntries
+ * - Hibernate post-commit update/delete events evict an account whose owner, currency or type changed
+ *   (balance updates leave the entry alone); after commit, so a concurrent miss can't re-cache the old row
+ *
+ * Balances are never cached here: they are read under the account locks in the transfer transaction.
+ * This is a per-instance cache; changes made outside this JVM are not seen until the entry is evicted.
+ */
+
+package com.minibank.core.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.minibank.core.domain.AccountEntity;
+import com.minibank.core.repo.AccountRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Component
+public class AccountDirectory implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    public record AccountInfo(String id, String userId, String currency, String type) {
+
+        static AccountInfo of(AccountEntity a) {
+            return new AccountInfo(a.getId(), a.getUserId(), a.getCurrency(), a.getType());
+        }
+    }
+
+    private final AccountRepository accounts;
+    private final int maxEntries;
+    private final Map<String, AccountInfo> entries;
+    // bumped on every eviction; a load that raced one is not cached
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public AccountDirectory(
+            AccountRepository accounts,
+            EntityManagerFactory emf,
+            @Value("${accounts.cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.accounts = accounts;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AccountInfo> eldest) {
+                return size() > AccountDirectory.this.maxEntries;
+            }
+        };
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+
+        EventListenerRegistry events = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        events.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        events.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("accounts.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** Metadata of the account, loading it on a miss. Throws NoSuchElementException if it doesn't exist. */
+    public AccountInfo get(String accountId) {
+        long seen;
+        synchronized (entries) {
+            AccountInfo cached = entries.get(accountId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            seen = generation;
+        }
+
+        misses.increment();
+        AccountInfo loaded = AccountInfo.of(accounts.findById(accountId).orElseThrow());
+        synchronized (entries) {
+            if (generation == seen) {
+                entries.put(accountId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Checks that both accounts exist, belong to the user and are held in the currency.
+     * Same messages as the transfer validation always had.
+     */
+    public void requireTransferable(String userId, String fromAccountId, String toAccountId, String currency) {
+        AccountInfo from = get(fromAccountId);
+        AccountInfo to = get(toAccountId);
+
+        if (!from.userId().equals(userId) || !to.userId().equals(userId)) {
+            throw new IllegalArgumentException("Accounts must belong to the user");
+        }
+        if (!from.currency().equals(currency) || !to.currency().equals(currency)) {
+            throw new IllegalArgumentException("Currency Mismatch");
+        }
+    }
+
+    public void invalidate(String accountId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(accountId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof AccountEntity a) {
+            AccountInfo cached;
+            synchronized (entries) {
+                cached = entries.get(a.getId());
+            }
+            if (cached != null && !cached.equals(AccountInfo.of(a))) {
+                invalidate(a.getId());
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof AccountEntity a) {
+            invalidate(a.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AccountEntity.class.equals(persister.getMappedClass());
+    }
+}
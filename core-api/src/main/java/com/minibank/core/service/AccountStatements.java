@@ -0,0 +1,121 @@
+/**
+ * Past balances and statements for one account, from the ledger alone.
+ *
+ * - every ledger entry stores the balance it left behind, so it is already a checkpoint: the balance at t is
+ *   the one of the last entry before t, found by one seek on idx_ledger_account_created
+ * - before the account's first entry, the balance is that entry's, with its amount undone
+ * - a statement is two such seeks (opening, closing) plus a range scan over its own entries, capped per page;
+ *   none of it depends on how much history lies before or after the period
+ *
+ * Points in time are half-open: the balance "at t" includes entries strictly before t, so a statement for
+ * [from, to) opens at balanceAt(from) and closes at balanceAt(to).
+ */
+
+package com.minibank.core.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.domain.LedgerEntryEntity;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.repo.LedgerEntryRepository;
+
+@Service
+public class AccountStatements {
+
+    public record Balance(AccountDirectory.AccountInfo account, Instant at, long balanceMinor) {
+    }
+
+    /** entries: oldest first, up to limit + 1 (the extra one only tells the caller there is a next page). */
+    public record Statement(
+            AccountDirectory.AccountInfo account,
+            Instant from,
+            Instant to,
+            long openingMinor,
+            long closingMinor,
+            List<LedgerEntryEntity> entries) {
+    }
+
+    private final AccountDirectory directory;
+    private final AccountRepository accounts;
+    private final LedgerEntryRepository ledger;
+    private final TransactionTemplate readOnlyTx;
+
+    public AccountStatements(
+            AccountDirectory directory,
+            AccountRepository accounts,
+            LedgerEntryRepository ledger,
+            PlatformTransactionManager txManager) {
+        this.directory = directory;
+        this.accounts = accounts;
+        this.ledger = ledger;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public Balance balanceAt(String userId, String accountId, Instant at) {
+        AccountDirectory.AccountInfo account = owned(userId, accountId);
+        // one read transaction: the fallbacks below must see the same ledger as the first seek
+        return readOnlyTx.execute(status -> new Balance(account, at, balanceBefore(accountId, at)));
+    }
+
+    /**
+     * Entries in [from, to), oldest first, limit per page; afterCreatedAt/afterId (both null for the first
+     * page) is the last entry of the previous page. Opening/closing balances are for the whole period.
+     */
+    public Statement statement(
+            String userId,
+            String accountId,
+            Instant from,
+            Instant to,
+            Instant afterCreatedAt,
+            String afterId,
+            int limit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        AccountDirectory.AccountInfo account = owned(userId, accountId);
+
+        return readOnlyTx.execute(status -> {
+            long opening = balanceBefore(accountId, from);
+            long closing = balanceBefore(accountId, to);
+            List<LedgerEntryEntity> entries = (afterCreatedAt == null)
+                    ? ledger.findInRange(accountId, from, to, Limit.of(limit + 1))
+                    : ledger.findInRangeAfter(accountId, to, afterCreatedAt, afterId, Limit.of(limit + 1));
+            return new Statement(account, from, to, opening, closing, entries);
+        });
+    }
+
+    private AccountDirectory.AccountInfo owned(String userId, String accountId) {
+        AccountDirectory.AccountInfo account = directory.get(accountId);
+        if (!account.userId().equals(userId)) {
+            throw new NoSuchElementException("Account not found");
+        }
+        return account;
+    }
+
+    private long balanceBefore(String accountId, Instant t) {
+        Optional<LedgerEntryEntity> last = ledger.findFirstByAccountIdAndCreatedAtLessThanOrderByCreatedAtDescIdDesc(accountId, t);
+        if (last.isPresent()) {
+            return last.get().getBalanceMinor();
+        }
+
+        Optional<LedgerEntryEntity> next = ledger.findFirstByAccountIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(accountId, t);
+        if (next.isPresent()) {
+            LedgerEntryEntity e = next.get();
+            return "DEBIT".equals(e.getType())
+                    ? Math.addExact(e.getBalanceMinor(), e.getAmountMinor())
+                    : Math.subtractExact(e.getBalanceMinor(), e.getAmountMinor());
+        }
+
+        // no ledger history at all: the balance has never moved
+        return accounts.findById(accountId).orElseThrow().getBalanceMinor();
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Per-user and per-account change counters behind the ETags of the polled dashboard endpoints.
+ *
+ * - transferCommitted() bumps the user and both accounts; it is called after commit, next to StatsService.record
+ * - versions come from one instance-wide sequence, so a key's version never goes back to an old value
+ * - keys are evicted LRU past versions.max-keys; an evicted key reads as the sequence value at its eviction,
+ *   which is >= its last version: unchanged data keeps its ETag, anything else just misses once
+ * - ETags carry an instance epoch, so a restart (counters back to 0) never revalidates a stale copy
+ *
+ * Per-instance, like the other in-memory caches: correct for the single-node demo, where every commit
+ * goes through this JVM.
+ */
+
+package com.minibank.core.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ChangeVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Long> versions; // guarded by itself
+    private long sequence;                    // guarded by versions
+    private long evictedFloor;                // guarded by versions
+
+    public ChangeVersions(@Value("${versions.max-keys:100000}") int maxKeys) {
+        this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() <= maxKeys) return false;
+                evictedFloor = sequence;
+                return true;
+            }
+        };
+    }
+
+    /** Must be called after commit, so a client can't cache the pre-commit state under the new version. */
+    public void transferCommitted(String userId, String fromAccountId, String toAccountId) {
+        synchronized (versions) {
+            long v = ++sequence;
+            versions.put(userKey(userId), v);
+            versions.put(accountKey(fromAccountId), v);
+            versions.put(accountKey(toAccountId), v);
+        }
+    }
+
+    /** Strong ETag for data that changes only when the user's transfers do (accounts list). */
+    public String userETag(String userId) {
+        return etag("u", version(userKey(userId)));
+    }
+
+    /** Same, for user data that also moves with the clock: pass the current minute (stats) or hour (hourly series). */
+    public String userETag(String userId, long clockStep) {
+        return etag("u", version(userKey(userId)) + "-" + clockStep);
+    }
+
+    /** Strong ETag for data that changes only when a transfer touches the account (its ledger). */
+    public String accountETag(String accountId) {
+        return etag("a", version(accountKey(accountId)));
+    }
+
+    private long version(String key) {
+        synchronized (versions) {
+            Long v = versions.get(key);
+            return (v != null) ? v : evictedFloor;
+        }
+    }
+
+    private String etag(String kind, Object version) {
+        return "\"" + kind + "-" + epoch + "-" + version + "\"";
+    }
+
+    private static String userKey(String userId) {
+        return "u:" + userId;
+    }
+
+    private static String accountKey(String accountId) {
+        return "a:" + accountId;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Bounded, TTL'd cache of idempotent results keyed by (userId, idempotencyKey).
+ *
+ * - hit: a completed result is returned without running the supplier (no DB round trip)
+ * - coalesced: a duplicate that arrives while the first call is still running waits on the same future
+ *   and gets the identical result (or the same exception)
+ * - miss: the caller runs the supplier; failures are not cached, so a retry after an error runs again
+ *
+ * The TTL starts when the result completes. Completed entries are evicted least-recently-used past maxEntries;
+ * an entry still in flight is never evicted (a duplicate must find it to coalesce), so under load the map can
+ * briefly hold maxEntries plus the number of requests in flight.
+ * This is a per-instance cache: the DB lookup + unique constraint remain the source of truth.
+ */
+
+package com.minibank.core.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public final class IdempotencyCache<V> {
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        volatile long expiresAtNanos = Long.MAX_VALUE; // set once the result is in
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry<V>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public IdempotencyCache(String name, int maxEntries, Duration ttl, MeterRegistry registry) {
+        this(maxEntries, ttl, result -> Counter.builder("idempotency.cache.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry));
+    }
+
+    /** For caches that report under their own meter: counters.apply(result) for result = hit, miss, coalesced. */
+    public IdempotencyCache(int maxEntries, Duration ttl, Function<String, Counter> counters) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true); // access order: eldest = least recently used
+
+        this.hits = counters.apply("hit");
+        this.misses = counters.apply("miss");
+        this.coalesced = counters.apply("coalesced");
+    }
+
+    /** Returns the cached/in-flight result for (userId, key), or runs compute and caches its result. */
+    public V getOrCompute(String userId, String key, Supplier<V> compute) {
+        String k = userId + '\u0000' + key;
+        Entry<V> mine = new Entry<>();
+        Entry<V> existing;
+
+        synchronized (entries) {
+            existing = entries.get(k);
+            if (existing != null && existing.expiresAtNanos - System.nanoTime() <= 0) {
+                entries.remove(k);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(k, mine);
+                evictCompleted();
+            }
+        }
+
+        if (existing != null) {
+            (existing.result.isDone() ? hits : coalesced).increment();
+            return join(existing.result);
+        }
+
+        misses.increment();
+        V value;
+        try {
+            value = compute.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(k, mine);
+            }
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+        mine.expiresAtNanos = System.nanoTime() + ttlNanos;
+        mine.result.complete(value);
+        return value;
+    }
+
+    // guarded by entries; skips in-flight entries, however old
+    private void evictCompleted() {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Idempotent request was cancelled", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Sliding 24h count/sum for one (userId, currency) key: a ring of 1440 minute buckets.
+ *
+ * - record(): O(1), called after a transfer commits
+ * - totals(): O(buckets), sums the buckets still inside the window (long minor units, no allocation per bucket);
+ *   a shorter trailing window (e.g. the last 60 minutes) sums only its newest buckets
+ * - granularity is one minute: the oldest bucket may hold up to 59s more than an exact 24h query
+ *
+ * Cold start: the ring is filled once from the DB (see StatsService). Transfers recorded while that
+ * load is running are buffered and de-duplicated against the loaded rows by transfer id, so a commit
+ * that races the load is counted exactly once.
+ */
+
+package com.minibank.core.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+final class MinuteWindow {
+    static final int BUCKETS = 24 * 60;
+
+    // how long ids from the cold load are kept to catch a late record() of an already-loaded transfer
+    private static final long LOADED_IDS_GRACE_SECONDS = 60;
+
+    record Row(String transferId, Instant createdAt, long amountMinor) {
+    }
+
+    record Totals(int count, long sumMinor) {
+    }
+
+    private final long[] minutes = new long[BUCKETS];
+    private final int[] counts = new int[BUCKETS];
+    private final long[] sums = new long[BUCKETS];
+
+    private final Object loadLock = new Object();
+    private volatile boolean ready;
+    private List<Row> buffered = new ArrayList<>(); // non-null until loaded; guarded by this
+    private Set<String> loadedIds;                   // guarded by this
+    private long loadedAtEpochSecond;
+
+    MinuteWindow() {
+        Arrays.fill(minutes, Long.MIN_VALUE);
+    }
+
+    /** Fills the ring from the DB once; safe to call on every read. */
+    void ensureLoaded(Supplier<List<Row>> loader, Instant now) {
+        if (ready) return;
+        synchronized (loadLock) {
+            if (ready) return;
+
+            // outside the ring lock, so concurrent commits only append to the buffer
+            List<Row> rows = loader.get();
+
+            synchronized (this) {
+                loadedIds = new HashSet<>(rows.size() * 2);
+                for (Row r : rows) {
+                    if (loadedIds.add(r.transferId())) add(r.createdAt(), r.amountMinor(), now);
+                }
+                for (Row r : buffered) {
+                    if (loadedIds.add(r.transferId())) add(r.createdAt(), r.amountMinor(), now);
+                }
+                buffered = null;
+                loadedAtEpochSecond = now.getEpochSecond();
+                ready = true;
+            }
+        }
+    }
+
+    synchronized void record(Row row, Instant now) {
+        if (buffered != null) {
+            buffered.add(row);
+            return;
+        }
+        if (loadedIds != null) {
+            if (now.getEpochSecond() - loadedAtEpochSecond > LOADED_IDS_GRACE_SECONDS) {
+                loadedIds = null;
+            } else if (!loadedIds.add(row.transferId())) {
+                return; // already counted by the cold load
+            }
+        }
+        add(row.createdAt(), row.amountMinor(), now);
+    }
+
+    Totals totals(Instant now) {
+        return totals(now, BUCKETS);
+    }
+
+    /** Totals of the last `span` minutes (1..BUCKETS), current minute included. */
+    synchronized Totals totals(Instant now, int span) {
+        long current = minuteOf(now);
+        int count = 0;
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (minutes[i] > current - span && minutes[i] <= current) {
+                count += counts[i];
+                sum += sums[i];
+            }
+        }
+        return new Totals(count, sum);
+    }
+
+    private void add(Instant createdAt, long amountMinor, Instant now) {
+        long minute = minuteOf(createdAt);
+        if (minute <= minuteOf(now) - BUCKETS) return; // already outside the window
+
+        int idx = (int) Math.floorMod(minute, (long) BUCKETS);
+        if (minutes[idx] != minute) {
+            if (minutes[idx] > minute) return; // slot already holds a newer minute
+            minutes[idx] = minute;
+            counts[idx] = 0;
+            sums[idx] = 0;
+        }
+        counts[idx]++;
+        sums[idx] += amountMinor;
+    }
+
+    private static long minuteOf(Instant t) {
+        return Math.floorDiv(t.getEpochSecond(), 60L);
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Drains the risk_outbox table: scores with the configured RiskScorer (risk.scorer.mode) and persists the
+ * RiskAssessment. Runs after the transfer has committed, so no JDBC connection / SQLite write lock is held
+ * across scoring (an HTTP round trip in remote mode).
+ *
+ * Flow:
+ * - TransferService hands over freshly committed rows (fast path, no polling delay)
+ * - a scheduled poll picks up anything missed (restart, retry due, dispatcher busy)
+ * - each row is scored on its own virtual thread
+ * - failures retry with exponential backoff; after max attempts the row is dead-lettered
+ *   and the transfer gets the fail-open assessment (score 0), same as the old inline path
+ */
+
+package com.minibank.core.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.client.RiskScorer;
+import com.minibank.core.domain.RiskAssessmentEntity;
+import com.minibank.core.domain.RiskOutboxEntity;
+import com.minibank.core.repo.RiskAssessmentRepository;
+import com.minibank.core.repo.RiskOutboxRepository;
+import com.minibank.core.repo.TransferViewRepository;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class RiskOutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(RiskOutboxDispatcher.class);
+
+    private final RiskOutboxRepository outbox;
+    private final RiskAssessmentRepository riskRepo;
+    private final TransferViewRepository views;
+    private final RiskScorer scorer;
+    private final RiskReasonsCodec reasonsCodec;
+    private final TransactionTemplate txTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, CompletableFuture<RiskAssessmentEntity>> waiters = new ConcurrentHashMap<>();
+
+    public RiskOutboxDispatcher(
+            RiskOutboxRepository outbox,
+            RiskAssessmentRepository riskRepo,
+            TransferViewRepository views,
+            RiskScorer scorer,
+            RiskReasonsCodec reasonsCodec,
+            PlatformTransactionManager txManager,
+            @Value("${risk.outbox.batch-size:100}") int batchSize,
+            @Value("${risk.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${risk.outbox.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.outbox = outbox;
+        this.riskRepo = riskRepo;
+        this.views = views;
+        this.scorer = scorer;
+        this.reasonsCodec = reasonsCodec;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /** Fast path: called by TransferService right after the transfer transaction committed. */
+    public void submit(RiskOutboxEntity row) {
+        if (!inFlight.add(row.getId())) return;
+        workers.execute(() -> {
+            try {
+                process(row);
+            } finally {
+                inFlight.remove(row.getId());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${risk.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        List<RiskOutboxEntity> due = outbox.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                "PENDING", Instant.now(), PageRequest.of(0, batchSize));
+        for (RiskOutboxEntity row : due) {
+            submit(row);
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for the transfer's assessment.
+     * Returns null if it isn't ready in time (the transfer itself is already committed).
+     */
+    public RiskAssessmentEntity awaitAssessment(String transferId, Duration timeout) {
+        // register before checking the DB so a completion in between isn't missed
+        CompletableFuture<RiskAssessmentEntity> f = waiters.computeIfAbsent(transferId, id -> new CompletableFuture<>());
+        try {
+            RiskAssessmentEntity existing = riskRepo.findByTransferId(transferId).orElse(null);
+            if (existing != null) return existing;
+
+            return f.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("Waiting for risk assessment failed. transferId={} error={}", transferId, e.toString());
+            return null;
+        } finally {
+            waiters.remove(transferId, f);
+        }
+    }
+
+    private void process(RiskOutboxEntity row) {
+        RiskScorer.ScoreResponse resp;
+        try {
+            resp = scorer.score(new RiskScorer.ScoreRequest(
+                    row.getUserId(),
+                    row.getFromAccountId(),
+                    row.getToAccountId(),
+                    row.getAmount(),
+                    row.getCurrency(),
+                    Instant.now(),
+                    row.getLast24hCount(),
+                    row.getLast24hTotal()));
+        } catch (Exception e) {
+            onFailure(row, e);
+            return;
+        }
+
+        RiskAssessmentEntity ra = txTemplate.execute(status -> {
+            // 0 rows: already completed elsewhere (or the transfer was removed) -> don't write twice
+            if (outbox.markDone(row.getId(), Instant.now()) == 0) return null;
+            return saveAssessment(row.getTransferId(), resp);
+        });
+        if (ra != null) complete(row.getTransferId(), ra);
+    }
+
+    private void onFailure(RiskOutboxEntity row, Exception e) {
+        int attempts = row.getAttempts() + 1;
+        String error = e.toString();
+
+        if (attempts >= maxAttempts) {
+            log.warn("Risk scoring dead-lettered after {} attempts; defaulting riskScore=0. transferId={} error={}",
+                    attempts, row.getTransferId(), error);
+            // Fail-open: keeps the transfer visible with a LOW score instead of no assessment at all
+            RiskAssessmentEntity ra = txTemplate.execute(status -> {
+                if (outbox.markDead(row.getId(), attempts, Instant.now(), error) == 0) return null;
+                return saveAssessment(row.getTransferId(), new RiskScorer.ScoreResponse(0, List.of()));
+            });
+            if (ra != null) complete(row.getTransferId(), ra);
+            return;
+        }
+
+        long backoff = retryBackoffMs << Math.min(attempts - 1, 10);
+        log.warn("Risk service call failed; retrying in {}ms. transferId={} attempt={} error={}",
+                backoff, row.getTransferId(), attempts, error);
+        txTemplate.executeWithoutResult(status ->
+                outbox.markRetry(row.getId(), attempts, Instant.now().plusMillis(backoff), error));
+    }
+
+    private void complete(String transferId, RiskAssessmentEntity ra) {
+        CompletableFuture<RiskAssessmentEntity> f = waiters.get(transferId);
+        if (f != null) f.complete(ra);
+    }
+
+    // Stores the assessment and copies it onto the transfer's read model row, in the caller's transaction
+    private RiskAssessmentEntity saveAssessment(String transferId, RiskScorer.ScoreResponse resp) {
+        RiskAssessmentEntity ra = riskRepo.save(toAssessment(transferId, resp));
+        views.findById(transferId).ifPresent(v -> v.applyRisk(ra.getRiskScore(), ra.getLevel(), resp.reasons()));
+        return ra;
+    }
+
+    private RiskAssessmentEntity toAssessment(String transferId, RiskScorer.ScoreResponse resp) {
+        int score = resp.riskScore();
+        String level = (score >= 70) ? "HIGH" : (score >= 40) ? "MEDIUM" : "LOW";
+
+        RiskAssessmentEntity ra = new RiskAssessmentEntity();
+        ra.setTransferId(transferId);
+        ra.setRiskScore(score);
+        ra.setLevel(level);
+        ra.setReasonsJson(reasonsCodec.toJson(resp.reasons()));
+        return ra;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * JSON codec for RiskAssessmentEntity.reasonsJson (a JSON array of reason codes).
+ * Written by RiskOutboxDispatcher, read back when backfilling transfer_views; both sides are fail-soft.
+ */
+
+package com.minibank.core.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+@Component
+public class RiskReasonsCodec {
+
+    private static final TypeReference<List<String>> LIST_OF_STRINGS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public RiskReasonsCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String toJson(List<String> reasons) {
+        try {
+            return objectMapper.writeValueAsString(reasons == null ? List.of() : reasons);
+        } catch (JacksonException e) {
+            // fail-soft: keep the dispatcher running even if serialization somehow fails
+            return "[]";
+        }
+    }
+
+    public List<String> parse(String reasonsJson) {
+        if (reasonsJson == null || reasonsJson.isBlank())
+            return List.of();
+
+        try {
+            return objectMapper.readValue(reasonsJson, LIST_OF_STRINGS);
+        } catch (Exception e) {
+            // fail-soft for demo: don't 500 just because reasonsJson is malformed
+            return List.of(reasonsJson);
+        }
+    }
+}
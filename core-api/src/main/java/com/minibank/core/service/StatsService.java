@@ -5,7 +5,13 @@
  *
  * Notes:
  * - Use Instant/UTC for window boundaries to avoid timezone surprises.
- * - Keep queries indexed / bounded (prefer DB aggregation over in-memory loops).
+ * - Answers come from in-memory minute rings (MinuteWindow) per (userId, currency), plus one per user
+ *   across all currencies; a ring is loaded from the DB on first use and then kept current by record()
+ *   after each commit, so neither transfers nor dashboard polls run the aggregate per call.
+ * - Rings are evicted LRU past stats.window.max-keys and simply reloaded on the next miss.
+ * - stats(): 1h and 24h come from the same rings; 7d and 30d, and every hourly series(), come from
+ *   transfer_rollups_hourly (TransferRollups), i.e. at most 720 rows per currency instead of every transfer.
+ *   Rollup windows are whole hours: they start at the top of the oldest hour, which `since` reports.
  */
 
 package com.minibank.core.service;
@@ -13,31 +19,149 @@ package com.minibank.core.service;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.minibank.core.domain.Money;
 import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.repo.TransferRollupRepository;
 
 @Service
 public class StatsService {
+  private static final Duration WINDOW = Duration.ofHours(24);
+  private static final String ALL_CURRENCIES = "*";
+
   private final TransferRepository transferRepo;
+  private final TransferRollupRepository rollupRepo;
+  private final Map<String, MinuteWindow> windows;
 
-  public StatsService(TransferRepository transferRepo) {
+  public StatsService(
+      TransferRepository transferRepo,
+      TransferRollupRepository rollupRepo,
+      @Value("${stats.window.max-keys:1000}") int maxKeys) {
     this.transferRepo = transferRepo;
+    this.rollupRepo = rollupRepo;
+    this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, MinuteWindow> eldest) {
+        return size() > maxKeys;
+      }
+    };
   }
 
   public TransferWindowStatsDto last24h(String userId, String currency) {
-    Instant since = Instant.now().minus(Duration.ofHours(24));
+    return last24h(userId, currency, Instant.now());
+  }
+
+  /**
+   * Window ending at the start of now's minute (the buckets' granularity anyway), so the answer is
+   * the same for the whole minute and can be cached under an ETag that includes the minute.
+   */
+  public TransferWindowStatsDto last24h(String userId, String currency, Instant now) {
+    return stats(userId, currency, StatsWindow.LAST_DAY, now);
+  }
+
+  /** Activity over `window`, ending at the start of now's minute like last24h. */
+  public TransferWindowStatsDto stats(String userId, String currency, StatsWindow window, Instant now) {
+    now = now.truncatedTo(ChronoUnit.MINUTES);
+    if (window.hours() <= 24) {
+      MinuteWindow.Totals totals = totals(userId, currency, now, window.hours() * 60);
+      return new TransferWindowStatsDto(totals.count(), Money.toBigDecimal(totals.sumMinor()), now.minus(window.duration()), currency);
+    }
+
+    long fromHour = TransferRollups.epochHour(now) - window.hours() + 1;
+    TransferRollupRepository.Totals totals = rollupRepo.totalsSince(userId, fromHour, currency);
+    return new TransferWindowStatsDto(
+        Math.toIntExact(totals.getTransferCount()),
+        Money.toBigDecimal(totals.getTotalMinor()),
+        Instant.ofEpochSecond(fromHour * 3600),
+        currency);
+  }
 
-    var stats = transferRepo.windowStats(userId, since, "APPROVED", currency);
+  /** One point per hour of `window`, oldest first, the last one being the current (partial) hour; empty hours are zeros. */
+  public StatsSeriesDto series(String userId, String currency, StatsWindow window, Instant now) {
+    long fromHour = TransferRollups.epochHour(now) - window.hours() + 1;
+    long[] counts = new long[window.hours()];
+    long[] sums = new long[window.hours()];
+    for (TransferRollupRepository.HourRow row : rollupRepo.hoursSince(userId, fromHour, currency)) {
+      int i = (int) (row.getEpochHour() - fromHour);
+      if (i < counts.length) { // createdAt is set by the app clock, so a row can be slightly ahead of ours
+        counts[i] = row.getTransferCount();
+        sums[i] = row.getTotalMinor();
+      }
+    }
+
+    List<HourPoint> points = new ArrayList<>(counts.length);
+    for (int i = 0; i < counts.length; i++) {
+      points.add(new HourPoint(Instant.ofEpochSecond((fromHour + i) * 3600), Math.toIntExact(counts[i]), Money.toBigDecimal(sums[i])));
+    }
+    return new StatsSeriesDto(window.param(), currency, points);
+  }
+
+  /** Same window as last24h for one currency, as Money, for the transfer hot path. */
+  public WindowTotals last24hTotals(String userId, String currency) {
+    MinuteWindow.Totals totals = totals(userId, currency, Instant.now(), MinuteWindow.BUCKETS);
+    return new WindowTotals(totals.count(), new Money(totals.sumMinor(), currency));
+  }
+
+  private MinuteWindow.Totals totals(String userId, String currency, Instant now, int minutes) {
+    MinuteWindow window = window(userId, currency);
+    window.ensureLoaded(() -> loadRows(userId, currency, now), now);
+    return window.totals(now, minutes);
+  }
 
-    int count = stats.getTransferCount();
-    BigDecimal sum = Optional.ofNullable(stats.getTransferTotal()).orElse(BigDecimal.ZERO);
+  /**
+   * Adds a committed APPROVED transfer to the windows that are already in memory.
+   * Must be called after commit (a rolled back transfer must not be counted).
+   */
+  public void record(String transferId, String userId, String currency, Instant createdAt, long amountMinor) {
+    Instant now = Instant.now();
+    MinuteWindow.Row row = new MinuteWindow.Row(transferId, createdAt, amountMinor);
 
-    return new TransferWindowStatsDto(count, sum, since, currency);
+    MinuteWindow perCurrency;
+    MinuteWindow all;
+    synchronized (windows) {
+      perCurrency = windows.get(key(userId, currency));
+      all = windows.get(key(userId, null));
+    }
+    // not in memory: nothing to do, the next read loads it from the DB
+    if (perCurrency != null) perCurrency.record(row, now);
+    if (all != null) all.record(row, now);
+  }
+
+  private MinuteWindow window(String userId, String currency) {
+    String key = key(userId, currency);
+    synchronized (windows) {
+      return windows.computeIfAbsent(key, k -> new MinuteWindow());
+    }
+  }
+
+  private List<MinuteWindow.Row> loadRows(String userId, String currency, Instant now) {
+    Instant since = now.minus(WINDOW);
+    return transferRepo.windowRows(userId, since, "APPROVED", currency).stream()
+        .map(r -> new MinuteWindow.Row(r.getId(), r.getCreatedAt(), Money.toMinorRounded(r.getAmount())))
+        .toList();
+  }
+
+  private static String key(String userId, String currency) {
+    return userId + '|' + (currency == null ? ALL_CURRENCIES : currency);
   }
 
   public record TransferWindowStatsDto(int count, BigDecimal sum, Instant since, String currency) {
   }
+
+  public record WindowTotals(int count, Money sum) {
+  }
+
+  public record HourPoint(Instant hour, int count, BigDecimal sum) {
+  }
+
+  public record StatsSeriesDto(String window, String currency, List<HourPoint> points) {
+  }
 }
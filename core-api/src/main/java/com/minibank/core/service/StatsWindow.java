@@ -0,0 +1,42 @@
+/**
+ * Windows offered by GET /api/transfers/stats and /stats/series (the `window` parameter).
+ * Each is a whole number of hours, so the hourly series has exactly hours() points.
+ */
+
+package com.minibank.core.service;
+
+import java.time.Duration;
+
+public enum StatsWindow {
+    LAST_HOUR("1h", 1),
+    LAST_DAY("24h", 24),
+    LAST_WEEK("7d", 7 * 24),
+    LAST_30_DAYS("30d", 30 * 24);
+
+    private final String param;
+    private final int hours;
+
+    StatsWindow(String param, int hours) {
+        this.param = param;
+        this.hours = hours;
+    }
+
+    public static StatsWindow parse(String param) {
+        for (StatsWindow w : values()) {
+            if (w.param.equals(param)) return w;
+        }
+        throw new IllegalArgumentException("window must be one of 1h, 24h, 7d, 30d");
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public int hours() {
+        return hours;
+    }
+
+    public Duration duration() {
+        return Duration.ofHours(hours);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * One user's transfers for id typeahead: parallel arrays sorted by transfer id.
+ *
+ * - search(): binary search to the first id >= prefix, then a scan while ids still match;
+ *   the newest `limit` matches (createdAt desc, id desc) are kept in a small sorted buffer
+ * - record(): binary-search insert; ids are time-ordered, so this is an append in practice
+ * - ~100 bytes per transfer (id string + a few longs/refs), no per-entry objects besides the id
+ *
+ * Cold start: filled once from the DB (see TransferSearchIndex). Transfers recorded while that load is
+ * running are buffered and merged afterwards; a transfer that is both loaded and recorded is kept once,
+ * since every insert checks for the id first.
+ */
+
+package com.minibank.core.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+final class TransferPrefixIndex {
+
+    record Entry(String transferId, Instant createdAt, long amountMinor, String currency, String status) {
+    }
+
+    private final Object loadLock = new Object();
+    private volatile boolean ready;
+    private List<Entry> buffered = new ArrayList<>(); // non-null until loaded; guarded by this
+
+    private String[] ids = new String[0];
+    private long[] createdAtMillis = new long[0];
+    private long[] amountsMinor = new long[0];
+    private String[] currencies = new String[0];
+    private String[] statuses = new String[0];
+    private int size;
+
+    /**
+     * Fills the index from the DB once; safe to call on every read.
+     * Returns the number of entries this call added (0 unless it did the load).
+     */
+    int ensureLoaded(Supplier<List<Entry>> loader) {
+        if (ready) return 0;
+        synchronized (loadLock) {
+            if (ready) return 0;
+
+            // outside the index lock, so concurrent commits only append to the buffer
+            List<Entry> rows = loader.get();
+
+            synchronized (this) {
+                List<Entry> all = new ArrayList<>(rows.size() + buffered.size());
+                all.addAll(rows);
+                all.addAll(buffered);
+                all.sort((a, b) -> a.transferId().compareTo(b.transferId()));
+
+                grow(all.size());
+                for (Entry e : all) {
+                    if (size > 0 && ids[size - 1].equals(e.transferId())) continue; // loaded and recorded
+                    set(size++, e);
+                }
+                buffered = null;
+                ready = true;
+                return size;
+            }
+        }
+    }
+
+    /** Adds a committed transfer; returns true if the index grew (false if it was already in, or is still loading). */
+    synchronized boolean record(Entry e) {
+        if (buffered != null) {
+            buffered.add(e); // counted by ensureLoaded
+            return false;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, e.transferId());
+        if (pos >= 0) return false;
+
+        int at = -pos - 1;
+        grow(size + 1);
+        if (at < size) {
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(createdAtMillis, at, createdAtMillis, at + 1, size - at);
+            System.arraycopy(amountsMinor, at, amountsMinor, at + 1, size - at);
+            System.arraycopy(currencies, at, currencies, at + 1, size - at);
+            System.arraycopy(statuses, at, statuses, at + 1, size - at);
+        }
+        set(at, e);
+        size++;
+        return true;
+    }
+
+    /** The newest `limit` transfers whose id starts with prefix, newest first. */
+    synchronized List<Entry> search(String prefix, int limit) {
+        int[] top = new int[limit];
+        int found = 0;
+
+        int pos = Arrays.binarySearch(ids, 0, size, prefix);
+        for (int i = (pos >= 0) ? pos : -pos - 1; i < size && ids[i].startsWith(prefix); i++) {
+            if (found == limit && !newer(i, top[limit - 1])) continue;
+
+            int j = Math.min(found, limit - 1);
+            while (j > 0 && newer(i, top[j - 1])) {
+                top[j] = top[j - 1];
+                j--;
+            }
+            top[j] = i;
+            if (found < limit) found++;
+        }
+
+        List<Entry> out = new ArrayList<>(found);
+        for (int k = 0; k < found; k++) {
+            int i = top[k];
+            out.add(new Entry(ids[i], Instant.ofEpochMilli(createdAtMillis[i]), amountsMinor[i], currencies[i], statuses[i]));
+        }
+        return out;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private boolean newer(int a, int b) {
+        if (createdAtMillis[a] != createdAtMillis[b]) return createdAtMillis[a] > createdAtMillis[b];
+        return ids[a].compareTo(ids[b]) > 0;
+    }
+
+    private void set(int i, Entry e) {
+        ids[i] = e.transferId();
+        createdAtMillis[i] = e.createdAt().toEpochMilli();
+        amountsMinor[i] = e.amountMinor();
+        // a handful of distinct values; one shared instance each instead of one per loaded row
+        currencies[i] = e.currency().intern();
+        statuses[i] = e.status().intern();
+    }
+
+    private void grow(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1) + 16);
+        ids = Arrays.copyOf(ids, capacity);
+        createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+        amountsMinor = Arrays.copyOf(amountsMinor, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Maintains transfer_rollups_hourly (see TransferRollupHourlyEntity), the source of the long stats windows.
+ *
+ * - addAll(): called with the transfers a transaction inserts, inside that transaction, so a rollback
+ *   takes the rollup change with it; one upsert per (user, currency, hour) touched, so a batch of
+ *   transfers in the same hour is a single statement
+ * - rebuild(): regenerates every row from the transfers table in one write transaction. It holds the
+ *   single writer connection throughout, so no transfer commits between the read and the rewrite.
+ */
+
+package com.minibank.core.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minibank.core.db.SqliteBusyRetry;
+import com.minibank.core.domain.Money;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.repo.TransferRollupRepository;
+
+@Service
+public class TransferRollups {
+    private static final Logger log = LoggerFactory.getLogger(TransferRollups.class);
+
+    private record HourKey(String userId, String currency, long epochHour) {
+    }
+
+    private static final class Sums {
+        long count;
+        long totalMinor;
+    }
+
+    private final TransferRollupRepository rollups;
+    private final TransferRepository transfers;
+    private final TransactionTemplate txTemplate;
+    private final SqliteBusyRetry busyRetry;
+
+    public TransferRollups(
+            TransferRollupRepository rollups,
+            TransferRepository transfers,
+            PlatformTransactionManager txManager,
+            SqliteBusyRetry busyRetry) {
+        this.rollups = rollups;
+        this.transfers = transfers;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.busyRetry = busyRetry;
+    }
+
+    public static long epochHour(Instant t) {
+        return Math.floorDiv(t.getEpochSecond(), 3600L);
+    }
+
+    /** Adds the APPROVED transfers among `inserted` to their hours. Must run in the transaction that inserts them. */
+    public void addAll(Collection<TransferEntity> inserted) {
+        Map<HourKey, Sums> byHour = new HashMap<>();
+        for (TransferEntity t : inserted) {
+            if ("APPROVED".equals(t.getStatus())) {
+                add(byHour, t.getUserId(), t.getCurrency(), t.getCreatedAt(), Money.toMinorRounded(t.getAmount()));
+            }
+        }
+        write(byHour);
+    }
+
+    /** Replaces every rollup row with one computed from the transfers table; returns the number of transfers rolled up. */
+    public long rebuild() {
+        Long rolledUp = busyRetry.execute(() -> txTemplate.execute(status -> {
+            Map<HourKey, Sums> byHour = new HashMap<>();
+            long n = 0;
+            try (Stream<TransferRepository.RollupSource> rows = transfers.streamForRollups("APPROVED")) {
+                for (var it = rows.iterator(); it.hasNext(); n++) {
+                    TransferRepository.RollupSource r = it.next();
+                    add(byHour, r.getUserId(), r.getCurrency(), r.getCreatedAt(), Money.toMinorRounded(r.getAmount()));
+                }
+            }
+            rollups.deleteAllInBatch();
+            write(byHour);
+            return n;
+        }));
+        log.info("Rebuilt transfer_rollups_hourly: transfers={}", rolledUp);
+        return (rolledUp == null) ? 0 : rolledUp;
+    }
+
+    /** True if the rollups count exactly the APPROVED transfers (cheap startup check, see TransferRollupBackfill). */
+    public boolean inSync() {
+        return rollups.countTransfers() == transfers.countByStatus("APPROVED");
+    }
+
+    private static void add(Map<HourKey, Sums> byHour, String userId, String currency, Instant createdAt, long amountMinor) {
+        Sums sums = byHour.computeIfAbsent(new HourKey(userId, currency, epochHour(createdAt)), k -> new Sums());
+        sums.count++;
+        sums.totalMinor += amountMinor;
+    }
+
+    private void write(Map<HourKey, Sums> byHour) {
+        for (Map.Entry<HourKey, Sums> e : byHour.entrySet()) {
+            HourKey k = e.getKey();
+            rollups.add(k.userId(), k.currency(), k.epochHour(), e.getValue().count, e.getValue().totalMinor);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Transfer id typeahead (GET /api/transfers/search) served from memory.
+ *
+ * - one TransferPrefixIndex per user: loaded from transfer_views on the user's first search,
+ *   then kept current by record() after each commit, so keystrokes don't reach SQLite
+ * - memory budget: transfer.search.index.max-entries transfers across all users; past it, the
+ *   least recently searched users are dropped and simply reloaded on their next search
+ * - a user with more transfers than the whole budget is not indexed; their searches use the
+ *   LIKE 'prefix%' query on transfer_views as before
+ */
+
+package com.minibank.core.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.minibank.core.domain.Money;
+import com.minibank.core.repo.TransferViewRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Service
+public class TransferSearchIndex {
+
+    public static final int MAX_RESULTS = 10;
+    private static final int MAX_OVERSIZED_USERS = 1000;
+
+    public record Match(String transferId, String status, BigDecimal amount, String currency, Instant createdAt) {
+    }
+
+    private static final class TooLarge extends RuntimeException {
+        TooLarge() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final TransferViewRepository views;
+    private final long maxEntries;
+
+    // guarded by indexes: access order = LRU, and the entry total across them
+    private final Map<String, TransferPrefixIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Boolean> oversized;
+    private long totalEntries;
+
+    private final Counter hits;
+    private final Counter loads;
+    private final Counter fallbacks;
+
+    public TransferSearchIndex(
+            TransferViewRepository views,
+            @Value("${transfer.search.index.max-entries:500000}") long maxEntries,
+            MeterRegistry meterRegistry) {
+        this.views = views;
+        this.maxEntries = maxEntries;
+        this.oversized = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_OVERSIZED_USERS;
+            }
+        };
+        this.hits = counter(meterRegistry, "hit");
+        this.loads = counter(meterRegistry, "load");
+        this.fallbacks = counter(meterRegistry, "fallback");
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("transfer.search.index.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** The user's newest transfers (at most MAX_RESULTS) whose id starts with prefix, newest first. */
+    public List<Match> search(String userId, String prefix) {
+        TransferPrefixIndex index;
+        synchronized (indexes) {
+            index = oversized.containsKey(userId) ? null : indexes.computeIfAbsent(userId, k -> new TransferPrefixIndex());
+        }
+        if (index == null) {
+            return fallback(userId, prefix);
+        }
+
+        int loaded;
+        try {
+            loaded = index.ensureLoaded(() -> load(userId));
+        } catch (TooLarge e) {
+            synchronized (indexes) {
+                indexes.remove(userId, index);
+                oversized.put(userId, Boolean.TRUE);
+            }
+            return fallback(userId, prefix);
+        }
+
+        if (loaded > 0) {
+            loads.increment();
+            synchronized (indexes) {
+                // skip the accounting if it was evicted while loading; it is garbage now
+                if (indexes.get(userId) == index) {
+                    totalEntries += loaded;
+                    evictOverBudget();
+                }
+            }
+        } else {
+            hits.increment();
+        }
+
+        return index.search(prefix, MAX_RESULTS).stream()
+                .map(e -> new Match(e.transferId(), e.status(), Money.toBigDecimal(e.amountMinor()), e.currency(), e.createdAt()))
+                .toList();
+    }
+
+    /**
+     * Adds a committed transfer to the user's index if it is in memory.
+     * Must be called after commit (a rolled back transfer must not be found).
+     */
+    public void record(String transferId, String userId, String currency, Instant createdAt, long amountMinor, String status) {
+        TransferPrefixIndex.Entry entry = new TransferPrefixIndex.Entry(transferId, createdAt, amountMinor, currency, status);
+        synchronized (indexes) {
+            // not in memory: nothing to do, the next search loads it from the DB
+            TransferPrefixIndex index = indexes.get(userId);
+            if (index != null && index.record(entry)) {
+                totalEntries++;
+                evictOverBudget();
+            }
+        }
+    }
+
+    long totalEntries() {
+        synchronized (indexes) {
+            return totalEntries;
+        }
+    }
+
+    // caller holds the indexes lock; the most recently used user is never dropped
+    private void evictOverBudget() {
+        Iterator<TransferPrefixIndex> lru = indexes.values().iterator();
+        while (totalEntries > maxEntries && indexes.size() > 1) {
+            totalEntries -= lru.next().size();
+            lru.remove();
+        }
+    }
+
+    private List<TransferPrefixIndex.Entry> load(String userId) {
+        List<TransferViewRepository.SearchRow> rows = views.searchRows(userId, Limit.of((int) Math.min(maxEntries + 1, Integer.MAX_VALUE)));
+        if (rows.size() > maxEntries) {
+            throw new TooLarge();
+        }
+        return rows.stream()
+                .map(r -> new TransferPrefixIndex.Entry(
+                        r.getId(), r.getCreatedAt(), Money.toMinorRounded(r.getAmount()), r.getCurrency(), r.getStatus()))
+                .toList();
+    }
+
+    private List<Match> fallback(String userId, String prefix) {
+        fallbacks.increment();
+        return views.findTop10ByUserIdAndIdStartingWithOrderByCreatedAtDesc(userId, prefix).stream()
+                .map(v -> new Match(v.getId(), v.getStatus(), v.getAmount(), v.getCurrency(), v.getCreatedAt()))
+                .toList();
+    }
+}
@@ -1,69 +1,108 @@
 /**
  * Orchestrates the transfer flow:
- * 1) validate request (accounts exist, currency matches, amount > 0, sufficient funds)
- * 2) persist Transfer + ledger entries (source debit, destination credit)
- * 3) compute stats (24h transfer count/total) and request risk score from risk-service
- * 4) persist RiskAssessment linked to the Transfer
+ * 1) validate request (accounts exist, currency matches, amount > 0, sufficient funds);
+ *    owner/currency come from AccountDirectory, so only the balance check needs the account rows
+ * 2) persist Transfer + its TransferView read-model row + ledger entries (source debit, destination credit),
+ *    and add it to its hourly rollup (transfer_rollups_hourly)
+ * 3) compute stats (24h transfer count/total) and enqueue a risk_outbox row (same transaction)
+ * 4) after commit, hand the outbox row to RiskOutboxDispatcher, which scores + persists the RiskAssessment
  *
  * Important invariants:
  * - ledger stays balanced (debit/credit pair)
- * - DB writes are transactional; risk call may be best-effort (decide fail-open vs fail-closed)
+ * - DB writes are transactional; the risk call happens outside the transaction (fail-open after retries)
+ * - both accounts are locked (AccountLockManager) from before the balance read until after commit
+ * - a transaction that hits SQLITE_BUSY is re-run as a whole (SqliteBusyRetry), still under the locks
+ *
+ * With ledger.engine.enabled=true, transfers are handed to LedgerEngine instead (in-memory balances,
+ * journal + write-behind); the validation messages are the same.
  */
 
 package com.minibank.core.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.minibank.core.db.SqliteBusyRetry;
+import com.minibank.core.domain.AccountEntity;
 import com.minibank.core.domain.LedgerEntryEntity;
-import com.minibank.core.domain.RiskAssessmentEntity;
+import com.minibank.core.domain.Money;
+import com.minibank.core.domain.RiskOutboxEntity;
 import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.domain.TransferViewEntity;
+import com.minibank.core.engine.LedgerEngine;
 import com.minibank.core.repo.AccountRepository;
 import com.minibank.core.repo.LedgerEntryRepository;
-import com.minibank.core.repo.RiskAssessmentRepository;
+import com.minibank.core.repo.RiskOutboxRepository;
 import com.minibank.core.repo.TransferRepository;
-
-import jakarta.transaction.Transactional;
-
-import com.minibank.core.client.RiskClient;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.ObjectMapper;
+import com.minibank.core.repo.TransferViewRepository;
 
 @Service
 public class TransferService {
+    /** Longest memo and Idempotency-Key accepted; the API declares the same limits with @Size. */
+    public static final int MAX_MEMO_LENGTH = 500;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final AccountRepository accounts;
+    private final AccountDirectory directory;
     private final TransferRepository transfers;
+    private final TransferViewRepository views;
+    private final TransferRollups rollups;
     private final LedgerEntryRepository ledger;
-    private final RiskAssessmentRepository riskRepo;
-    private final RiskClient riskClient;
+    private final RiskOutboxRepository riskOutbox;
+    private final RiskOutboxDispatcher riskDispatcher;
     private final StatsService statsService;
-    private final ObjectMapper objectMapper;
-    private static final Logger log = LoggerFactory.getLogger(TransferService.class);
+    private final TransferSearchIndex searchIndex;
+    private final ChangeVersions versions;
+    private final AccountLockManager lockManager;
+    private final TransactionTemplate txTemplate;
+    private final SqliteBusyRetry busyRetry;
+    private final LedgerEngine engine; // null unless ledger.engine.enabled=true
 
     public TransferService(
             AccountRepository accounts,
+            AccountDirectory directory,
             TransferRepository transfers,
+            TransferViewRepository views,
+            TransferRollups rollups,
             LedgerEntryRepository ledger,
-            RiskAssessmentRepository riskRepo,
-            RiskClient riskClient,
+            RiskOutboxRepository riskOutbox,
+            RiskOutboxDispatcher riskDispatcher,
             StatsService statsService,
-            ObjectMapper objectMapper) {
+            TransferSearchIndex searchIndex,
+            ChangeVersions versions,
+            AccountLockManager lockManager,
+            PlatformTransactionManager txManager,
+            SqliteBusyRetry busyRetry,
+            ObjectProvider<LedgerEngine> engine) {
         this.accounts = accounts;
+        this.directory = directory;
         this.transfers = transfers;
+        this.views = views;
+        this.rollups = rollups;
         this.ledger = ledger;
-        this.riskRepo = riskRepo;
-        this.riskClient = riskClient;
+        this.riskOutbox = riskOutbox;
+        this.riskDispatcher = riskDispatcher;
         this.statsService = statsService;
-        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.versions = versions;
+        this.lockManager = lockManager;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.busyRetry = busyRetry;
+        this.engine = engine.getIfAvailable();
     }
 
-    @Transactional
     public TransferEntity createTransfer(
             String userId,
             String fromAccountId,
@@ -73,33 +112,387 @@ public class TransferService {
             String memo,
             String idempotencyKey) {
 
+        if (fromAccountId == null || toAccountId == null) {
+            throw new IllegalArgumentException("Source and destination accounts are required");
+        }
+
+        if (engine != null) {
+            return engine.submit(userId, fromAccountId, toAccountId, amount, currency, memo, idempotencyKey);
+        }
+
+        // Lock outside the transaction so the locks are only released once the commit is done;
+        // releasing inside would let the next transfer read the pre-commit balance.
+        Created created;
+        try (var held = lockManager.lockPair(fromAccountId, toAccountId)) {
+            created = busyRetry.execute(() -> txTemplate.execute(status -> createTransferLocked(
+                    userId, fromAccountId, toAccountId, amount, currency, memo, idempotencyKey)));
+        }
+
+        // committed: count it in the 24h window, make it searchable, bump the ETag versions
+        // and score it in the background (null for an idempotent replay)
+        if (created.riskWork() != null) {
+            recordCommitted(created.transfer());
+            riskDispatcher.submit(created.riskWork());
+        }
+        return created.transfer();
+    }
+
+    private record Created(TransferEntity transfer, RiskOutboxEntity riskWork) {
+    }
+
+    public record BatchItem(
+            String idempotencyKey,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount,
+            String currency,
+            String memo) {
+    }
+
+    public enum BatchOutcome {
+        CREATED, REPLAYED, REJECTED
+    }
+
+    public record BatchItemResult(
+            String idempotencyKey,
+            BatchOutcome outcome,
+            TransferEntity transfer,
+            String error) {
+    }
+
+    /**
+     * Applies many transfers in one transaction (payroll / bill runs).
+     * Each item is validated on its own and gets its own result; a rejected item doesn't roll back the others.
+     *
+     * Round trips per batch, not per item:
+     * - one IN query for already-used idempotency keys, one findAllById for the accounts
+     * - one 24h stats query per currency, then counted forward in memory
+     * - inserts/updates are only flushed at commit, where Hibernate JDBC batching groups them
+     *   (ids are assigned in-app in @PrePersist, so nothing forces an early insert)
+     * - one rollup upsert per (currency, hour) touched, issued last: being native SQL it flushes the
+     *   session, and that single flush is still batched
+     */
+    public List<BatchItemResult> createTransfers(String userId, List<BatchItem> items) {
+        if (engine != null) {
+            return createTransfersViaEngine(userId, items);
+        }
+
+        Set<String> accountIds = new HashSet<>();
+        for (BatchItem item : items) {
+            if (item.fromAccountId() != null) accountIds.add(item.fromAccountId());
+            if (item.toAccountId() != null) accountIds.add(item.toAccountId());
+        }
+
+        List<BatchItemResult> results;
+        List<RiskOutboxEntity> riskWork = new ArrayList<>();
+        try (var held = lockManager.lockAll(accountIds)) {
+            results = busyRetry.execute(() -> txTemplate.execute(status -> {
+                riskWork.clear(); // a retried attempt starts over
+                return createTransfersLocked(userId, items, accountIds, riskWork);
+            }));
+        }
+
+        for (BatchItemResult r : results) {
+            if (r.outcome() == BatchOutcome.CREATED) recordCommitted(r.transfer());
+        }
+        for (RiskOutboxEntity work : riskWork) {
+            riskDispatcher.submit(work);
+        }
+        return results;
+    }
+
+    private void recordCommitted(TransferEntity t) {
+        long amountMinor = Money.toMinorRounded(t.getAmount());
+        statsService.record(t.getId(), t.getUserId(), t.getCurrency(), t.getCreatedAt(), amountMinor);
+        searchIndex.record(t.getId(), t.getUserId(), t.getCurrency(), t.getCreatedAt(), amountMinor, t.getStatus());
+        versions.transferCommitted(t.getUserId(), t.getFromAccountId(), t.getToAccountId());
+    }
+
+    // Engine mode: every item is its own journaled transfer; shards already group-commit them.
+    private List<BatchItemResult> createTransfersViaEngine(String userId, List<BatchItem> items) {
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        Map<String, BatchItemResult> seenInBatch = new HashMap<>();
+
+        for (BatchItem item : items) {
+            String key = item.idempotencyKey();
+            if (key == null || key.isBlank()) {
+                results.add(new BatchItemResult(key, BatchOutcome.REJECTED, null, "Missing idempotency key"));
+                continue;
+            }
+            String tooLong = tooLong(item);
+            if (tooLong != null) {
+                results.add(new BatchItemResult(key, BatchOutcome.REJECTED, null, tooLong));
+                continue;
+            }
+
+            BatchItemResult earlier = seenInBatch.get(key);
+            if (earlier != null) {
+                BatchOutcome outcome = (earlier.outcome() == BatchOutcome.REJECTED) ? BatchOutcome.REJECTED : BatchOutcome.REPLAYED;
+                results.add(new BatchItemResult(key, outcome, earlier.transfer(), earlier.error()));
+                continue;
+            }
+
+            BatchItemResult result;
+            var existing = transfers.findByUserIdAndIdempotencyKey(userId, key);
+            if (existing.isPresent()) {
+                result = new BatchItemResult(key, BatchOutcome.REPLAYED, existing.get(), null);
+            } else if (item.fromAccountId() == null || item.toAccountId() == null) {
+                result = new BatchItemResult(key, BatchOutcome.REJECTED, null, "Source and destination accounts are required");
+            } else if (item.currency() == null || item.currency().isBlank()) {
+                result = new BatchItemResult(key, BatchOutcome.REJECTED, null, "Currency is required");
+            } else {
+                try {
+                    TransferEntity t = engine.submit(userId, item.fromAccountId(), item.toAccountId(),
+                            item.amount(), item.currency(), item.memo(), key);
+                    result = new BatchItemResult(key, BatchOutcome.CREATED, t, null);
+                } catch (IllegalArgumentException | NoSuchElementException e) {
+                    String error = (e instanceof IllegalArgumentException) ? e.getMessage() : "Account not found";
+                    result = new BatchItemResult(key, BatchOutcome.REJECTED, null, error);
+                }
+            }
+            seenInBatch.put(key, result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private List<BatchItemResult> createTransfersLocked(
+            String userId,
+            List<BatchItem> items,
+            Set<String> accountIds,
+            List<RiskOutboxEntity> riskWork) {
+
+        // All reads happen up front, before anything is persisted, so no query triggers an auto-flush.
+        Set<String> keys = new LinkedHashSet<>();
+        for (BatchItem item : items) {
+            if (item.idempotencyKey() != null) keys.add(item.idempotencyKey());
+        }
+        Map<String, TransferEntity> existingByKey = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (TransferEntity t : transfers.findByUserIdAndIdempotencyKeyIn(userId, keys)) {
+                existingByKey.put(t.getIdempotencyKey(), t);
+            }
+        }
+
+        Map<String, AccountEntity> accountsById = new HashMap<>();
+        for (AccountEntity a : accounts.findAllById(accountIds)) {
+            accountsById.put(a.getId(), a);
+        }
+
+        Map<String, WindowCounter> windows = new HashMap<>();
+        for (BatchItem item : items) {
+            if (item.currency() != null && !windows.containsKey(item.currency())) {
+                StatsService.WindowTotals last24h = statsService.last24hTotals(userId, item.currency());
+                windows.put(item.currency(), new WindowCounter(last24h.count(), last24h.sum()));
+            }
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        Map<String, BatchItemResult> seenInBatch = new HashMap<>();
+        List<LedgerEntryEntity> entries = new ArrayList<>();
+        List<TransferEntity> inserted = new ArrayList<>();
+
+        for (BatchItem item : items) {
+            String key = item.idempotencyKey();
+            if (key == null || key.isBlank()) {
+                results.add(new BatchItemResult(key, BatchOutcome.REJECTED, null, "Missing idempotency key"));
+                continue;
+            }
+            String tooLong = tooLong(item);
+            if (tooLong != null) {
+                results.add(new BatchItemResult(key, BatchOutcome.REJECTED, null, tooLong));
+                continue;
+            }
+
+            // same key twice in one batch: the repeat gets the first item's result
+            BatchItemResult earlier = seenInBatch.get(key);
+            if (earlier != null) {
+                BatchOutcome outcome = (earlier.outcome() == BatchOutcome.REJECTED) ? BatchOutcome.REJECTED : BatchOutcome.REPLAYED;
+                results.add(new BatchItemResult(key, outcome, earlier.transfer(), earlier.error()));
+                continue;
+            }
+
+            TransferEntity existing = existingByKey.get(key);
+            if (existing != null) {
+                BatchItemResult replay = new BatchItemResult(key, BatchOutcome.REPLAYED, existing, null);
+                seenInBatch.put(key, replay);
+                results.add(replay);
+                continue;
+            }
+
+            AccountEntity from = (item.fromAccountId() == null) ? null : accountsById.get(item.fromAccountId());
+            AccountEntity to = (item.toAccountId() == null) ? null : accountsById.get(item.toAccountId());
+            String error = rejectReason(userId, item, from, to);
+            if (error != null) {
+                BatchItemResult rejected = new BatchItemResult(key, BatchOutcome.REJECTED, null, error);
+                seenInBatch.put(key, rejected);
+                results.add(rejected);
+                continue;
+            }
+
+            BigDecimal amount = item.amount();
+            Money money = Money.of(amount, item.currency());
+
+            TransferEntity t = new TransferEntity();
+            t.setUserId(userId);
+            t.setFromAccountId(from.getId());
+            t.setToAccountId(to.getId());
+            t.setAmount(amount);
+            t.setCurrency(item.currency());
+            t.setMemo(item.memo());
+            t.setStatus("APPROVED");
+            t.setIdempotencyKey(key);
+            t = transfers.save(t); // persist only; the insert is flushed with the batch
+            views.save(TransferViewEntity.of(t));
+            inserted.add(t);
+
+            // managed entities: the balance updates are flushed (and batched) at commit
+            from.setBalanceMoney(from.getBalanceMoney().minus(money));
+            to.setBalanceMoney(to.getBalanceMoney().plus(money));
+
+            LedgerEntryEntity debit = new LedgerEntryEntity();
+            debit.setAccountId(from.getId());
+            debit.setTransferId(t.getId());
+            debit.setType("DEBIT");
+            debit.setAmountMinor(money.minor());
+            debit.setBalanceMinor(from.getBalanceMinor());
+
+            LedgerEntryEntity credit = new LedgerEntryEntity();
+            credit.setAccountId(to.getId());
+            credit.setTransferId(t.getId());
+            credit.setType("CREDIT");
+            credit.setAmountMinor(money.minor());
+            credit.setBalanceMinor(to.getBalanceMinor());
+
+            entries.add(debit);
+            entries.add(credit);
+
+            // same semantics as the single path: the window includes this transfer
+            WindowCounter window = windows.get(item.currency());
+            window.count++;
+            window.total = window.total.plus(money);
+
+            RiskOutboxEntity work = new RiskOutboxEntity();
+            work.setTransferId(t.getId());
+            work.setUserId(userId);
+            work.setFromAccountId(from.getId());
+            work.setToAccountId(to.getId());
+            work.setAmount(amount);
+            work.setCurrency(item.currency());
+            work.setLast24hCount(window.count);
+            work.setLast24hTotal(window.total.toBigDecimal());
+            riskWork.add(work);
+
+            BatchItemResult created = new BatchItemResult(key, BatchOutcome.CREATED, t, null);
+            seenInBatch.put(key, created);
+            results.add(created);
+        }
+
+        ledger.saveAll(entries);
+        riskOutbox.saveAll(riskWork);
+        rollups.addAll(inserted);
+
+        return results;
+    }
+
+    private static String tooLong(BatchItem item) {
+        if (item.idempotencyKey().length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return "Idempotency key is too long (max " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters)";
+        }
+        if (item.memo() != null && item.memo().length() > MAX_MEMO_LENGTH) {
+            return "Memo is too long (max " + MAX_MEMO_LENGTH + " characters)";
+        }
+        return null;
+    }
+
+    private String rejectReason(String userId, BatchItem item, AccountEntity from, AccountEntity to) {
+        BigDecimal amount = item.amount();
+        if (amount == null || amount.signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (amount.stripTrailingZeros().scale() > Money.SCALE) {
+            return "Amount must have at most " + Money.SCALE + " decimal places";
+        }
+        if (item.currency() == null || item.currency().isBlank()) {
+            return "Currency is required";
+        }
+        if (item.fromAccountId() == null || item.toAccountId() == null) {
+            return "Source and destination accounts are required";
+        }
+        if (item.fromAccountId().equals(item.toAccountId())) {
+            return "Source and destination accounts must be different";
+        }
+        if (from == null || to == null) {
+            return "Account not found";
+        }
+        if (!from.getUserId().equals(userId) || !to.getUserId().equals(userId)) {
+            return "Accounts must belong to the user";
+        }
+        if (!from.getCurrency().equals(item.currency()) || !to.getCurrency().equals(item.currency())) {
+            return "Currency Mismatch";
+        }
+        if (from.getBalanceMoney().isLessThan(Money.of(amount, item.currency()))) {
+            return "Insufficient funds";
+        }
+        return null;
+    }
+
+    private static final class WindowCounter {
+        int count;
+        Money total;
+
+        WindowCounter(int count, Money total) {
+            this.count = count;
+            this.total = total;
+        }
+    }
+
+    private Created createTransferLocked(
+            String userId,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount,
+            String currency,
+            String memo,
+            String idempotencyKey) {
+
         var existing = transfers.findByUserIdAndIdempotencyKey(
                 userId,
                 idempotencyKey);
         if (existing.isPresent()) {
-            return existing.get();
+            return new Created(existing.get(), null);
         }
 
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount == null || amount.signum() <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
+        Money money = Money.of(amount, currency);
         if (fromAccountId.equals(toAccountId)) {
             throw new IllegalArgumentException("Source and destination accounts must be different");
         }
 
-        var from = accounts.findById(fromAccountId).orElseThrow();
-        var to = accounts.findById(toAccountId).orElseThrow();
-
-        if (!from.getUserId().equals(userId) || !to.getUserId().equals(userId)) {
-            throw new IllegalArgumentException("Accounts must belong to the user");
+        // ownership/currency from cached metadata; the rows themselves are only loaded for the balances
+        directory.requireTransferable(userId, fromAccountId, toAccountId, currency);
+        AccountEntity from = null;
+        AccountEntity to = null;
+        for (AccountEntity a : accounts.findAllById(List.of(fromAccountId, toAccountId))) {
+            if (a.getId().equals(fromAccountId)) from = a;
+            else to = a;
         }
-
-        if (!from.getCurrency().equals(currency) || !to.getCurrency().equals(currency)) {
-            throw new IllegalArgumentException("Currency Mismatch");
+        if (from == null || to == null) {
+            throw new NoSuchElementException("Account not found");
         }
-        if (from.getBalance().compareTo(amount) < 0) {
+        // currency-checked against the rows too, not just the cached metadata
+        if (from.getBalanceMoney().isLessThan(money)) {
             throw new IllegalArgumentException("Insufficient funds");
         }
+        money.requireSameCurrency(to.getBalanceMoney());
+
+        // Read before persisting: a cold window load must not see this (uncommitted) transfer,
+        // it is recorded after commit. The risk inputs include it, as before.
+        StatsService.WindowTotals last24h = statsService.last24hTotals(userId, currency);
+        int last24hCount = last24h.count() + 1;
+        Money last24hTotal = last24h.sum().plus(money);
 
         TransferEntity t = new TransferEntity();
         t.setUserId(userId);
@@ -111,76 +504,43 @@ public class TransferService {
         t.setStatus("APPROVED");
         t.setIdempotencyKey(idempotencyKey);
         t = transfers.save(t);
+        views.save(TransferViewEntity.of(t));
 
-        from.setBalance(from.getBalance().subtract(amount));
-        to.setBalance(to.getBalance().add(amount));
+        from.setBalanceMoney(from.getBalanceMoney().minus(money));
+        to.setBalanceMoney(to.getBalanceMoney().plus(money));
         accounts.saveAll(List.of(from, to));
 
         LedgerEntryEntity debit = new LedgerEntryEntity();
         debit.setAccountId(fromAccountId);
         debit.setTransferId(t.getId());
         debit.setType("DEBIT");
-        debit.setAmount(amount);
-        debit.setBalance(from.getBalance());
+        debit.setAmountMinor(money.minor());
+        debit.setBalanceMinor(from.getBalanceMinor());
 
         LedgerEntryEntity credit = new LedgerEntryEntity();
         credit.setAccountId(toAccountId);
         credit.setTransferId(t.getId());
         credit.setType("CREDIT");
-        credit.setAmount(amount);
-        credit.setBalance(to.getBalance());
+        credit.setAmountMinor(money.minor());
+        credit.setBalanceMinor(to.getBalanceMinor());
 
         ledger.saveAll(List.of(debit, credit));
 
-        // Computes the transfer count/total in the last 24h
-        StatsService.TransferWindowStatsDto last24h = statsService.last24h(userId, currency);
-        int last24hCount = last24h.count();
-        BigDecimal last24hTotal = last24h.sum();
-
-        RiskClient.ScoreResponse riskResp;
-        try {
-            riskResp = riskClient.scoreTransfer(
-                    userId,
-                    fromAccountId,
-                    toAccountId,
-                    amount,
-                    currency,
-                    last24hCount,
-                    last24hTotal);
-        } catch (Exception e) {
-            log.warn("Risk service call failed; defaulting riskScore=0. error={}", e.toString());
-            // Prevents the whole transfer from failing if risk service is temporarily down
-            riskResp = new RiskClient.ScoreResponse(0, List.of());
-        }
-
-        int score = riskResp.riskScore();
-        String level = (score >= 70) ? "HIGH" : (score >= 40) ? "MEDIUM" : "LOW";
-
-        String reasonsJson;
-        try {
-            reasonsJson = toJsonArray(riskResp.reasons());
-        } catch (Exception e) {
-            reasonsJson = "[]";
-        }
-
-        RiskAssessmentEntity ra = new RiskAssessmentEntity();
-        ra.setTransferId(t.getId());
-        ra.setRiskScore(score);
-        ra.setLevel(level);
-        ra.setReasonsJson(reasonsJson);
-        riskRepo.save(ra);
-
-        return t;
+        RiskOutboxEntity work = new RiskOutboxEntity();
+        work.setTransferId(t.getId());
+        work.setUserId(userId);
+        work.setFromAccountId(fromAccountId);
+        work.setToAccountId(toAccountId);
+        work.setAmount(amount);
+        work.setCurrency(currency);
+        work.setLast24hCount(last24hCount);
+        work.setLast24hTotal(last24hTotal.toBigDecimal());
+        work = riskOutbox.save(work);
 
-    }
+        rollups.addAll(List.of(t));
+
+        return new Created(t, work);
 
-    private String toJsonArray(List<String> reasons) {
-        try {
-            return objectMapper.writeValueAsString(reasons == null ? List.of() : reasons);
-        } catch (JacksonException e) {
-            // fail-soft: keep the service running even if serialization somehow fails
-            return "[]";
-        }
     }
 
 }
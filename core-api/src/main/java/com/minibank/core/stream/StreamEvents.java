@@ -0,0 +1,96 @@
+/**
+ * Turns committed entity changes into StreamHub events (Hibernate post-commit listeners):
+ * - transfer: a TransferEntity was inserted (TransferService, batch, or the ledger engine's write-behind)
+ * - balance:  an AccountEntity was updated; coalesced per account, so only the latest balance is pending
+ * - risk:     a transfer's read model row got its risk result (written with the RiskAssessmentEntity)
+ *
+ * Post-commit, so a rolled back change is never pushed. Runs on the committing thread; StreamHub.publish
+ * only enqueues.
+ */
+
+package com.minibank.core.stream;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.minibank.core.domain.AccountEntity;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.domain.TransferViewEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Component
+public class StreamEvents implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    public record TransferEvent(
+            String transferId,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount,
+            String currency,
+            String status,
+            Instant createdAt) {
+    }
+
+    public record BalanceEvent(String accountId, BigDecimal balance, String currency) {
+    }
+
+    public record RiskEvent(String transferId, Integer riskScore, String riskLevel, List<String> riskReasons) {
+    }
+
+    private final StreamHub hub;
+
+    public StreamEvents(StreamHub hub, EntityManagerFactory emf) {
+        this.hub = hub;
+
+        EventListenerRegistry events = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        events.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        events.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof TransferEntity t) {
+            hub.publish(t.getUserId(), "transfer", null, new TransferEvent(
+                    t.getId(), t.getFromAccountId(), t.getToAccountId(), t.getAmount(),
+                    t.getCurrency(), t.getStatus(), t.getCreatedAt()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof AccountEntity a) {
+            hub.publish(a.getUserId(), "balance", a.getId(), new BalanceEvent(a.getId(), a.getBalance(), a.getCurrency()));
+        } else if (event.getEntity() instanceof TransferViewEntity v && v.getRiskScore() != null) {
+            hub.publish(v.getUserId(), "risk", v.getId(), new RiskEvent(
+                    v.getId(), v.getRiskScore(), v.getRiskLevel(), v.getRiskReasons()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == TransferEntity.class || type == AccountEntity.class || type == TransferViewEntity.class;
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * In-process fan-out behind GET /api/stream (Server-Sent Events).
+ *
+ * - publish() is called once per change (see StreamEvents) and appends to each of the user's subscribers' buffers;
+ *   it never writes to a socket, so a committing request thread only pays for the enqueue
+ * - each buffer is bounded (stream.buffer-size); a subscriber that falls that far behind is disconnected and
+ *   the browser's EventSource reconnects and refetches, instead of the hub holding unbounded backlog
+ * - events with a coalesce key (balances, per account) replace their pending predecessor, so a slow client
+ *   gets the latest balance rather than every intermediate one
+ * - writes happen on a virtual thread per busy subscriber, started only while it has something pending;
+ *   idle connections are parked in the servlet container (async request), not on a thread
+ * - one scheduler thread queues a heartbeat comment to every subscriber every stream.heartbeat-ms, which
+ *   keeps proxies from closing idle connections and detects dead ones
+ *
+ * Events carry an increasing id, but there is no replay: a reconnecting client reloads the snapshot endpoints.
+ */
+
+package com.minibank.core.stream;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class StreamHub {
+    private static final Logger log = LoggerFactory.getLogger(StreamHub.class);
+
+    private static final String HEARTBEAT_KEY = "heartbeat";
+
+    // name == null: an SSE comment (heartbeat), data is its text
+    private record Pending(long id, String name, Object data) {
+    }
+
+    private final class Subscriber {
+        final String userId;
+        final SseEmitter emitter;
+        // insertion order = delivery order; coalesced entries are removed and re-added at the end
+        final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>(); // guarded by this
+        boolean draining;                                                    // guarded by this
+        boolean closed;                                                      // guarded by this
+
+        Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    private final Map<String, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stream-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Counter published;
+    private final Counter overflows;
+
+    public StreamHub(
+            @Value("${stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${stream.buffer-size:256}") int bufferSize,
+            @Value("${stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${stream.heartbeat-ms:15000}") long heartbeatMs,
+            MeterRegistry meterRegistry) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+
+        Gauge.builder("stream.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+        this.published = Counter.builder("stream.events.published").register(meterRegistry);
+        this.overflows = Counter.builder("stream.subscribers.overflowed").register(meterRegistry);
+
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens a stream for the user, or returns null if the hub is at stream.max-subscribers. */
+    public SseEmitter subscribe(String userId) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMs);
+        Subscriber s = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onTimeout(() -> close(s));
+        emitter.onError(e -> remove(s));
+
+        // add/remove run inside compute, so a set is never dropped from the map while a subscriber joins it
+        byUser.compute(userId, (k, subs) -> {
+            if (subs == null) subs = ConcurrentHashMap.newKeySet();
+            subs.add(s);
+            return subs;
+        });
+        // first write commits the response headers, so the client sees the stream open right away
+        offer(s, HEARTBEAT_KEY, new Pending(0, null, "connected"));
+        return emitter;
+    }
+
+    /**
+     * Queues an event for every open stream of the user.
+     * coalesceKey: a pending event with the same key is superseded (null = always delivered).
+     */
+    public void publish(String userId, String name, String coalesceKey, Object data) {
+        Set<Subscriber> subs = byUser.get(userId);
+        if (subs == null || subs.isEmpty()) return;
+
+        Pending event = new Pending(sequence.incrementAndGet(), name, data);
+        String key = (coalesceKey != null) ? name + ":" + coalesceKey : "#" + event.id();
+        for (Subscriber s : subs) {
+            offer(s, key, event);
+        }
+        published.increment();
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    // tests override this to stand in for a client that reads slowly
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void offer(Subscriber s, String key, Pending event) {
+        boolean startWriter = false;
+        boolean overflow = false;
+        synchronized (s) {
+            if (s.closed) return;
+            s.pending.remove(key);
+            if (s.pending.size() >= bufferSize) {
+                s.closed = true;
+                s.pending.clear();
+                overflow = true;
+            } else {
+                s.pending.put(key, event);
+                if (!s.draining) {
+                    s.draining = true;
+                    startWriter = true;
+                }
+            }
+        }
+
+        if (overflow) {
+            overflows.increment();
+            log.debug("SSE subscriber fell {} events behind, disconnecting. userId={}", bufferSize, s.userId);
+            remove(s);
+            s.emitter.complete();
+        } else if (startWriter) {
+            writers.execute(() -> drain(s));
+        }
+    }
+
+    // one writer per subscriber at a time (draining flag); exits as soon as the buffer is empty
+    private void drain(Subscriber s) {
+        while (true) {
+            Pending next;
+            synchronized (s) {
+                Iterator<Pending> it = s.pending.values().iterator();
+                if (s.closed || !it.hasNext()) {
+                    s.draining = false;
+                    return;
+                }
+                next = it.next();
+                it.remove();
+            }
+
+            try {
+                s.emitter.send(next.name() == null
+                        ? SseEmitter.event().comment((String) next.data())
+                        : SseEmitter.event()
+                                .id(Long.toString(next.id()))
+                                .name(next.name())
+                                .data(next.data(), MediaType.APPLICATION_JSON));
+            } catch (IOException | RuntimeException e) {
+                // client went away; the container reports it through onError/onCompletion too
+                close(s);
+                return;
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Set<Subscriber> subs : byUser.values()) {
+            for (Subscriber s : subs) {
+                offer(s, HEARTBEAT_KEY, new Pending(0, null, "heartbeat"));
+            }
+        }
+    }
+
+    private void close(Subscriber s) {
+        synchronized (s) {
+            s.closed = true;
+            s.pending.clear();
+        }
+        remove(s);
+        s.emitter.complete();
+    }
+
+    private void remove(Subscriber s) {
+        boolean[] removed = new boolean[1];
+        byUser.computeIfPresent(s.userId, (k, subs) -> {
+            removed[0] = subs.remove(s);
+            return subs.isEmpty() ? null : subs;
+        });
+        if (removed[0]) subscribers.decrementAndGet();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        for (Set<Subscriber> subs : byUser.values()) {
+            for (Subscriber s : subs) {
+                s.emitter.complete();
+            }
+        }
+        writers.shutdownNow();
+    }
+}
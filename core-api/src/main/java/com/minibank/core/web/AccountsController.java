@@ -1,43 +1,294 @@
 package com.minibank.core.web;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.minibank.core.config.DemoAuthFilter;
 import com.minibank.core.domain.AccountEntity;
 import com.minibank.core.domain.LedgerEntryEntity;
+import com.minibank.core.domain.Money;
 import com.minibank.core.repo.AccountRepository;
 import com.minibank.core.repo.LedgerEntryRepository;
-import com.minibank.core.repo.UserRepository;
+import com.minibank.core.service.AccountStatements;
+import com.minibank.core.service.ChangeVersions;
+
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api")
 public class AccountsController {
-    
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    // browser keeps the copy but asks every time (If-None-Match); 304s are answered from ChangeVersions
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AccountRepository accounts;
     private final LedgerEntryRepository ledger;
-    private final UserRepository users;
+    private final ObjectMapper objectMapper;
+    private final ChangeVersions versions;
+    private final AccountStatements statements;
+    private final TransactionTemplate readOnlyTx;
 
-    public AccountsController(AccountRepository accounts, LedgerEntryRepository ledger, UserRepository users) {
+    public AccountsController(
+            AccountRepository accounts,
+            LedgerEntryRepository ledger,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager txManager,
+            ChangeVersions versions,
+            AccountStatements statements) {
         this.accounts = accounts;
         this.ledger = ledger;
-        this.users = users;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.versions = versions;
+        this.statements = statements;
     }
 
-    private String demoUserId() {
-    return users.findByEmail("demo@digitalbanking.dev").orElseThrow().getId();
-  }
-
+    /** Conditional GET: a matching If-None-Match gets 304 from the user's version, without a query. */
     @GetMapping("/accounts")
-    public List<AccountEntity> accounts() {
-        return accounts.findAllByUserId(demoUserId());
+    public ResponseEntity<List<AccountEntity>> accounts(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            WebRequest request) {
+        String etag = versions.userETag(userId);
+        if (request.checkNotModified(etag)) return null;
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(accounts.findAllByUserId(userId));
     }
 
+    /**
+     * One page of the account's ledger, newest first. The body stays a plain array;
+     * the cursor for the next page comes back in X-Next-Cursor (absent on the last page).
+     * Someone else's account reads as empty. Conditional GET on the account's version, like /accounts.
+     */
     @GetMapping("/accounts/{accountId}/ledger")
-    public List<LedgerEntryEntity> accountLedger(@PathVariable String accountId) {
-        return ledger.findAllByAccountIdOrderByCreatedAtDesc(accountId);
+    public ResponseEntity<List<LedgerEntryEntity>> accountLedger(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            WebRequest request) {
+        String etag = versions.accountETag(accountId);
+        if (request.checkNotModified(etag)) return null;
+
+        int safeSize = Math.min(Math.max(size, 1), 500);
+
+        // one extra row tells us whether there is a next page
+        Limit limit = Limit.of(safeSize + 1);
+        List<LedgerEntryEntity> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = ledger.findFirstPage(userId, accountId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = ledger.findPageAfter(userId, accountId, after.createdAt(), after.id(), limit);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag);
+        if (rows.size() > safeSize) {
+            rows = rows.subList(0, safeSize);
+            LedgerEntryEntity last = rows.get(safeSize - 1);
+            response.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return response.body(rows);
+    }
+
+    public record BalanceResponse(String accountId, String currency, Instant asOf, BigDecimal balance) {
+    }
+
+    public record StatementResponse(
+            String accountId,
+            String currency,
+            Instant from,
+            Instant to,
+            BigDecimal openingBalance,
+            BigDecimal closingBalance,
+            List<LedgerEntryEntity> entries) {
+    }
+
+    /**
+     * Balance at a point in time (ISO instant, or a date = its start in UTC; default now), i.e. after every
+     * entry strictly before it. One index seek, however old the account (see AccountStatements).
+     */
+    @GetMapping("/accounts/{accountId}/balance")
+    public BalanceResponse balanceAsOf(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @PathVariable String accountId,
+            @RequestParam(required = false) String asOf) {
+        Instant at = (asOf == null) ? Instant.now() : parseTime("asOf", asOf);
+        AccountStatements.Balance b;
+        try {
+            b = statements.balanceAt(userId, accountId, at);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+        }
+        return new BalanceResponse(accountId, b.account().currency(), at, Money.toBigDecimal(b.balanceMinor()));
+    }
+
+    /**
+     * Statement for [from, to): opening and closing balance plus the period's entries, oldest first.
+     * from/to are ISO instants or dates (start of day, UTC), so from=2026-01-01&to=2026-02-01 is January.
+     * At most `size` entries per page; the next page's cursor comes back in X-Next-Cursor, like /ledger.
+     */
+    @GetMapping("/accounts/{accountId}/statement")
+    public ResponseEntity<StatementResponse> statement(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @PathVariable String accountId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int size) {
+        int safeSize = Math.min(Math.max(size, 1), 1000);
+        KeysetCursor after = (cursor == null || cursor.isBlank()) ? null : KeysetCursor.decode(cursor);
+
+        AccountStatements.Statement st;
+        try {
+            st = statements.statement(userId, accountId, parseTime("from", from), parseTime("to", to),
+                    (after == null) ? null : after.createdAt(), (after == null) ? null : after.id(), safeSize);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+        }
+
+        List<LedgerEntryEntity> entries = st.entries();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (entries.size() > safeSize) {
+            entries = entries.subList(0, safeSize);
+            LedgerEntryEntity last = entries.get(safeSize - 1);
+            response.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return response.body(new StatementResponse(
+                accountId,
+                st.account().currency(),
+                st.from(),
+                st.to(),
+                Money.toBigDecimal(st.openingMinor()),
+                Money.toBigDecimal(st.closingMinor()),
+                entries));
+    }
+
+    private static Instant parseTime(String name, String value) {
+        try {
+            return (value.length() == 10)
+                    ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant()
+                    : Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 instant or date");
+        }
+    }
+
+    public record LedgerExportLine(
+            String id,
+            String transferId,
+            String type,
+            BigDecimal amount,
+            BigDecimal balance,
+            Instant createdAt) {
+    }
+
+    /**
+     * Whole ledger as NDJSON (default) or CSV, newest first. Rows are streamed from a cursor
+     * (fetch size 500) straight to the response, so heap use doesn't depend on the account's history.
+     */
+    @GetMapping("/accounts/{accountId}/ledger/export")
+    public ResponseEntity<StreamingResponseBody> exportLedger(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @PathVariable String accountId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new IllegalArgumentException("format must be ndjson or csv");
+        };
+
+        StreamingResponseBody body = out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) w.write("id,transferId,type,amount,balance,createdAt\n");
+
+            // runs on the MVC async thread: the stream needs its own (read-only) transaction
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<LedgerEntryRepository.ExportRow> rows = ledger.streamForExport(userId, accountId)) {
+                    rows.forEach(r -> writeLine(w, csv, toLine(r)));
+                }
+            });
+            w.flush();
+        };
+
+        String filename = "ledger-" + accountId + (csv ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private static LedgerExportLine toLine(LedgerEntryRepository.ExportRow r) {
+        return new LedgerExportLine(
+                r.getId(),
+                r.getTransferId(),
+                r.getType(),
+                Money.toBigDecimal(r.getAmount()),
+                Money.toBigDecimal(r.getBalance()),
+                r.getCreatedAt());
+    }
+
+    private void writeLine(Writer w, boolean csv, LedgerExportLine line) {
+        try {
+            if (csv) {
+                w.write(csvField(line.id()));
+                w.write(',');
+                w.write(csvField(line.transferId()));
+                w.write(',');
+                w.write(csvField(line.type()));
+                w.write(',');
+                w.write(line.amount().toPlainString());
+                w.write(',');
+                w.write(line.balance().toPlainString());
+                w.write(',');
+                w.write(line.createdAt().toString());
+            } else {
+                w.write(objectMapper.writeValueAsString(line));
+            }
+            w.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvField(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
     }
 }
@@ -0,0 +1,37 @@
+package com.minibank.core.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position for keyset (cursor) paging over (createdAt, id), newest first for most lists and oldest first
+ * for statements: the last row of the previous page.
+ * Encoded as base64url of "epochSecond.nano|id" so clients can't (and needn't) build one themselves;
+ * a malformed cursor is a 400.
+ */
+public record KeysetCursor(Instant createdAt, String id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + "|" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int bar = raw.indexOf('|');
+            int dot = raw.indexOf('.');
+            if (dot < 0 || bar < dot || bar == raw.length() - 1) throw new IllegalArgumentException();
+
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, bar));
+            return new KeysetCursor(Instant.ofEpochSecond(seconds, nanos), raw.substring(bar + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -1,7 +1,8 @@
 /**
  * Risk endpoints:
  * - scoring sandbox/echo endpoints are dev tools (not part of core transfer flow)
- * - risk flags query returns persisted RiskAssessments for UI display
+ * - risk flags query returns persisted RiskAssessments joined with their transfers for UI display,
+ *   one bounded page at a time
  */
 
 package com.minibank.core.web;
@@ -12,16 +13,16 @@ import com.minibank.dto.RiskScoreResponse;
 
 import jakarta.validation.Valid;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.util.*;
 
 import com.minibank.core.client.RiskScoringClient;
-import com.minibank.core.domain.RiskAssessmentEntity;
-import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.config.DemoAuthFilter;
 import com.minibank.core.repo.RiskAssessmentRepository;
-import com.minibank.core.repo.TransferRepository;
 
 @RestController
 @RequestMapping("/api/risk")
@@ -31,16 +32,13 @@ public class RiskController {
 
 
     private final RiskAssessmentRepository riskRepo;
-    private final TransferRepository transferRepo;
 
     public RiskController(
             RiskScoringClient riskScoringClient,
-            RiskAssessmentRepository riskRepo,
-            TransferRepository transferRepo
+            RiskAssessmentRepository riskRepo
     ) {
         this.riskScoringClient = riskScoringClient;
         this.riskRepo = riskRepo;
-        this.transferRepo = transferRepo;
     }
 
     @PostMapping("/score")
@@ -74,47 +72,52 @@ public class RiskController {
             Object createdAt
     ) {}
 
+    /**
+     * The caller's flagged transfers, highest score first, at most `limit` per call (default 50, max 200).
+     * The body stays a plain array; X-Next-Cursor carries the position of the next page (absent on the last one).
+     */
     @GetMapping("/flags")
-    public List<RiskFlagItem> flags(@RequestParam(defaultValue = "70") Integer minScore) {
-
-        List<RiskAssessmentEntity> ras = riskRepo.findByRiskScoreGreaterThanEqual(minScore);
-        if (ras.isEmpty()) return List.of();
-
-        // fetch transfers for these assessments
-        List<String> transferIds = ras.stream().map(RiskAssessmentEntity::getTransferId).toList();
-        Iterable<TransferEntity> transfersIt = transferRepo.findAllById(transferIds);
-
-        Map<String, TransferEntity> transfersById = new HashMap<>();
-        for (TransferEntity t : transfersIt) transfersById.put(t.getId(), t);
-
-        // sort by score desc (nice for dashboard)
-        ras.sort(Comparator.comparing(RiskAssessmentEntity::getRiskScore).reversed());
+    public ResponseEntity<List<RiskFlagItem>> flags(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestParam(defaultValue = "70") Integer minScore,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        int safeLimit = Math.min(Math.max(limit, 1), 200);
+
+        // one extra row tells us whether there is a next page
+        Limit rows = Limit.of(safeLimit + 1);
+        List<RiskAssessmentRepository.FlagRow> page;
+        if (cursor == null || cursor.isBlank()) {
+            page = riskRepo.findFlags(userId, minScore, rows);
+        } else {
+            RiskFlagCursor after = RiskFlagCursor.decode(cursor);
+            page = riskRepo.findFlagsAfter(
+                    userId, minScore, after.riskScore(), after.createdAt(), after.id(), rows);
+        }
 
-        List<RiskFlagItem> out = new ArrayList<>();
-        for (RiskAssessmentEntity ra : ras) {
-            TransferEntity t = transfersById.get(ra.getTransferId());
-            if (t == null) continue;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() > safeLimit) {
+            page = page.subList(0, safeLimit);
+            RiskAssessmentRepository.FlagRow last = page.get(safeLimit - 1);
+            response.header(AccountsController.NEXT_CURSOR_HEADER,
+                    new RiskFlagCursor(last.getRiskScore(), last.getAssessedAt(), last.getAssessmentId()).encode());
+        }
 
+        List<RiskFlagItem> out = new ArrayList<>(page.size());
+        for (RiskAssessmentRepository.FlagRow r : page) {
             out.add(new RiskFlagItem(
-                    t.getId(),
-                    ra.getRiskScore(),
-                    ra.getLevel(),
-                    ra.getReasonsJson(),
-                    t.getFromAccountId(),
-                    t.getToAccountId(),
-                    t.getAmount(),
-                    t.getCurrency(),
-                    t.getStatus(),
-                    t.getCreatedAt()
+                    r.getTransferId(),
+                    r.getRiskScore(),
+                    r.getLevel(),
+                    r.getReasonsJson(),
+                    r.getFromAccountId(),
+                    r.getToAccountId(),
+                    r.getAmount(),
+                    r.getCurrency(),
+                    r.getStatus(),
+                    r.getCreatedAt()
             ));
         }
-
-        return out;
+        return response.body(out);
     }
 }
-
-
-
-
-
-
@@ -0,0 +1,27 @@
+package com.minibank.core.web;
+
+import java.time.Instant;
+
+/**
+ * Cursor for GET /api/risk/flags, ordered by (riskScore, createdAt, id) desc: "<score>.<KeysetCursor>".
+ */
+public record RiskFlagCursor(int riskScore, Instant createdAt, String id) {
+
+    public String encode() {
+        return riskScore + "." + new KeysetCursor(createdAt, id).encode();
+    }
+
+    public static RiskFlagCursor decode(String cursor) {
+        int dot = cursor.indexOf('.');
+        if (dot <= 0) throw new IllegalArgumentException("Invalid cursor");
+
+        int score;
+        try {
+            score = Integer.parseInt(cursor.substring(0, dot));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor.substring(dot + 1));
+        return new RiskFlagCursor(score, position.createdAt(), position.id());
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Server-Sent Events push channel for the dashboard: transfer, balance and risk events for the caller
+ * (see StreamHub / StreamEvents). Snapshots still come from the regular GET endpoints; the stream says
+ * what changed after that, so open sessions don't have to poll.
+ *
+ * The demo token is required like everywhere else (Authorization header), so browsers read this with
+ * fetch() streaming rather than a bare EventSource.
+ */
+
+package com.minibank.core.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.minibank.core.config.DemoAuthFilter;
+import com.minibank.core.stream.StreamHub;
+
+@RestController
+@RequestMapping("/api")
+public class StreamController {
+
+    private final StreamHub hub;
+
+    public StreamController(StreamHub hub) {
+        this.hub = hub;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId) {
+        SseEmitter emitter = hub.subscribe(userId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        // no buffering in front of the stream (nginx), no caching of it
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
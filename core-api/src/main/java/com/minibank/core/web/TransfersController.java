@@ -8,40 +8,57 @@
 package com.minibank.core.web;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.minibank.core.domain.RiskAssessmentEntity;
+import com.minibank.core.config.DemoAuthFilter;
 import com.minibank.core.domain.TransferEntity;
-import com.minibank.core.repo.RiskAssessmentRepository;
+import com.minibank.core.domain.TransferViewEntity;
 import com.minibank.core.repo.TransferRepository;
-import com.minibank.core.repo.UserRepository;
+import com.minibank.core.repo.TransferViewRepository;
+import com.minibank.core.service.ChangeVersions;
+import com.minibank.core.service.IdempotencyCache;
+import com.minibank.core.service.RiskOutboxDispatcher;
 import com.minibank.core.service.StatsService;
+import com.minibank.core.service.StatsWindow;
+import com.minibank.core.service.TransferRollups;
+import com.minibank.core.service.TransferSearchIndex;
 import com.minibank.core.service.TransferService;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 @RestController
 @RequestMapping("/api")
@@ -49,27 +66,38 @@ public class TransfersController {
 
     private final TransferService transferService;
     private final TransferRepository transferRepo;
-    private final RiskAssessmentRepository riskRepo;
-    private final UserRepository users;
+    private final TransferViewRepository views;
     private final StatsService statsService;
-    private final ObjectMapper objectMapper;
+    private final ChangeVersions versions;
+    private final TransferSearchIndex searchIndex;
+    private final RiskOutboxDispatcher riskDispatcher;
+    private final long maxAwaitRiskMs;
+    private final int maxBatchItems;
+    private final IdempotencyCache<CreateTransferResponse> idempotency;
 
     public TransfersController(TransferService transferService,
             TransferRepository transferRepo,
-            RiskAssessmentRepository riskRepo,
-            UserRepository users,
+            TransferViewRepository views,
             StatsService statsService,
-            ObjectMapper objectMapper) {
+            ChangeVersions versions,
+            TransferSearchIndex searchIndex,
+            RiskOutboxDispatcher riskDispatcher,
+            @Value("${risk.outbox.max-await-ms:5000}") long maxAwaitRiskMs,
+            @Value("${transfer.batch.max-items:500}") int maxBatchItems,
+            @Value("${transfer.idempotency.cache.max-entries:10000}") int idempotencyMaxEntries,
+            @Value("${transfer.idempotency.cache.ttl-seconds:86400}") long idempotencyTtlSeconds,
+            MeterRegistry meterRegistry) {
         this.transferService = transferService;
         this.transferRepo = transferRepo;
-        this.riskRepo = riskRepo;
-        this.users = users;
+        this.views = views;
         this.statsService = statsService;
-        this.objectMapper = objectMapper;
-    }
-
-    private String demoUserId() {
-        return users.findByEmail("demo@digitalbanking.dev").orElseThrow().getId();
+        this.versions = versions;
+        this.searchIndex = searchIndex;
+        this.riskDispatcher = riskDispatcher;
+        this.maxAwaitRiskMs = maxAwaitRiskMs;
+        this.maxBatchItems = maxBatchItems;
+        this.idempotency = new IdempotencyCache<>(
+                "transfers", idempotencyMaxEntries, Duration.ofSeconds(idempotencyTtlSeconds), meterRegistry);
     }
 
     public record CreateTransferRequest(
@@ -77,7 +105,7 @@ public class TransfersController {
             @NotNull String toAccountId,
             @NotNull @Positive BigDecimal amount,
             @NotBlank String currency,
-            String memo) {
+            @Size(max = TransferService.MAX_MEMO_LENGTH) String memo) {
     }
 
     public record CreateTransferResponse(
@@ -90,16 +118,34 @@ public class TransfersController {
             List<String> riskReasons) {
     }
 
+    /**
+     * Risk scoring runs after commit, so by default the risk fields may still be null.
+     * Callers that want the score inline can opt in with awaitRiskMs (capped by risk.outbox.max-await-ms);
+     * if the score isn't ready in time the transfer is still returned, just without risk fields.
+     *
+     * Idempotency-Key is enforced: a retry with the same key gets the identical response, from the
+     * in-memory IdempotencyCache when possible (concurrent duplicates wait for the first request),
+     * otherwise from the stored transfer.
+     */
     @PostMapping("/transfers")
     public CreateTransferResponse createTransfer(
-            @RequestHeader("Idempotency-Key") String idempotencyKey,
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestHeader("Idempotency-Key") @Size(max = TransferService.MAX_IDEMPOTENCY_KEY_LENGTH) String idempotencyKey,
+            @RequestParam(required = false) Long awaitRiskMs,
             @Valid @RequestBody CreateTransferRequest request) {
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
             throw new IllegalArgumentException("Missing idempotency key header");
         }
 
-        String userId = demoUserId();
+        return idempotency.getOrCompute(userId, idempotencyKey,
+                () -> createTransferUncached(userId, idempotencyKey, awaitRiskMs, request));
+    }
 
+    private CreateTransferResponse createTransferUncached(
+            String userId,
+            String idempotencyKey,
+            Long awaitRiskMs,
+            CreateTransferRequest request) {
         TransferEntity t = transferService.createTransfer(
                 userId,
                 request.fromAccountId(),
@@ -109,20 +155,93 @@ public class TransfersController {
                 request.memo(),
                 idempotencyKey);
 
-        RiskAssessmentEntity ra = riskRepo.findByTransferId(t.getId()).orElse(null);
-
-        Integer riskScore = (ra == null) ? null : ra.getRiskScore();
-        String riskLevel = (ra == null) ? null : ra.getLevel();
-        List<String> riskReasons = (ra == null) ? List.of() : parseReasons(ra.getReasonsJson());
+        if (awaitRiskMs != null && awaitRiskMs > 0) {
+            riskDispatcher.awaitAssessment(t.getId(), Duration.ofMillis(Math.min(awaitRiskMs, maxAwaitRiskMs)));
+        }
+        // the read model carries the risk result (if any) already decoded
+        TransferViewEntity v = views.findById(t.getId()).orElse(null);
 
         return new CreateTransferResponse(
                 t.getId(),
                 t.getStatus(),
                 t.getAmount(),
                 t.getCurrency(),
-                riskScore,
-                riskLevel,
-                riskReasons);
+                (v == null) ? null : v.getRiskScore(),
+                (v == null) ? null : v.getRiskLevel(),
+                (v == null) ? List.of() : v.getRiskReasons());
+    }
+
+    // Items are validated one by one in TransferService (memo/key lengths included) so a bad item is
+    // rejected on its own instead of failing the whole batch with a 400.
+    public record BatchTransferItemRequest(
+            String idempotencyKey,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount,
+            String currency,
+            String memo) {
+    }
+
+    public record BatchTransferRequest(@NotEmpty List<BatchTransferItemRequest> items) {
+    }
+
+    public record BatchTransferItemResponse(
+            String idempotencyKey,
+            String outcome,
+            String transferId,
+            String status,
+            BigDecimal amount,
+            String currency,
+            String error) {
+    }
+
+    public record BatchTransferResponse(
+            int created,
+            int replayed,
+            int rejected,
+            List<BatchTransferItemResponse> results) {
+    }
+
+    @PostMapping("/transfers/batch")
+    public BatchTransferResponse createTransfersBatch(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @Valid @RequestBody BatchTransferRequest request) {
+        if (request.items().size() > maxBatchItems) {
+            throw new IllegalArgumentException("Batch too large (max " + maxBatchItems + " items)");
+        }
+
+        List<TransferService.BatchItem> items = request.items().stream()
+                .map(i -> new TransferService.BatchItem(
+                        i.idempotencyKey(),
+                        i.fromAccountId(),
+                        i.toAccountId(),
+                        i.amount(),
+                        i.currency(),
+                        i.memo()))
+                .toList();
+
+        List<TransferService.BatchItemResult> results = transferService.createTransfers(userId, items);
+
+        int created = 0, replayed = 0, rejected = 0;
+        List<BatchTransferItemResponse> out = new ArrayList<>(results.size());
+        for (TransferService.BatchItemResult r : results) {
+            switch (r.outcome()) {
+                case CREATED -> created++;
+                case REPLAYED -> replayed++;
+                case REJECTED -> rejected++;
+            }
+            TransferEntity t = r.transfer();
+            out.add(new BatchTransferItemResponse(
+                    r.idempotencyKey(),
+                    r.outcome().name(),
+                    (t == null) ? null : t.getId(),
+                    (t == null) ? null : t.getStatus(),
+                    (t == null) ? null : t.getAmount(),
+                    (t == null) ? null : t.getCurrency(),
+                    r.error()));
+        }
+
+        return new BatchTransferResponse(created, replayed, rejected, out);
     }
 
     public record TransferSummaryResponse(
@@ -135,23 +254,23 @@ public class TransfersController {
 
     @CrossOrigin(origins = "http://localhost:5173")
     @GetMapping("/transfers/search")
-    public List<TransferSummaryResponse> searchTransfers(@RequestParam String prefix) {
-        String userId = demoUserId();
+    public List<TransferSummaryResponse> searchTransfers(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestParam String prefix) {
         String p = (prefix == null) ? "" : prefix.trim();
 
         // require at least 6 chars so it’s not “list everything”
         if (p.length() < 6)
             return List.of();
 
-        return transferRepo
-                .findTop10ByUserIdAndIdStartingWithOrderByCreatedAtDesc(userId, p)
-                .stream()
-                .map(t -> new TransferSummaryResponse(
-                        t.getId(),
-                        t.getStatus(),
-                        t.getAmount(),
-                        t.getCurrency(),
-                        t.getCreatedAt().toString()))
+        // from memory after the user's first search; see TransferSearchIndex
+        return searchIndex.search(userId, p).stream()
+                .map(m -> new TransferSummaryResponse(
+                        m.transferId(),
+                        m.status(),
+                        m.amount(),
+                        m.currency(),
+                        m.createdAt().toString()))
                 .toList();
     }
 
@@ -171,58 +290,94 @@ public class TransfersController {
 
     @CrossOrigin(origins = "http://localhost:5173")
     @GetMapping("/transfers/{transferId}")
-    public TransferDetailsResponse getTransfer(@PathVariable String transferId) {
-        String userId = demoUserId();
+    public ResponseEntity<TransferDetailsResponse> getTransfer(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @PathVariable String transferId) {
 
-        TransferEntity t = transferRepo.findByUserIdAndId(userId, transferId)
+        // one primary key lookup: transfer fields and risk result live in the same read model row
+        TransferViewEntity v = views.findByIdAndUserId(transferId, userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transfer not found"));
 
-        RiskAssessmentEntity ra = riskRepo.findByTransferId(t.getId()).orElse(null);
-
-        Integer riskScore = (ra == null) ? null : ra.getRiskScore();
-        String riskLevel = (ra == null) ? null : ra.getLevel();
-        List<String> riskReasons = (ra == null) ? List.of() : parseReasons(ra.getReasonsJson());
-
-        return new TransferDetailsResponse(
-                t.getId(),
-                t.getStatus(),
-                t.getAmount(),
-                t.getCurrency(),
-                t.getMemo(), // assuming TransferEntity has getMemo()
-                t.getFromAccountId(), // assuming getter names like these exist
-                t.getToAccountId(),
-                t.getCreatedAt().toString(), // or t.getCreatedAt() if already a String
-                riskScore,
-                riskLevel,
-                riskReasons);
+        // nothing changes once the risk result is in; until then the client must come back for it
+        CacheControl cache = (v.getRiskScore() != null)
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+
+        return ResponseEntity.ok().cacheControl(cache).body(new TransferDetailsResponse(
+                v.getId(),
+                v.getStatus(),
+                v.getAmount(),
+                v.getCurrency(),
+                v.getMemo(),
+                v.getFromAccountId(),
+                v.getToAccountId(),
+                v.getCreatedAt().toString(),
+                v.getRiskScore(),
+                v.getRiskLevel(),
+                v.getRiskReasons()));
     }
 
-    private List<String> parseReasons(String reasonsJson) {
-        if (reasonsJson == null || reasonsJson.isBlank())
-            return List.of();
+    @CrossOrigin(origins = "http://localhost:5173")
+    @GetMapping("/transfers/stats/24h")
+    public ResponseEntity<StatsService.TransferWindowStatsDto> stats24h(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestParam(required = false) String currency,
+            WebRequest request) {
+        // the window moves once a minute (see StatsService.last24h), so the ETag is (user version, minute)
+        Instant now = Instant.now();
+        String etag = versions.userETag(userId, now.getEpochSecond() / 60);
+        if (request.checkNotModified(etag)) return null;
+
+        return ResponseEntity.ok()
+                .cacheControl(AccountsController.REVALIDATE)
+                .eTag(etag)
+                .body(statsService.last24h(userId, currency, now));
+    }
 
-        try {
-            return objectMapper.readValue(reasonsJson, new TypeReference<List<String>>() {
-            });
-        } catch (Exception e) {
-            // fail-soft for demo: don't 500 just because reasonsJson is malformed
-            return List.of(reasonsJson);
-        }
+    // window=1h|24h|7d|30d; same caching as stats/24h (see StatsService.stats for where each window comes from)
+    @CrossOrigin(origins = "http://localhost:5173")
+    @GetMapping("/transfers/stats")
+    public ResponseEntity<StatsService.TransferWindowStatsDto> stats(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(required = false) String currency,
+            WebRequest request) {
+        StatsWindow w = StatsWindow.parse(window);
+        Instant now = Instant.now();
+        String etag = versions.userETag(userId, now.getEpochSecond() / 60);
+        if (request.checkNotModified(etag)) return null;
+
+        return ResponseEntity.ok()
+                .cacheControl(AccountsController.REVALIDATE)
+                .eTag(etag)
+                .body(statsService.stats(userId, currency, w, now));
     }
 
+    // Hourly points for charts, from the rollups; the points only shift when the hour does
     @CrossOrigin(origins = "http://localhost:5173")
-    @GetMapping("/transfers/stats/24h")
-    public StatsService.TransferWindowStatsDto stats24h(
-            @RequestParam(required = false) String currency) {
-        return statsService.last24h(demoUserId(), currency);
+    @GetMapping("/transfers/stats/series")
+    public ResponseEntity<StatsService.StatsSeriesDto> statsSeries(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(required = false) String currency,
+            WebRequest request) {
+        StatsWindow w = StatsWindow.parse(window);
+        Instant now = Instant.now();
+        String etag = versions.userETag(userId, TransferRollups.epochHour(now));
+        if (request.checkNotModified(etag)) return null;
+
+        return ResponseEntity.ok()
+                .cacheControl(AccountsController.REVALIDATE)
+                .eTag(etag)
+                .body(statsService.series(userId, currency, w, now));
     }
 
     @CrossOrigin(origins = "http://localhost:5173")
     @GetMapping("/transfers")
     public Page<TransferSummaryResponse> listTransfers(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "25") int size) {
-        String userId = demoUserId();
 
         // Safety cap (prevents “size=100000”)
         int safeSize = Math.min(Math.max(size, 1), 100);
@@ -242,4 +397,49 @@ public class TransfersController {
                         t.getCreatedAt().toString()));
     }
 
+    public record TransferKeysetPage(
+            List<TransferSummaryResponse> items,
+            String nextCursor) { // null on the last page
+    }
+
+    /**
+     * Cursor variant of listTransfers: newest first, `cursor` = nextCursor of the previous page.
+     * Seeks on (createdAt, id) instead of OFFSET and skips the count(*), so page 10,000 costs the same as page 1.
+     */
+    @CrossOrigin(origins = "http://localhost:5173")
+    @GetMapping("/transfers/keyset")
+    public TransferKeysetPage listTransfersKeyset(
+            @RequestAttribute(DemoAuthFilter.USER_ID_ATTRIBUTE) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") int size) {
+        int safeSize = Math.min(Math.max(size, 1), 100);
+
+        // one extra row tells us whether there is a next page
+        Limit limit = Limit.of(safeSize + 1);
+        List<TransferEntity> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transferRepo.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = transferRepo.findPageAfter(userId, after.createdAt(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > safeSize) {
+            rows = rows.subList(0, safeSize);
+            TransferEntity last = rows.get(safeSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<TransferSummaryResponse> items = rows.stream()
+                .map(t -> new TransferSummaryResponse(
+                        t.getId(),
+                        t.getStatus(),
+                        t.getAmount(),
+                        t.getCurrency(),
+                        t.getCreatedAt().toString()))
+                .toList();
+        return new TransferKeysetPage(items, nextCursor);
+    }
+
 }
@@ -8,12 +8,18 @@ package com.minibank.core.web.error;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.method.ParameterErrors;
+import org.springframework.validation.method.ParameterValidationResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -40,6 +46,35 @@ public class ApiExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    // raised instead of MethodArgumentNotValidException once a handler also constrains a plain parameter
+    // (e.g. @Size on a header); same body, with header/param errors keyed by parameter name
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ApiError> handleMethodValidation(HandlerMethodValidationException ex, HttpServletRequest req) {
+        Map<String, Object> details = new HashMap<>();
+        Map<String, String> fieldErrors = new HashMap<>();
+        for (ParameterValidationResult result : ex.getParameterValidationResults()) {
+            if (result instanceof ParameterErrors errors) {
+                errors.getFieldErrors()
+                    .forEach(error -> fieldErrors.put(error.getField(), error.getDefaultMessage()));
+            } else {
+                String name = result.getMethodParameter().getParameterName();
+                result.getResolvableErrors()
+                    .forEach(error -> fieldErrors.put(name, error.getDefaultMessage()));
+            }
+        }
+        details.put("fieldErrors", fieldErrors);
+
+        ApiError body = ApiError.of(
+            HttpStatus.BAD_REQUEST.value(),
+            "VALIDATION_ERROR",
+            "Request validation failed",
+            req.getRequestURI(),
+            details
+        );
+
+        return ResponseEntity.badRequest().body(body);
+    }
+
     @ExceptionHandler(MissingRequestHeaderException.class)
     public ResponseEntity<ApiError> handleMissingHeader(MissingRequestHeaderException ex, HttpServletRequest req) {
         ApiError body = ApiError.of(
@@ -78,6 +113,48 @@ public class ApiExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleConcurrentUpdate(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        ApiError body = ApiError.of(
+            HttpStatus.CONFLICT.value(),
+            "CONCURRENT_UPDATE",
+            "Account was modified concurrently, please retry",
+            req.getRequestURI(),
+            Map.of()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // e.g. two instances racing on the same (userId, idempotencyKey): the unique constraint wins
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleConflict(DataIntegrityViolationException ex, HttpServletRequest req) {
+        ApiError body = ApiError.of(
+            HttpStatus.CONFLICT.value(),
+            "CONFLICT",
+            "Request conflicts with an existing resource (e.g. a duplicate Idempotency-Key), please retry",
+            req.getRequestURI(),
+            Map.of()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // thrown by controllers for a specific status, e.g. 404 for a transfer or account the caller can't see
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleStatus(ResponseStatusException ex, HttpServletRequest req) {
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        ApiError body = ApiError.of(
+            ex.getStatusCode().value(),
+            (status != null) ? status.name() : "ERROR",
+            ex.getReason(),
+            req.getRequestURI(),
+            Map.of()
+        );
+
+        return ResponseEntity.status(ex.getStatusCode()).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex, HttpServletRequest req) {
         ApiError body = ApiError.of(
@@ -0,0 +1,91 @@
+/**
+ * Integration test: AccountDirectory is evicted by Hibernate post-commit events when an account's
+ * owner/currency/type changes, and left alone by balance-only updates.
+ */
+
+package com.minibank.core;
+
+import com.minibank.core.domain.AccountEntity;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.repo.UserRepository;
+import com.minibank.core.service.AccountDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountDirectoryIntegrationTest {
+
+  @Autowired
+  UserRepository users;
+  @Autowired
+  AccountRepository accounts;
+  @Autowired
+  AccountDirectory directory;
+
+  private String userId;
+  private AccountEntity from;
+  private AccountEntity to;
+
+  @DynamicPropertySource
+  static void props(DynamicPropertyRegistry registry) throws IOException {
+    // isolated sqlite, so the currency change can't leak into other test classes
+    String db = Files.createTempDirectory("core-api-dir-it-").resolve("test.db").toAbsolutePath().toString();
+    registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + db);
+  }
+
+  @BeforeEach
+  void pickTwoAccounts() {
+    userId = users.findByEmail("demo@digitalbanking.dev").orElseThrow().getId();
+    List<AccountEntity> list = accounts.findAllByUserId(userId);
+    from = list.get(0);
+    to = list.get(1);
+    directory.invalidate(from.getId());
+    directory.invalidate(to.getId());
+  }
+
+  @AfterEach
+  void restoreCurrency() {
+    AccountEntity a = accounts.findById(from.getId()).orElseThrow();
+    a.setCurrency("CAD");
+    accounts.save(a);
+  }
+
+  @Test
+  void currencyChange_isSeenAfterCommit() {
+    directory.requireTransferable(userId, from.getId(), to.getId(), "CAD"); // both cached now
+
+    AccountEntity a = accounts.findById(from.getId()).orElseThrow();
+    a.setCurrency("USD");
+    accounts.save(a);
+
+    assertEquals("USD", directory.get(from.getId()).currency());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> directory.requireTransferable(userId, from.getId(), to.getId(), "CAD"));
+    assertEquals("Currency Mismatch", e.getMessage());
+  }
+
+  @Test
+  void balanceOnlyUpdate_keepsTheEntry() {
+    AccountDirectory.AccountInfo cached = directory.get(from.getId());
+
+    AccountEntity a = accounts.findById(from.getId()).orElseThrow();
+    a.setBalance(a.getBalance().add(new BigDecimal("1.00")));
+    accounts.save(a);
+
+    assertSame(cached, directory.get(from.getId()), "a balance change must not evict the entry");
+  }
+}
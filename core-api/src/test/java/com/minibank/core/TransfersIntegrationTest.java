@@ -9,8 +9,13 @@ import com.minibank.core.domain.AccountEntity;
 import com.minibank.core.repo.AccountRepository;
 import com.minibank.core.repo.UserRepository;
 import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.repo.TransferRollupRepository;
+import com.minibank.core.repo.TransferViewRepository;
 import com.minibank.core.repo.LedgerEntryRepository;
 import com.minibank.core.repo.RiskAssessmentRepository;
+import com.minibank.core.repo.RiskOutboxRepository;
+import com.minibank.core.service.TransferRollups;
+import com.minibank.core.service.TransferService;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.AfterAll;
@@ -38,8 +43,17 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,6 +65,7 @@ class TransfersIntegrationTest {
 
   private static HttpServer riskStub;
   private static String riskBaseUrl;
+  private static final AtomicInteger RISK_SCORE_CALLS = new AtomicInteger();
 
   private static final Path DB_FILE;
   static {
@@ -75,6 +90,14 @@ class TransfersIntegrationTest {
   LedgerEntryRepository ledger;
   @Autowired
   RiskAssessmentRepository risks;
+  @Autowired
+  RiskOutboxRepository riskOutbox;
+  @Autowired
+  TransferViewRepository views;
+  @Autowired
+  TransferRollupRepository rollups;
+  @Autowired
+  TransferRollups rollupJob;
 
   private String fromAccountId;
   private String toAccountId;
@@ -84,6 +107,8 @@ class TransfersIntegrationTest {
   static void props(DynamicPropertyRegistry registry) {
     ensureRiskStubStarted();
     registry.add("risk.base-url", () -> riskBaseUrl);
+    // the assertions expect the stub's answer, not the local rule engine's
+    registry.add("risk.scorer.mode", () -> "remote");
 
     // ✅ portable: isolated sqlite per test run
     registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + DB_FILE.toAbsolutePath());
@@ -105,9 +130,12 @@ class TransfersIntegrationTest {
     String userId = users.findByEmail("demo@digitalbanking.dev").orElseThrow().getId();
 
     // keep accounts/users, but clear “activity”
+    riskOutbox.deleteAll();
     risks.deleteAll();
     ledger.deleteAll();
     transfers.deleteAll();
+    views.deleteAll();
+    rollups.deleteAll();
 
     List<AccountEntity> list = accounts.findAllByUserId(userId);
     if (list.size() < 2) {
@@ -179,6 +207,28 @@ class TransfersIntegrationTest {
     assertTrue(err.has("error"), "expected error body, got: " + r.body());
   }
 
+  @Test
+  void rejects_oversizedMemo_andIdempotencyKey() throws Exception {
+    String body = """
+        {
+          "fromAccountId":"%s",
+          "toAccountId":"%s",
+          "amount": 1,
+          "currency":"CAD",
+          "memo":"%s"
+        }
+        """.formatted(fromAccountId, toAccountId, "m".repeat(TransferService.MAX_MEMO_LENGTH + 1));
+
+    HttpResponse<String> r = post("/api/transfers", body, UUID.randomUUID().toString());
+    assertEquals(400, r.statusCode(), "expected 400, got " + r.statusCode() + " body=" + r.body());
+    assertTrue(JSON.readTree(r.body()).path("details").path("fieldErrors").has("memo"), r.body());
+
+    String okBody = body.replace("m".repeat(TransferService.MAX_MEMO_LENGTH + 1), "it-long-key");
+    r = post("/api/transfers", okBody, "k".repeat(TransferService.MAX_IDEMPOTENCY_KEY_LENGTH + 1));
+    assertEquals(400, r.statusCode(), "expected 400, got " + r.statusCode() + " body=" + r.body());
+    assertEquals("VALIDATION_ERROR", JSON.readTree(r.body()).path("error").asString(), r.body());
+  }
+
   @Test
   void rejects_missingIdempotencyKey() throws Exception {
     String body = """
@@ -244,8 +294,9 @@ class TransfersIntegrationTest {
           return;
         }
 
+        RISK_SCORE_CALLS.incrementAndGet();
         String responseJson = """
-            { "score": 12, "level": "LOW", "reasons": ["stubbed-risk-service"] }
+            { "riskScore": 12, "reasons": ["stubbed-risk-service"] }
             """;
 
         byte[] bytes = responseJson.getBytes(StandardCharsets.UTF_8);
@@ -257,6 +308,23 @@ class TransfersIntegrationTest {
         exchange.close();
       });
 
+      riskStub.createContext("/rules", (HttpExchange exchange) -> {
+        String rulesJson = """
+            { "version": "stub-1", "maxScore": 100, "rules": [
+              { "feature": "amount", "min": 500, "points": 30, "reason": "large_amount" },
+              { "feature": "last24hTransferCount", "min": 5, "points": 25, "reason": "high_frequency" },
+              { "feature": "last24hTransferTotal", "min": 1000, "points": 20, "reason": "high_total" } ] }
+            """;
+
+        byte[] bytes = rulesJson.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+          os.write(bytes);
+        }
+        exchange.close();
+      });
+
       riskStub.start();
       int p = riskStub.getAddress().getPort();
       riskBaseUrl = "http://localhost:" + p;
@@ -300,11 +368,13 @@ class TransfersIntegrationTest {
           {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-risk"}
         """.formatted(fromAccountId, toAccountId);
 
-    HttpResponse<String> r = post("/api/transfers", body, key);
+    // scoring runs after commit; opt in to waiting for it
+    HttpResponse<String> r = post("/api/transfers?awaitRiskMs=5000", body, key);
     assertEquals(200, r.statusCode(), r.body());
 
     JsonNode json = JSON.readTree(r.body());
     assertTrue(json.hasNonNull("riskScore"));
+    assertEquals(12, json.get("riskScore").asInt(), "score should come from the risk-service stub");
     assertTrue(json.hasNonNull("riskLevel"));
     assertTrue(json.has("riskReasons"));
     assertTrue(json.get("riskReasons").isArray());
@@ -312,6 +382,92 @@ class TransfersIntegrationTest {
 
     // also prove it was persisted
     assertEquals(1, risks.count(), "risk assessment should be stored");
+    assertEquals(0, riskOutbox.countByStatus("PENDING"), "outbox row should be completed");
+
+    // the detail endpoint reads the same result from the transfer_views read model
+    HttpResponse<String> details = get("/api/transfers/" + json.get("transferId").asString());
+    assertEquals(200, details.statusCode(), details.body());
+    JsonNode d = JSON.readTree(details.body());
+    assertEquals(12, d.get("riskScore").asInt());
+    assertEquals("LOW", d.get("riskLevel").asString());
+    assertEquals("stubbed-risk-service", d.get("riskReasons").get(0).asString());
+  }
+
+  @Test
+  void transfer_commitsWithoutWaitingForRisk_andOutboxIsDrained() throws Exception {
+    String key = UUID.randomUUID().toString();
+
+    String body = """
+          {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-outbox"}
+        """.formatted(fromAccountId, toAccountId);
+
+    HttpResponse<String> r = post("/api/transfers", body, key);
+    assertEquals(200, r.statusCode(), r.body());
+    String transferId = JSON.readTree(r.body()).path("transferId").asString();
+
+    // the assessment shows up shortly after, written by the outbox dispatcher
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (risks.findByTransferId(transferId).isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertTrue(risks.findByTransferId(transferId).isPresent(), "outbox should produce a risk assessment");
+    assertEquals(1, riskOutbox.count(), "exactly one outbox row per transfer");
+  }
+
+  @Test
+  void batch_appliesItemsIndependently_andReportsPerItemResults() throws Exception {
+    String body = """
+        {"items":[
+          {"idempotencyKey":"batch-ok","fromAccountId":"%1$s","toAccountId":"%2$s","amount":10.00,"currency":"CAD","memo":"b1"},
+          {"idempotencyKey":"batch-too-much","fromAccountId":"%1$s","toAccountId":"%2$s","amount":999999.00,"currency":"CAD","memo":"b2"},
+          {"idempotencyKey":"batch-ok","fromAccountId":"%1$s","toAccountId":"%2$s","amount":10.00,"currency":"CAD","memo":"b1-dup"},
+          {"idempotencyKey":"batch-ok-2","fromAccountId":"%2$s","toAccountId":"%1$s","amount":5.00,"currency":"CAD","memo":"b3"}
+        ]}
+        """.formatted(fromAccountId, toAccountId);
+
+    BigDecimal fromBefore = accounts.findById(fromAccountId).orElseThrow().getBalance();
+
+    HttpResponse<String> r = post("/api/transfers/batch", body, "unused");
+    assertEquals(200, r.statusCode(), r.body());
+
+    JsonNode json = JSON.readTree(r.body());
+    assertEquals(2, json.get("created").asInt());
+    assertEquals(1, json.get("replayed").asInt());
+    assertEquals(1, json.get("rejected").asInt());
+
+    JsonNode results = json.get("results");
+    assertEquals("CREATED", results.get(0).get("outcome").asString());
+    assertEquals("REJECTED", results.get(1).get("outcome").asString());
+    assertEquals("Insufficient funds", results.get(1).get("error").asString());
+    assertEquals("REPLAYED", results.get(2).get("outcome").asString());
+    assertEquals(results.get(0).get("transferId").asString(), results.get(2).get("transferId").asString());
+
+    // only the two created items touched the DB
+    assertEquals(2, transfers.count());
+    assertEquals(4, ledger.count());
+    BigDecimal fromAfter = accounts.findById(fromAccountId).orElseThrow().getBalance();
+    assertEquals(0, fromBefore.subtract(new BigDecimal("5.00")).compareTo(fromAfter), "net -10 +5 on the source account");
+
+    // re-sending the batch replays everything that was created
+    HttpResponse<String> again = post("/api/transfers/batch", body, "unused");
+    JsonNode againJson = JSON.readTree(again.body());
+    assertEquals(0, againJson.get("created").asInt());
+    assertEquals(2, transfers.count());
+  }
+
+  @Test
+  void riskSandbox_sameRuleBuckets_areAnsweredWithoutASecondCall() throws Exception {
+    // first call may or may not be cached already; it warms the (amount < 500) bucket either way
+    HttpResponse<String> first = postWithoutIdempotency("/api/risk/score", "{\"amount\": 120.00, \"currency\": \"CAD\"}");
+    assertEquals(200, first.statusCode(), first.body());
+    int calls = RISK_SCORE_CALLS.get();
+
+    for (String amount : List.of("120.00", "75.50", "499.99")) {
+      HttpResponse<String> r = postWithoutIdempotency("/api/risk/score", "{\"amount\": " + amount + ", \"currency\": \"CAD\"}");
+      assertEquals(200, r.statusCode(), r.body());
+      assertEquals(12, JSON.readTree(r.body()).path("riskScore").asInt());
+    }
+    assertEquals(calls, RISK_SCORE_CALLS.get());
   }
 
   @Test
@@ -341,15 +497,254 @@ class TransfersIntegrationTest {
     assertEquals(30, root.get("totalElements").asInt());
   }
 
-  private HttpResponse<String> get(String path) throws Exception {
+  @Test
+  void transfers_keyset_walksAllPagesOnce_withoutTotals() throws Exception {
+    for (int i = 0; i < 30; i++) {
+      String body = """
+            {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-keyset-%s"}
+          """.formatted(fromAccountId, toAccountId, i);
+      assertEquals(200, post("/api/transfers", body, "keyset-" + i + "-" + UUID.randomUUID()).statusCode());
+    }
+
+    Set<String> seen = new HashSet<>();
+    String prevCreatedAt = null;
+    String cursor = null;
+    int pages = 0;
+    do {
+      HttpResponse<String> r = get("/api/transfers/keyset?size=12" + (cursor == null ? "" : "&cursor=" + cursor));
+      assertEquals(200, r.statusCode(), r.body());
+      JsonNode root = JSON.readTree(r.body());
+      assertFalse(root.has("totalElements"));
+
+      for (JsonNode item : root.get("items")) {
+        assertTrue(seen.add(item.get("transferId").asString()), "transfer returned twice");
+        String createdAt = item.get("createdAt").asString();
+        if (prevCreatedAt != null) assertTrue(prevCreatedAt.compareTo(createdAt) >= 0, "expected createdAt desc ordering");
+        prevCreatedAt = createdAt;
+      }
+      JsonNode next = root.get("nextCursor");
+      cursor = (next == null || next.isNull()) ? null : next.asString();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(30, seen.size());
+    assertEquals(3, pages);
+
+    assertEquals(400, get("/api/transfers/keyset?cursor=not-a-cursor").statusCode());
+  }
+
+  @Test
+  void ledger_pagesWithNextCursorHeader_andExportsEveryEntry() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      String body = """
+            {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-ledger-%s"}
+          """.formatted(fromAccountId, toAccountId, i);
+      assertEquals(200, post("/api/transfers", body, "ledger-" + i + "-" + UUID.randomUUID()).statusCode());
+    }
+
+    Set<String> seen = new HashSet<>();
+    String cursor = null;
+    do {
+      HttpResponse<String> r = get("/api/accounts/" + fromAccountId + "/ledger?size=2"
+          + (cursor == null ? "" : "&cursor=" + cursor));
+      assertEquals(200, r.statusCode(), r.body());
+      for (JsonNode e : JSON.readTree(r.body())) {
+        assertTrue(seen.add(e.get("id").asString()), "entry returned twice");
+      }
+      cursor = r.headers().firstValue("X-Next-Cursor").orElse(null);
+    } while (cursor != null);
+    assertEquals(5, seen.size());
+
+    HttpResponse<String> ndjson = get("/api/accounts/" + fromAccountId + "/ledger/export");
+    assertEquals(200, ndjson.statusCode());
+    List<String> lines = ndjson.body().lines().toList();
+    assertEquals(5, lines.size());
+    assertEquals("DEBIT", JSON.readTree(lines.get(0)).get("type").asString());
+
+    HttpResponse<String> csv = get("/api/accounts/" + fromAccountId + "/ledger/export?format=csv");
+    assertEquals(200, csv.statusCode());
+    assertEquals(6, csv.body().lines().count()); // header + 5
+
+    // someone else's (or an unknown) account reads as empty
+    assertEquals("[]", get("/api/accounts/no-such-account/ledger").body());
+  }
+
+  @Test
+  void balanceAsOf_andStatement_comeFromTheLedgerEntries() throws Exception {
+    Instant beforeAll = Instant.now().minusSeconds(1);
+    for (int i = 0; i < 3; i++) {
+      String body = """
+            {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-statement-%s"}
+          """.formatted(fromAccountId, toAccountId, i);
+      assertEquals(200, post("/api/transfers", body, "statement-" + i + "-" + UUID.randomUUID()).statusCode());
+    }
+
+    String base = "/api/accounts/" + fromAccountId;
+    JsonNode before = JSON.readTree(get(base + "/balance?asOf=" + beforeAll).body());
+    assertEquals(0, new BigDecimal("2500.00").compareTo(before.path("balance").decimalValue()));
+    JsonNode now = JSON.readTree(get(base + "/balance").body());
+    assertEquals(0, new BigDecimal("2497.00").compareTo(now.path("balance").decimalValue()));
+
+    List<String> ids = new ArrayList<>();
+    String cursor = null;
+    do {
+      HttpResponse<String> r = get(base + "/statement?from=2000-01-01&to=2100-01-01&size=2"
+          + (cursor == null ? "" : "&cursor=" + cursor));
+      assertEquals(200, r.statusCode(), r.body());
+      JsonNode st = JSON.readTree(r.body());
+      assertEquals(0, new BigDecimal("2500.00").compareTo(st.path("openingBalance").decimalValue()));
+      assertEquals(0, new BigDecimal("2497.00").compareTo(st.path("closingBalance").decimalValue()));
+      for (JsonNode e : st.path("entries")) {
+        ids.add(e.get("id").asString());
+      }
+      cursor = r.headers().firstValue("X-Next-Cursor").orElse(null);
+    } while (cursor != null);
+    assertEquals(3, ids.size());
+    assertEquals(3, new HashSet<>(ids).size());
+
+    assertEquals(404, get("/api/accounts/no-such-account/balance").statusCode());
+    assertEquals(400, get(base + "/statement?from=2026-02-01&to=2026-01-01").statusCode());
+  }
+
+  @Test
+  void riskFlags_areBoundedPages_thatFollowTheCursor() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      String body = """
+            {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-flags-%s"}
+          """.formatted(fromAccountId, toAccountId, i);
+      assertEquals(200, post("/api/transfers?awaitRiskMs=5000", body, "flags-" + i + "-" + UUID.randomUUID()).statusCode());
+    }
+
+    // stub scores everything 12
+    HttpResponse<String> first = get("/api/risk/flags?minScore=10&limit=2");
+    assertEquals(200, first.statusCode(), first.body());
+    JsonNode firstItems = JSON.readTree(first.body());
+    assertEquals(2, firstItems.size());
+    assertEquals(12, firstItems.get(0).get("riskScore").asInt());
+    String cursor = first.headers().firstValue("X-Next-Cursor").orElseThrow();
+
+    HttpResponse<String> second = get("/api/risk/flags?minScore=10&limit=2&cursor=" + cursor);
+    assertEquals(200, second.statusCode(), second.body());
+    JsonNode secondItems = JSON.readTree(second.body());
+    assertEquals(1, secondItems.size());
+    assertTrue(second.headers().firstValue("X-Next-Cursor").isEmpty());
+
+    Set<String> ids = new HashSet<>();
+    for (JsonNode n : firstItems) ids.add(n.get("transferId").asString());
+    for (JsonNode n : secondItems) ids.add(n.get("transferId").asString());
+    assertEquals(3, ids.size());
+
+    assertEquals("[]", get("/api/risk/flags?minScore=13").body());
+  }
+
+  @Test
+  void polledEndpoints_answer304_untilATransferCommits() throws Exception {
+    List<String> paths = List.of(
+        "/api/accounts",
+        "/api/accounts/" + fromAccountId + "/ledger",
+        "/api/transfers/stats/24h?currency=CAD");
+
+    List<String> etags = new ArrayList<>();
+    for (String path : paths) {
+      HttpResponse<String> r = get(path);
+      assertEquals(200, r.statusCode(), r.body());
+      String etag = r.headers().firstValue("ETag").orElseThrow();
+      etags.add(etag);
+
+      HttpResponse<String> again = get(path, "If-None-Match", etag);
+      assertEquals(304, again.statusCode(), path);
+      assertEquals("", again.body());
+    }
+
+    String body = """
+          {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-etag"}
+        """.formatted(fromAccountId, toAccountId);
+    assertEquals(200, post("/api/transfers", body, "etag-" + UUID.randomUUID()).statusCode());
+
+    for (int i = 0; i < paths.size(); i++) {
+      HttpResponse<String> r = get(paths.get(i), "If-None-Match", etags.get(i));
+      assertEquals(200, r.statusCode(), paths.get(i));
+      assertNotEquals(etags.get(i), r.headers().firstValue("ETag").orElseThrow());
+    }
+  }
+
+  @Test
+  void statsWindows_andHourlySeries_comeFromTheRollups() throws Exception {
+    for (String amount : List.of("12.50", "7.25")) {
+      String body = """
+            {"fromAccountId":"%s","toAccountId":"%s","amount":%s,"currency":"CAD","memo":"it-rollup"}
+          """.formatted(fromAccountId, toAccountId, amount);
+      assertEquals(200, post("/api/transfers", body, "rollup-" + UUID.randomUUID()).statusCode());
+    }
+
+    assertEquals(200, get("/api/transfers/stats?window=1h&currency=CAD").statusCode());
+    // 7d/30d read the rollups, which this class resets per test (the in-memory 1h/24h rings are not)
+    for (String window : List.of("7d", "30d")) {
+      HttpResponse<String> r = get("/api/transfers/stats?window=" + window + "&currency=CAD");
+      assertEquals(200, r.statusCode(), r.body());
+      JsonNode stats = JSON.readTree(r.body());
+      assertEquals(2, stats.path("count").asInt(), window);
+      assertEquals(0, new BigDecimal("19.75").compareTo(stats.path("sum").decimalValue()), window);
+    }
+
+    HttpResponse<String> series = get("/api/transfers/stats/series?window=24h&currency=CAD");
+    assertEquals(200, series.statusCode(), series.body());
+    JsonNode points = JSON.readTree(series.body()).path("points");
+    assertEquals(24, points.size());
+    assertEquals(2, points.get(23).path("count").asInt()); // the current hour
+
+    // the rebuild job regenerates the same rows from the transfers table
+    rollups.deleteAll();
+    assertEquals(2, rollupJob.rebuild());
+    JsonNode rebuilt = JSON.readTree(get("/api/transfers/stats?window=30d&currency=CAD").body());
+    assertEquals(2, rebuilt.path("count").asInt());
+
+    assertEquals(400, get("/api/transfers/stats?window=2d").statusCode());
+  }
+
+  @Test
+  void stream_pushesTransferBalanceAndRiskEvents() throws Exception {
     HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build();
-    URI uri = URI.create("http://localhost:" + port + path);
-    HttpRequest req = HttpRequest.newBuilder(uri)
-        .timeout(Duration.ofSeconds(10))
+    HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stream"))
         .header("Authorization", "Bearer demo-token")
         .GET()
         .build();
-    return client.send(req, HttpResponse.BodyHandlers.ofString());
+    // returns once the headers are in, i.e. once the subscription is registered
+    HttpResponse<Stream<String>> stream = client.send(req, HttpResponse.BodyHandlers.ofLines());
+    assertEquals(200, stream.statusCode());
+
+    Set<String> expected = Set.of("transfer", "balance", "risk");
+    CompletableFuture<Set<String>> seen = CompletableFuture.supplyAsync(() -> {
+      Set<String> names = new HashSet<>();
+      Iterator<String> lines = stream.body().iterator();
+      while (!names.containsAll(expected) && lines.hasNext()) {
+        String line = lines.next();
+        if (line.startsWith("event:")) names.add(line.substring("event:".length()).trim());
+      }
+      return names;
+    });
+
+    try {
+      String body = """
+            {"fromAccountId":"%s","toAccountId":"%s","amount":1,"currency":"CAD","memo":"it-stream"}
+          """.formatted(fromAccountId, toAccountId);
+      assertEquals(200, post("/api/transfers", body, "stream-" + UUID.randomUUID()).statusCode());
+
+      assertEquals(expected, seen.get(10, TimeUnit.SECONDS));
+    } finally {
+      stream.body().close();
+    }
+  }
+
+  private HttpResponse<String> get(String path, String... headers) throws Exception {
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build();
+    URI uri = URI.create("http://localhost:" + port + path);
+    HttpRequest.Builder req = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofSeconds(10))
+        .header("Authorization", "Bearer demo-token")
+        .GET();
+    if (headers.length > 0) req.headers(headers);
+    return client.send(req.build(), HttpResponse.BodyHandlers.ofString());
   }
 
 }
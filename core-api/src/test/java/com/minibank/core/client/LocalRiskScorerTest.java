@@ -0,0 +1,63 @@
+/**
+ * LocalRiskScorer: the risk-service's rules in-JVM, with inclusive thresholds, the service's reason codes in
+ * rule order, and the score cap.
+ */
+
+package com.minibank.core.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRiskScorerTest {
+
+  private final LocalRiskScorer scorer = new LocalRiskScorer(
+      new BigDecimal("500"), 30, "large_amount",
+      new BigDecimal("5"), 25, "high_frequency",
+      new BigDecimal("1000"), 20, "high_total",
+      100);
+
+  @Test
+  void quietTransfer_scoresZero() {
+    RiskScorer.ScoreResponse r = scorer.score(request("499.99", 4, "999.99"));
+
+    assertEquals(0, r.riskScore());
+    assertEquals(List.of(), r.reasons());
+  }
+
+  @Test
+  void thresholds_areInclusive_andUseTheServiceReasonCodes() {
+    RiskScorer.ScoreResponse r = scorer.score(request("500.00", 5, "1000.00"));
+
+    assertEquals(75, r.riskScore());
+    assertEquals(List.of("large_amount", "high_frequency", "high_total"), r.reasons());
+  }
+
+  @Test
+  void eachRule_addsItsOwnPoints() {
+    assertEquals(30, scorer.score(request("800", 0, "0")).riskScore());
+    assertEquals(25, scorer.score(request("1", 9, "0")).riskScore());
+    assertEquals(List.of("high_total"), scorer.score(request("1", 0, "5000")).reasons());
+  }
+
+  @Test
+  void score_isCappedAtMaxScore() {
+    LocalRiskScorer capped = new LocalRiskScorer(
+        new BigDecimal("500"), 60, "large_amount",
+        new BigDecimal("5"), 60, "high_frequency",
+        new BigDecimal("1000"), 60, "high_total",
+        100);
+
+    assertEquals(100, capped.score(request("900", 10, "2000")).riskScore());
+  }
+
+  private static RiskScorer.ScoreRequest request(String amount, int count, String total) {
+    return new RiskScorer.ScoreRequest(
+        "u1", "a1", "a2", new BigDecimal(amount), "CAD", Instant.parse("2026-01-15T12:00:00Z"),
+        count, new BigDecimal(total));
+  }
+}
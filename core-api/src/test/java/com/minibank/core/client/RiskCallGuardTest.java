@@ -0,0 +1,126 @@
+/**
+ * RiskCallGuard against an in-process stub that injects latency and errors: deadline, bulkhead, and the
+ * circuit breaker's open / half-open / closed cycle.
+ */
+
+package com.minibank.core.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskCallGuardTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  // deadline 100ms, 2 in flight, breaker over 4 calls opening at 50% failures or 50% slower than 40ms,
+  // open for 50ms, 1 probe
+  private final RiskCallGuard guard = new RiskCallGuard(100, 2, 4, 4, 50, 40, 50, 50, 1, registry);
+
+  private final AtomicInteger reached = new AtomicInteger();
+
+  /** Stand-in for the risk-service: answers after latencyMs, or fails. */
+  private String stub(long latencyMs, boolean fail) throws InterruptedException {
+    reached.incrementAndGet();
+    Thread.sleep(latencyMs);
+    if (fail) throw new IllegalStateException("HTTP 503");
+    return "ok";
+  }
+
+  private double calls(String result) {
+    return registry.get("risk.client.calls").tag("result", result).counter().count();
+  }
+
+  private double transitions(String to) {
+    return registry.get("risk.client.breaker.transitions").tag("to", to).counter().count();
+  }
+
+  @Test
+  void slowCall_isCutAtTheDeadline() {
+    long start = System.nanoTime();
+
+    assertThrows(RiskCallGuard.RiskUnavailableException.class, () -> guard.call(() -> stub(5_000, false)));
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+    assertEquals(1.0, calls("timeout"));
+  }
+
+  @Test
+  void bulkhead_refusesCallsBeyondMaxConcurrent() throws Exception {
+    CountDownLatch inside = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    RiskCallGuard slowGuard = new RiskCallGuard(5_000, 2, 4, 4, 50, 5_000, 50, 50, 1, registry);
+
+    Thread[] callers = new Thread[2];
+    for (int i = 0; i < callers.length; i++) {
+      callers[i] = new Thread(() -> slowGuard.call(() -> {
+        inside.countDown();
+        return release.await(5, TimeUnit.SECONDS);
+      }));
+      callers[i].start();
+    }
+    assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+    assertThrows(RiskCallGuard.RiskUnavailableException.class, () -> slowGuard.call(() -> stub(0, false)));
+    assertEquals(0, reached.get());
+    assertEquals(1.0, calls("bulkhead_full"));
+
+    release.countDown();
+    for (Thread t : callers) t.join();
+    assertEquals("ok", slowGuard.call(() -> stub(0, false)));
+  }
+
+  @Test
+  void failures_openTheBreaker_andASuccessfulProbeClosesIt() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      boolean fail = i % 2 == 0;
+      if (fail) {
+        assertThrows(IllegalStateException.class, () -> guard.call(() -> stub(0, true)));
+      } else {
+        guard.call(() -> stub(0, false));
+      }
+    }
+    assertEquals(CircuitBreaker.State.OPEN, guard.breakerState());
+
+    // open: refused without reaching the service
+    assertThrows(RiskCallGuard.RiskUnavailableException.class, () -> guard.call(() -> stub(0, false)));
+    assertEquals(4, reached.get());
+    assertEquals(1.0, calls("circuit_open"));
+
+    Thread.sleep(80);
+    assertEquals("ok", guard.call(() -> stub(0, false)));
+
+    assertEquals(CircuitBreaker.State.CLOSED, guard.breakerState());
+    assertEquals(1.0, transitions("open"));
+    assertEquals(1.0, transitions("half_open"));
+    assertEquals(1.0, transitions("closed"));
+  }
+
+  @Test
+  void slowAnswers_openTheBreaker_andAFailedProbeReopensIt() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      assertEquals("ok", guard.call(() -> stub(60, false)));
+    }
+    assertEquals(CircuitBreaker.State.OPEN, guard.breakerState());
+
+    Thread.sleep(80);
+    assertThrows(IllegalStateException.class, () -> guard.call(() -> stub(0, true)));
+
+    assertEquals(CircuitBreaker.State.OPEN, guard.breakerState());
+    assertEquals(2.0, transitions("open"));
+  }
+
+  @Test
+  void belowMinCalls_theBreakerStaysClosed() {
+    for (int i = 0; i < 3; i++) {
+      assertThrows(IllegalStateException.class, () -> guard.call(() -> stub(0, true)));
+    }
+    assertEquals(CircuitBreaker.State.CLOSED, guard.breakerState());
+    assertEquals(3.0, calls("error"));
+  }
+}
@@ -0,0 +1,100 @@
+/**
+ * RiskScoreBatcher: concurrent submits coalesce into one call per window, batches are capped at max-size,
+ * results go back in order, a failed batch fails every caller in it, and close() leaves no caller waiting.
+ */
+
+package com.minibank.core.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskScoreBatcherTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<Integer> sentSizes = new CopyOnWriteArrayList<>();
+
+  /** Stand-in for POST /score/batch: the score is the request's 24h count, so order is checkable. */
+  private List<RiskScorer.ScoreResponse> echo(List<RiskScorer.ScoreRequest> requests) {
+    sentSizes.add(requests.size());
+    List<RiskScorer.ScoreResponse> out = new ArrayList<>();
+    for (RiskScorer.ScoreRequest r : requests) out.add(new RiskScorer.ScoreResponse(r.last24hTransferCount(), List.of()));
+    return out;
+  }
+
+  private static RiskScorer.ScoreRequest request(int n) {
+    return new RiskScorer.ScoreRequest(
+        "u1", "a1", "a2", BigDecimal.TEN, "CAD", Instant.parse("2026-01-15T12:00:00Z"), n, BigDecimal.ZERO);
+  }
+
+  @Test
+  void submitsWithinTheWindow_goOutAsOneBatch_inOrder() throws Exception {
+    try (RiskScoreBatcher batcher = new RiskScoreBatcher(this::echo, 200, 100, registry)) {
+      List<CompletableFuture<RiskScorer.ScoreResponse>> futures = new ArrayList<>();
+      for (int i = 0; i < 20; i++) futures.add(batcher.submit(request(i)));
+
+      for (int i = 0; i < 20; i++) {
+        assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS).riskScore());
+      }
+      assertEquals(List.of(20), sentSizes);
+    }
+  }
+
+  @Test
+  void fullBatches_areSentWithoutWaitingForTheWindow() throws Exception {
+    try (RiskScoreBatcher batcher = new RiskScoreBatcher(this::echo, 60_000, 5, registry)) {
+      List<CompletableFuture<RiskScorer.ScoreResponse>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) futures.add(batcher.submit(request(i)));
+
+      for (CompletableFuture<RiskScorer.ScoreResponse> f : futures) f.get(5, TimeUnit.SECONDS);
+      assertEquals(List.of(5, 5), sentSizes);
+    }
+  }
+
+  @Test
+  void failedBatch_failsEveryCallerInIt() {
+    try (RiskScoreBatcher batcher = new RiskScoreBatcher(
+        requests -> { throw new IllegalStateException("HTTP 503"); }, 50, 100, registry)) {
+      CompletableFuture<RiskScorer.ScoreResponse> a = batcher.submit(request(1));
+      CompletableFuture<RiskScorer.ScoreResponse> b = batcher.submit(request(2));
+
+      CompletionException e = assertThrows(CompletionException.class, a::join);
+      assertInstanceOf(IllegalStateException.class, e.getCause());
+      assertThrows(CompletionException.class, b::join);
+    }
+  }
+
+  @Test
+  void wrongNumberOfResults_failsTheBatch() {
+    try (RiskScoreBatcher batcher = new RiskScoreBatcher(requests -> List.of(), 10, 100, registry)) {
+      assertThrows(CompletionException.class, () -> batcher.submit(request(1)).join());
+    }
+  }
+
+  @Test
+  void closeMidWindow_failsTheBatchBeingCollected_andLaterSubmits() throws Exception {
+    RiskScoreBatcher batcher = new RiskScoreBatcher(this::echo, 60_000, 100, registry);
+    CompletableFuture<RiskScorer.ScoreResponse> a = batcher.submit(request(1));
+    CompletableFuture<RiskScorer.ScoreResponse> b = batcher.submit(request(2));
+    Thread.sleep(50); // the collector has taken both and is waiting out the window
+
+    batcher.close();
+
+    for (CompletableFuture<RiskScorer.ScoreResponse> f : List.of(a, b, batcher.submit(request(3)))) {
+      ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+      assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+    assertEquals(List.of(), sentSizes);
+  }
+}
@@ -0,0 +1,125 @@
+/**
+ * RiskScoreMemo keys: inclusive breakpoint buckets per feature, and which published rule sets can be
+ * cached at all. Stale rules are reloaded in the background while scoring keeps using the old ones.
+ */
+
+package com.minibank.core.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskScoreMemoTest {
+
+  private static final byte[] RULES = """
+      { "version": "v1", "maxScore": 100, "rules": [
+        { "feature": "amount", "min": 500, "points": 10, "reason": "r" } ] }
+      """.getBytes(StandardCharsets.UTF_8);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private double requests(String result) {
+    return registry.get("risk.score.cache.requests").tag("result", result).counter().count();
+  }
+
+  private static BigDecimal[] points(String... values) {
+    BigDecimal[] out = new BigDecimal[values.length];
+    for (int i = 0; i < values.length; i++) out[i] = new BigDecimal(values[i]);
+    return out;
+  }
+
+  private static RiskScoreMemo.RuleDto rule(String feature, String min) {
+    return new RiskScoreMemo.RuleDto(feature, new BigDecimal(min), 10, "r");
+  }
+
+  @Test
+  void bucket_countsTheBreakpointsReached_inclusively() {
+    BigDecimal[] bp = points("500", "1000");
+
+    assertEquals(0, RiskScoreMemo.bucket(new BigDecimal("499.99"), bp));
+    assertEquals(1, RiskScoreMemo.bucket(new BigDecimal("500.00"), bp));
+    assertEquals(1, RiskScoreMemo.bucket(new BigDecimal("999.99"), bp));
+    assertEquals(2, RiskScoreMemo.bucket(new BigDecimal("1000"), bp));
+    assertEquals(0, RiskScoreMemo.bucket(new BigDecimal("1"), points()));
+  }
+
+  @Test
+  void publishedRules_becomeSortedBreakpointsPerFeature() {
+    RiskScoreMemo.Rules rules = RiskScoreMemo.toRules(new RiskScoreMemo.RulesDto("v1", 100, List.of(
+        rule("amount", "1000"),
+        rule("last24hTransferTotal", "1000"),
+        rule("amount", "500"))), 0);
+
+    assertTrue(rules.usable());
+    assertEquals("v1", rules.version());
+    assertArrayEquals(points("500", "1000"), rules.breakpoints().get(0));
+    assertArrayEquals(points(), rules.breakpoints().get(1));
+    assertArrayEquals(points("1000"), rules.breakpoints().get(2));
+  }
+
+  @Test
+  void unknownFeatures_orMissingRules_turnCachingOff() {
+    assertFalse(RiskScoreMemo.toRules(null, 0).usable());
+    assertFalse(RiskScoreMemo.toRules(new RiskScoreMemo.RulesDto(null, 100, List.of()), 0).usable());
+    assertFalse(RiskScoreMemo.toRules(new RiskScoreMemo.RulesDto("v1", 100, List.of(
+        rule("amount", "500"),
+        rule("merchantCategory", "1"))), 0).usable());
+  }
+
+  @Test
+  void staleRules_areReloadedInTheBackground_whileScoringKeepsTheOldOnes() throws Exception {
+    CountDownLatch reloadMayAnswer = new CountDownLatch(1);
+    AtomicInteger rulesCalls = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/rules", exchange -> {
+      if (rulesCalls.incrementAndGet() > 1) {
+        try {
+          reloadMayAnswer.await(); // every reload hangs, like a slow or down service
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, RULES.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(RULES);
+      }
+    });
+    server.start();
+    try {
+      RestClient rest = RestClient.create("http://127.0.0.1:" + server.getAddress().getPort());
+      RiskCallGuard guard = new RiskCallGuard(5_000, 16, 20, 10, 50, 1_000, 80, 10_000, 3, registry);
+      // refresh interval 0: every call finds the rules stale
+      RiskScoreMemo memo = new RiskScoreMemo(rest, guard, true, 100, 60_000, 0, registry);
+      AtomicInteger scored = new AtomicInteger();
+      Supplier<RiskScorer.ScoreResponse> call = () -> {
+        scored.incrementAndGet();
+        return new RiskScorer.ScoreResponse(12, List.of());
+      };
+
+      memo.score(new BigDecimal("120.00"), 0, BigDecimal.ZERO, call); // first load is waited for
+      memo.score(new BigDecimal("75.50"), 0, BigDecimal.ZERO, call);  // starts a reload, scored with the old rules
+      memo.score(new BigDecimal("499.99"), 0, BigDecimal.ZERO, call); // reload still hanging: old rules again
+
+      assertEquals(1, scored.get());
+      assertEquals(1.0, requests("miss"));
+      assertEquals(2.0, requests("hit"));
+      assertTrue(rulesCalls.get() <= 2, "one reload at a time, not one per caller");
+    } finally {
+      reloadMayAnswer.countDown();
+      server.stop(0);
+    }
+  }
+}
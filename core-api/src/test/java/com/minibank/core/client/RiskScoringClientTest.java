@@ -0,0 +1,81 @@
+/**
+ * RiskScoringClient (the /api/risk/score sandbox) goes through RiskCallGuard: a risk-service that stops
+ * answering costs the caller the guard's deadline, not a request thread parked on the socket.
+ */
+
+package com.minibank.core.client;
+
+import com.minibank.dto.RiskScoreRequest;
+import com.minibank.dto.RiskScoreResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskScoringClientTest {
+
+  private static final byte[] SCORE = "{ \"riskScore\": 12, \"reasons\": [] }".getBytes(StandardCharsets.UTF_8);
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private double calls(String result) {
+    return registry.get("risk.client.calls").tag("result", result).counter().count();
+  }
+
+  private static RiskScoreRequest request(double amount) {
+    return new RiskScoreRequest("user-demo", "a1", "a2", amount, "CAD", Instant.now(), 0, 0.0);
+  }
+
+  @Test
+  void aHangingRiskService_costsTheDeadline_andIsCountedByTheGuard() throws Exception {
+    AtomicBoolean hang = new AtomicBoolean();
+    CountDownLatch release = new CountDownLatch(1);
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/score", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      if (hang.get()) {
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, SCORE.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(SCORE);
+      }
+    });
+    server.start();
+    try {
+      RestClient rest = RestClient.create("http://127.0.0.1:" + server.getAddress().getPort());
+      RiskCallGuard guard = new RiskCallGuard(200, 16, 20, 10, 50, 1_000, 80, 10_000, 3, registry);
+      // memo off: every score is an HTTP call
+      RiskScoreMemo memo = new RiskScoreMemo(rest, guard, false, 100, 60_000, 60_000, registry);
+      RiskScoringClient client = new RiskScoringClient(rest, guard, memo);
+
+      assertEquals(new RiskScoreResponse(12, List.of()), client.score(request(120.00)));
+      assertEquals(1.0, calls("success"));
+
+      hang.set(true);
+      long start = System.nanoTime();
+      assertThrows(RiskCallGuard.RiskUnavailableException.class, () -> client.score(request(75.50)));
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000, "bounded by the deadline");
+      assertEquals(1.0, calls("timeout"));
+    } finally {
+      release.countDown();
+      server.stop(0);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * RiskClientConfig: the context wires the pooled request factory and its risk.client.pool.* saturation gauges,
+ * a finished call hands its connection back to the pool for reuse, and risk.client.http2 switches to the
+ * JDK client without a pool.
+ */
+
+package com.minibank.core.config;
+
+import com.minibank.core.client.RiskCallGuard;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RiskClientConfigTest {
+
+  private static final List<String> POOL_GAUGES = List.of("leased", "pending", "available", "max");
+
+  @Autowired
+  ClientHttpRequestFactory riskRequestFactory;
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  private static double gauge(MeterRegistry registry, String name) {
+    return registry.get("risk.client.pool." + name).gauge().value();
+  }
+
+  private static ClientHttpRequestFactory factory(boolean http2, SimpleMeterRegistry registry) {
+    RiskCallGuard guard = new RiskCallGuard(5_000, 16, 20, 10, 50, 1_000, 80, 10_000, 3, registry);
+    return new RiskClientConfig().riskRequestFactory(500, 2_000, http2, 8, 8, 30_000, 300_000, 250, guard, registry);
+  }
+
+  @Test
+  void context_wiresThePooledFactory_andItsSaturationGauges() {
+    assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, riskRequestFactory);
+    for (String name : POOL_GAUGES) {
+      assertNotNull(meterRegistry.find("risk.client.pool." + name).gauge(), "risk.client.pool." + name);
+    }
+    assertEquals(64.0, gauge(meterRegistry, "max")); // risk.client.pool.max-total
+  }
+
+  @Test
+  void aFinishedCall_leavesItsConnectionInThePool() throws Exception {
+    byte[] ok = "{}".getBytes(StandardCharsets.UTF_8);
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/rules", exchange -> {
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, ok.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(ok);
+      }
+    });
+    server.start();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ClientHttpRequestFactory factory = factory(false, registry);
+    try {
+      RestClient rest = RestClient.builder()
+          .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+          .requestFactory(factory)
+          .build();
+      for (int i = 0; i < 3; i++) rest.get().uri("/rules").retrieve().body(String.class);
+
+      assertEquals(8.0, gauge(registry, "max"));
+      assertEquals(0.0, gauge(registry, "leased"));
+      assertEquals(0.0, gauge(registry, "pending"));
+      assertEquals(1.0, gauge(registry, "available"), "one kept-alive connection served all three calls");
+    } finally {
+      ((HttpComponentsClientHttpRequestFactory) factory).destroy();
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void http2_usesTheJdkClient_withoutAPool() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    assertInstanceOf(JdkClientHttpRequestFactory.class, factory(true, registry));
+    assertNull(registry.find("risk.client.pool.max").gauge());
+  }
+}
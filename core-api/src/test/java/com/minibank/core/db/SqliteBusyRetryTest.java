@@ -0,0 +1,57 @@
+package com.minibank.core.db;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteBusyRetryTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final SqliteBusyRetry retry = new SqliteBusyRetry(3, 1, registry);
+
+  private static RuntimeException wrapped(SQLiteErrorCode code) {
+    return new RuntimeException("could not execute statement", new SQLiteException("[" + code + "]", code));
+  }
+
+  @Test
+  void busy_isRetriedUntilItSucceeds() {
+    AtomicInteger calls = new AtomicInteger();
+
+    String result = retry.execute(() -> {
+      if (calls.incrementAndGet() < 3) throw wrapped(SQLiteErrorCode.SQLITE_BUSY);
+      return "ok";
+    });
+
+    assertEquals("ok", result);
+    assertEquals(3, calls.get());
+    assertEquals(2.0, registry.get("sqlite.busy.retries").counter().count());
+  }
+
+  @Test
+  void otherErrors_propagateWithoutRetry() {
+    AtomicInteger calls = new AtomicInteger();
+
+    assertThrows(RuntimeException.class, () -> retry.execute(() -> {
+      calls.incrementAndGet();
+      throw wrapped(SQLiteErrorCode.SQLITE_CONSTRAINT);
+    }));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void retriesAreBounded() {
+    AtomicInteger calls = new AtomicInteger();
+
+    assertThrows(RuntimeException.class, () -> retry.execute(() -> {
+      calls.incrementAndGet();
+      throw wrapped(SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT);
+    }));
+    assertEquals(4, calls.get());
+    assertEquals(1.0, registry.get("sqlite.busy.exhausted").counter().count());
+  }
+}
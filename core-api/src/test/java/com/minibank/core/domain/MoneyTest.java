@@ -0,0 +1,46 @@
+package com.minibank.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+  @Test
+  void toMinor_isExact() {
+    assertEquals(1_050, Money.toMinor(new BigDecimal("10.5")));
+    assertEquals(1_000, Money.toMinor(new BigDecimal("10")));
+    assertEquals(1, Money.toMinor(new BigDecimal("0.010")));
+    assertThrows(IllegalArgumentException.class, () -> Money.toMinor(new BigDecimal("0.001")));
+    assertThrows(IllegalArgumentException.class, () -> Money.toMinor(new BigDecimal("1e30")));
+  }
+
+  @Test
+  void roundTripsThroughTheColumnType() {
+    MinorUnitsConverter converter = new MinorUnitsConverter();
+
+    assertEquals(new BigDecimal("1234.56"), converter.convertToDatabaseColumn(123_456L));
+    assertEquals(123_456L, converter.convertToEntityAttribute(new BigDecimal("1234.56")));
+    // SQLite may hand back a REAL/INTEGER rendering
+    assertEquals(1_050L, converter.convertToEntityAttribute(new BigDecimal("10.5")));
+    assertEquals(1_000L, converter.convertToEntityAttribute(new BigDecimal("10")));
+  }
+
+  @Test
+  void arithmetic_checksCurrencyAndOverflow() {
+    Money a = Money.of(new BigDecimal("10.00"), "CAD");
+    Money b = Money.of(new BigDecimal("2.50"), "CAD");
+
+    assertEquals(new Money(1_250, "CAD"), a.plus(b));
+    assertEquals(new Money(750, "CAD"), a.minus(b));
+    assertTrue(b.isLessThan(a));
+    assertEquals(new BigDecimal("7.50"), a.minus(b).toBigDecimal());
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> a.isLessThan(new Money(1, "USD")));
+    assertEquals("Currency Mismatch", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> a.plus(new Money(1, "USD")));
+    assertThrows(ArithmeticException.class, () -> new Money(Long.MAX_VALUE, "CAD").plus(new Money(1, "CAD")));
+  }
+}
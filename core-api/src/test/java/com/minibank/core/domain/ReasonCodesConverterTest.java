@@ -0,0 +1,30 @@
+package com.minibank.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReasonCodesConverterTest {
+
+  private final ReasonCodesConverter converter = new ReasonCodesConverter();
+
+  @Test
+  void roundTripsReasonCodes() {
+    List<String> reasons = List.of("high_amount", "high_frequency", "high_total");
+
+    String column = converter.convertToDatabaseColumn(reasons);
+
+    assertEquals("high_amount\nhigh_frequency\nhigh_total", column);
+    assertEquals(reasons, converter.convertToEntityAttribute(column));
+  }
+
+  @Test
+  void emptyAndNull_readAsEmptyList() {
+    assertEquals("", converter.convertToDatabaseColumn(List.of()));
+    assertEquals("", converter.convertToDatabaseColumn(null));
+    assertEquals(List.of(), converter.convertToEntityAttribute(""));
+    assertEquals(List.of(), converter.convertToEntityAttribute(null));
+  }
+}
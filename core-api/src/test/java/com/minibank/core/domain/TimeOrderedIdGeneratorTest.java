@@ -0,0 +1,76 @@
+package com.minibank.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+  @Test
+  void uuidFormat_isVersion7_andStrictlyIncreasing() {
+    TimeOrderedIdGenerator g = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.UUID);
+
+    String prev = g.next();
+    for (int i = 0; i < 100_000; i++) {
+      String id = g.next();
+      assertTrue(id.compareTo(prev) > 0, "ids must increase: " + prev + " then " + id);
+      prev = id;
+    }
+
+    UUID u = UUID.fromString(prev);
+    assertEquals(7, u.version());
+    assertEquals(2, u.variant());
+    assertTrue(Math.abs((u.getMostSignificantBits() >>> 16) - System.currentTimeMillis()) < 5_000);
+  }
+
+  @Test
+  void compactFormat_sortsLikeTheUnderlyingBits() {
+    TimeOrderedIdGenerator g = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.COMPACT);
+
+    String prev = g.next();
+    assertEquals(26, prev.length());
+    for (int i = 0; i < 100_000; i++) {
+      String id = g.next();
+      assertTrue(id.compareTo(prev) > 0, "ids must increase: " + prev + " then " + id);
+      prev = id;
+    }
+
+    assertEquals("00000000000000000000000000", TimeOrderedIdGenerator.compact(0, 0));
+    assertEquals("7zzzzzzzzzzzzzzzzzzzzzzzzz", TimeOrderedIdGenerator.compact(-1L, -1L));
+  }
+
+  @Test
+  void concurrentCallers_neverGetTheSameId() throws Exception {
+    TimeOrderedIdGenerator g = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.UUID);
+    ConcurrentLinkedQueue<String> ids = new ConcurrentLinkedQueue<>();
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 20_000; i++) ids.add(g.next());
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread t : threads) t.join();
+
+    Set<String> unique = new HashSet<>(ids);
+    assertEquals(ids.size(), unique.size());
+  }
+
+  @Test
+  void nextAt_usesTheGivenTimestamp() {
+    TimeOrderedIdGenerator g = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.UUID);
+    long millis = 1_700_000_000_000L;
+
+    UUID u = UUID.fromString(g.nextAt(millis));
+    assertEquals(millis, u.getMostSignificantBits() >>> 16);
+    assertTrue(g.nextAt(millis).compareTo(g.nextAt(millis + 1_000)) < 0);
+  }
+}
@@ -0,0 +1,155 @@
+/**
+ * BalanceShard: the funds and currency checks happen in the shard, a record the journal can't take is rejected
+ * on its own, and a failed journal append undoes the batch's debits.
+ */
+
+package com.minibank.core.engine;
+
+import com.minibank.core.domain.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceShardTest {
+
+  /** Fails the next append (after writing nothing), like a full disk. */
+  static final class FailingJournal extends LedgerJournal {
+    volatile boolean failNext;
+
+    FailingJournal(Path dir) {
+      super(dir, 1 << 20);
+    }
+
+    @Override
+    synchronized long append(List<JournalRecord> records) {
+      if (failNext) {
+        failNext = false;
+        throw new UncheckedIOException("Ledger journal append failed", new IOException("No space left on device"));
+      }
+      return super.append(records);
+    }
+  }
+
+  @TempDir
+  Path dir;
+
+  private final Map<String, Long> sqliteBalances = new HashMap<>();
+  private final WriteBehindFlusher writeBehind = new WriteBehindFlusher(100, 3, null, null, null, null, null, f -> { });
+  private FailingJournal journal;
+  private BalanceShard shard;
+  private Thread thread;
+
+  private Money loadBalance(String accountId) {
+    return new Money(sqliteBalances.get(accountId), "CAD");
+  }
+
+  private void create() {
+    journal = new FailingJournal(dir);
+    shard = new BalanceShard(0, 16, this::loadBalance, journal, writeBehind, accountId -> shard);
+  }
+
+  private void start() {
+    if (shard == null) create();
+    thread = new Thread(shard, "test-shard");
+    thread.start();
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    if (thread != null) {
+      shard.stop();
+      thread.join(5_000);
+    }
+    if (journal != null) journal.close();
+  }
+
+  static JournalRecord transfer(String id, String from, String to, long amountMinor) {
+    return new JournalRecord(1, id, "u1", from, to, amountMinor, "CAD", null, "k-" + id, Instant.EPOCH);
+  }
+
+  private JournalRecord debit(JournalRecord r) throws Exception {
+    try {
+      return shard.submitDebit(r, 1_000).get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+
+  private List<String> debitSides() {
+    return writeBehind.pending().stream()
+        .filter(s -> s.type().equals("DEBIT"))
+        .map(s -> s.record().transferId() + "=" + s.balanceAfterMinor())
+        .toList();
+  }
+
+  @Test
+  void insufficientFunds_isRejectedInTheShard() throws Exception {
+    sqliteBalances.put("a1", 5_000L);
+    sqliteBalances.put("a2", 0L);
+    start();
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> debit(transfer("t1", "a1", "a2", 8_000)));
+    assertEquals("Insufficient funds", e.getMessage());
+
+    debit(transfer("t2", "a1", "a2", 5_000)); // the whole balance is still there
+    assertEquals(List.of("t2=0"), debitSides());
+  }
+
+  @Test
+  void debitInAnotherCurrency_isRejected() throws Exception {
+    sqliteBalances.put("a1", 5_000L);
+    start();
+
+    JournalRecord usd = new JournalRecord(1, "t1", "u1", "a1", "a2", 100, "USD", null, "k-t1", Instant.EPOCH);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> debit(usd));
+    assertEquals("Currency Mismatch", e.getMessage());
+    assertTrue(debitSides().isEmpty());
+  }
+
+  @Test
+  void failedAppend_leavesBalancesUnchanged() throws Exception {
+    sqliteBalances.put("a1", 10_000L);
+    sqliteBalances.put("a2", 0L);
+    start();
+
+    journal.failNext = true;
+    assertThrows(UncheckedIOException.class, () -> debit(transfer("t1", "a1", "a2", 6_000)));
+    assertTrue(debitSides().isEmpty());
+
+    debit(transfer("t2", "a1", "a2", 10_000)); // would be short by 6_000 if t1 had stuck
+    assertEquals(List.of("t2=0"), debitSides());
+  }
+
+  @Test
+  void oversizedRecord_isRejectedAlone_notWithItsBatch() throws Exception {
+    sqliteBalances.put("a1", 10_000L);
+    sqliteBalances.put("a2", 0L);
+    create();
+    // queued before the shard runs, so all three are drained as one batch
+    JournalRecord huge = new JournalRecord(1, "t2", "u1", "a1", "a2", 1_000, "CAD",
+        "x".repeat(LedgerJournal.MAX_PAYLOAD), "k-t2", Instant.EPOCH);
+    var first = shard.submitDebit(transfer("t1", "a1", "a2", 1_000), 1_000);
+    var oversized = shard.submitDebit(huge, 1_000);
+    var third = shard.submitDebit(transfer("t3", "a1", "a2", 1_000), 1_000);
+    start();
+
+    first.get(5, TimeUnit.SECONDS);
+    third.get(5, TimeUnit.SECONDS);
+    ExecutionException e = assertThrows(ExecutionException.class, () -> oversized.get(5, TimeUnit.SECONDS));
+    assertEquals("Transfer is too large", e.getCause().getMessage());
+    assertEquals(List.of("t1=9000", "t3=8000"), debitSides());
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * LedgerEngine: recovery replays only the journaled sides SQLite doesn't have, and a retry with the same
+ * idempotency key while the first attempt is still in flight (even one whose ack timed out) gets that transfer
+ * instead of a second debit.
+ */
+
+package com.minibank.core.engine;
+
+import com.minibank.core.domain.AccountEntity;
+import com.minibank.core.domain.Money;
+import com.minibank.core.domain.TransferEntity;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.repo.LedgerEntryRepository;
+import com.minibank.core.repo.TransferRepository;
+import com.minibank.core.service.AccountDirectory;
+import com.minibank.core.service.ChangeVersions;
+import com.minibank.core.service.RiskOutboxDispatcher;
+import com.minibank.core.service.StatsService;
+import com.minibank.core.service.TransferRollups;
+import com.minibank.core.service.TransferSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LedgerEngineTest {
+
+  @TempDir
+  Path dir;
+
+  private static AccountEntity account(long balanceMinor) {
+    AccountEntity a = new AccountEntity();
+    a.setCurrency("CAD");
+    a.setBalanceMinor(balanceMinor);
+    return a;
+  }
+
+  @Test
+  void recovery_replaysOnlyTheSidesMissingFromSqlite() throws Exception {
+    // SQLite already has t1 (both sides) and t2's debit, and its balances include them
+    Map<String, Long> sqliteBalances = new HashMap<>(Map.of("a1", 5_000L, "a2", 3_000L));
+    WriteBehindFlusher writeBehind = new WriteBehindFlusher(100, 3, null, null, null, null, null, f -> { });
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      BalanceShard[] shard = new BalanceShard[1];
+      shard[0] = new BalanceShard(0, 16, accountId -> new Money(sqliteBalances.get(accountId), "CAD"),
+          journal, writeBehind, accountId -> shard[0]);
+
+      long replayed = LedgerEngine.replayMissing(
+          List.of(
+              BalanceShardTest.transfer("t1", "a1", "a2", 3_000),
+              BalanceShardTest.transfer("t2", "a1", "a2", 2_000),
+              BalanceShardTest.transfer("t3", "a2", "a1", 500)),
+          Set.of("t1:DEBIT", "t1:CREDIT", "t2:DEBIT"),
+          accountId -> shard[0]);
+
+      assertEquals(3, replayed);
+      assertEquals(
+          List.of("t2 CREDIT a2=5000", "t3 DEBIT a2=4500", "t3 CREDIT a1=5500"),
+          writeBehind.pending().stream()
+              .map(s -> s.record().transferId() + " " + s.type() + " " + s.accountId() + "=" + s.balanceAfterMinor())
+              .toList());
+    }
+  }
+
+  @Test
+  void retryAfterAnAckTimeout_getsTheInFlightTransfer_notASecondDebit() throws Exception {
+    CountDownLatch shardMayLoad = new CountDownLatch(1);
+    AccountRepository accounts = mock(AccountRepository.class);
+    when(accounts.findById("a1")).thenAnswer(inv -> {
+      shardMayLoad.await(); // holds the shard until the first caller has given up
+      return Optional.of(account(10_000));
+    });
+    when(accounts.findById("a2")).thenReturn(Optional.of(account(0)));
+    TransferRepository transfers = mock(TransferRepository.class);
+    when(transfers.findByUserIdAndIdempotencyKey("u1", "k1")).thenReturn(Optional.empty());
+
+    // flushes never run during the test: everything stays in memory (and in `inflight`)
+    LedgerEngine engine = new LedgerEngine(
+        accounts, mock(AccountDirectory.class), transfers, mock(LedgerEntryRepository.class),
+        mock(RiskOutboxDispatcher.class), mock(StatsService.class), mock(TransferSearchIndex.class),
+        mock(ChangeVersions.class), mock(TransferRollups.class), mock(EntityManager.class),
+        mock(PlatformTransactionManager.class),
+        2, 16, dir.toString(), 1 << 20, 3_600_000, 500, 5, 300);
+    engine.start();
+    try {
+      BigDecimal amount = new BigDecimal("60.00");
+      assertThrows(IllegalStateException.class,
+          () -> engine.submit("u1", "a1", "a2", amount, "CAD", null, "k1"));
+
+      shardMayLoad.countDown();
+      TransferEntity retry = engine.submit("u1", "a1", "a2", amount, "CAD", null, "k1");
+      TransferEntity again = engine.submit("u1", "a1", "a2", amount, "CAD", null, "k1");
+
+      assertEquals(retry.getId(), again.getId());
+      verify(transfers, times(1)).findByUserIdAndIdempotencyKey("u1", "k1");
+    } finally {
+      engine.stop();
+    }
+
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      assertEquals(1, journal.readAll().size(), "one debit journaled");
+    }
+  }
+}
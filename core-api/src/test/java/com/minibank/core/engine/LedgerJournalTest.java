@@ -0,0 +1,142 @@
+/**
+ * LedgerJournal: records survive a restart (strings of any length), a torn or corrupt tail is cut off at the
+ * last intact frame, and segments are deleted once everything journaled in them is flushed.
+ */
+
+package com.minibank.core.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+
+  @TempDir
+  Path dir;
+
+  static JournalRecord record(long seq, String memo) {
+    return new JournalRecord(
+        seq, "t" + seq, "u1", "a1", "a2", 1_250, "CAD", memo, "k" + seq, Instant.parse("2026-01-15T12:00:00.123456789Z"));
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.sorted().toList();
+    }
+  }
+
+  @Test
+  void appendedRecords_areReadBackAfterARestart() throws IOException {
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      journal.append(List.of(record(1, "rent"), record(2, null)));
+      journal.append(List.of(record(3, "")));
+    }
+
+    try (LedgerJournal reopened = new LedgerJournal(dir, 1 << 20)) {
+      assertEquals(List.of(record(1, "rent"), record(2, null), record(3, "")), reopened.readAll());
+    }
+  }
+
+  @Test
+  void stringsBeyond64KB_roundTrip() throws IOException {
+    String memo = "é".repeat(70_000); // 140,000 UTF-8 bytes: past what writeUTF can frame
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      journal.append(List.of(record(1, memo)));
+    }
+
+    try (LedgerJournal reopened = new LedgerJournal(dir, 1 << 20)) {
+      assertEquals(List.of(record(1, memo)), reopened.readAll());
+    }
+  }
+
+  @Test
+  void recordsThatCouldNotBeFramed_areRefusedUpFront() {
+    LedgerJournal.checkFits(record(1, "x".repeat(500)));
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> LedgerJournal.checkFits(record(1, "x".repeat(LedgerJournal.MAX_PAYLOAD / 3))));
+    assertEquals("Transfer is too large", e.getMessage());
+    assertThrows(IllegalArgumentException.class,
+        () -> LedgerJournal.checkFits(new JournalRecord(1, "t1", "u1", "a1", "a2", 1, "CAD", null, null, Instant.EPOCH)));
+  }
+
+  @Test
+  void tornTail_isIgnored() throws IOException {
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      journal.append(List.of(record(1, null), record(2, null)));
+    }
+    Path segment = segments().get(0);
+    try (RandomAccessFile f = new RandomAccessFile(segment.toFile(), "rw")) {
+      f.setLength(f.length() - 5); // crash half way through the last frame
+    }
+
+    try (LedgerJournal reopened = new LedgerJournal(dir, 1 << 20)) {
+      assertEquals(List.of(record(1, null)), reopened.readAll());
+    }
+  }
+
+  @Test
+  void corruptFrame_endsTheSegment() throws IOException {
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      journal.append(List.of(record(1, null), record(2, null), record(3, null)));
+    }
+    Path segment = segments().get(0);
+    byte[] bytes = Files.readAllBytes(segment);
+    int frame = bytes.length / 3; // frames are the same size here
+    bytes[frame + 20] ^= 0x01;    // inside the second payload
+    Files.write(segment, bytes);
+
+    try (LedgerJournal reopened = new LedgerJournal(dir, 1 << 20)) {
+      assertEquals(List.of(record(1, null)), reopened.readAll());
+    }
+  }
+
+  @Test
+  void closedSegments_areDeletedOnceAllTheirSidesAreFlushed() throws IOException {
+    try (LedgerJournal journal = new LedgerJournal(dir, 1)) { // every append after the first rolls
+      long first = journal.append(List.of(record(1, null)));
+      long second = journal.append(List.of(record(2, null)));
+      assertNotEquals(first, second);
+      assertEquals(2, segments().size());
+
+      journal.sidesFlushed(Map.of(first, 1)); // debit only
+      assertEquals(2, segments().size());
+
+      journal.sidesFlushed(Map.of(first, 1, second, 2));
+      assertEquals(1, segments().size(), "the active segment is kept");
+
+      long third = journal.append(List.of(record(3, null)));
+      assertNotEquals(second, third);
+      assertEquals(1, segments().size(), "rolling drops the fully flushed one");
+    }
+  }
+
+  @Test
+  void previousRun_isReplayedOnly_thenDropped() throws IOException {
+    try (LedgerJournal journal = new LedgerJournal(dir, 1 << 20)) {
+      journal.append(List.of(record(1, null)));
+    }
+
+    try (LedgerJournal reopened = new LedgerJournal(dir, 1 << 20)) {
+      reopened.append(List.of(record(2, null)));
+      assertEquals(List.of(record(1, null)), reopened.readAll());
+
+      reopened.dropRecovered();
+      assertEquals(1, segments().size());
+    }
+
+    try (LedgerJournal third = new LedgerJournal(dir, 1 << 20)) {
+      assertEquals(List.of(record(2, null)), third.readAll());
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/**
+ * WriteBehindFlusher: a side SQLite keeps refusing is split out of its batch after max-attempts, everything
+ * queued before it is still flushed, and the flusher then halts instead of retrying forever.
+ */
+
+package com.minibank.core.engine;
+
+import com.minibank.core.domain.LedgerEntryEntity;
+import com.minibank.core.domain.Money;
+import com.minibank.core.repo.AccountRepository;
+import com.minibank.core.service.StatsService;
+import com.minibank.core.service.TransferRollups;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WriteBehindFlusherTest {
+
+  private static WriteBehindFlusher.Side debit(String transferId) {
+    return new WriteBehindFlusher.Side(BalanceShardTest.transfer(transferId, "a1", "a2", 100), "DEBIT", "a1", 0, 1);
+  }
+
+  @Test
+  void aSideThatKeepsFailing_isIsolated_andHaltsTheFlusher() {
+    EntityManager em = mock(EntityManager.class);
+    doThrow(new IllegalStateException("CHECK constraint failed"))
+        .when(em).persist(argThat(o -> o instanceof LedgerEntryEntity e && "t5".equals(e.getTransferId())));
+    StatsService stats = mock(StatsService.class);
+    when(stats.last24hTotals(any(), any())).thenReturn(new StatsService.WindowTotals(0, new Money(0, "CAD")));
+    TransactionTemplate tx = new TransactionTemplate() {
+      @Override
+      public <T> T execute(TransactionCallback<T> action) {
+        return action.doInTransaction(null);
+      }
+    };
+
+    List<String> flushed = new ArrayList<>();
+    WriteBehindFlusher writeBehind = new WriteBehindFlusher(8, 2, em, mock(AccountRepository.class), stats,
+        mock(TransferRollups.class), tx, f -> f.transfers().forEach(r -> flushed.add(r.transferId())));
+    for (int i = 1; i <= 8; i++) {
+      writeBehind.add(debit("t" + i));
+    }
+
+    int ticks = 0;
+    while (!writeBehind.halted()) {
+      assertTrue(++ticks < 20, "must give up on t5, not retry it forever");
+      try {
+        writeBehind.flushOnce();
+      } catch (RuntimeException e) {
+        // retried on the next tick
+      }
+    }
+
+    assertEquals(List.of("t1", "t2", "t3", "t4"), flushed);
+    assertEquals(List.of("t5", "t6", "t7", "t8"),
+        writeBehind.pending().stream().map(s -> s.record().transferId()).toList(), "nothing is skipped");
+    assertThrows(IllegalStateException.class, writeBehind::flushOnce);
+  }
+}
@@ -0,0 +1,154 @@
+/**
+ * AccountLockManager: correctness under contention, no deadlock in opposite directions, and disjoint
+ * account pairs held at the same time while the same pair waits (throughput: AccountLockBenchmark).
+ */
+
+package com.minibank.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLockManagerTest {
+
+  private static final int THREADS = 8;
+
+  @Test
+  void sharedAccount_updatesAreSerialized() throws Exception {
+    AccountLockManager locks = new AccountLockManager(256);
+    long[] balances = { 1_000_000, 0 }; // [from, to], plain read-modify-write on purpose
+    int perThread = 2_000;
+
+    runConcurrently(THREADS, worker -> {
+      for (int i = 0; i < perThread; i++) {
+        try (var held = locks.lockPair("acc-from", "acc-to")) {
+          long from = balances[0];
+          long to = balances[1];
+          Thread.yield(); // widen the race window
+          balances[0] = from - 1;
+          balances[1] = to + 1;
+        }
+      }
+    });
+
+    long moved = (long) THREADS * perThread;
+    assertEquals(1_000_000 - moved, balances[0], "debits lost under contention");
+    assertEquals(moved, balances[1], "credits lost under contention");
+  }
+
+  @Test
+  void oppositeDirections_doNotDeadlock() {
+    AccountLockManager locks = new AccountLockManager(256);
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> runConcurrently(THREADS, worker -> {
+      for (int i = 0; i < 5_000; i++) {
+        // half the workers go A->B, the other half B->A
+        String first = (worker % 2 == 0) ? "acc-a" : "acc-b";
+        String second = (worker % 2 == 0) ? "acc-b" : "acc-a";
+        try (var held = locks.lockPair(first, second)) {
+          Thread.onSpinWait();
+        }
+      }
+    }));
+  }
+
+  @Test
+  void disjointPairs_areHeldAtOnce_samePairWaits() throws Exception {
+    AccountLockManager locks = new AccountLockManager(1024);
+    List<String[]> pairs = disjointPairs(locks, 2);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CountDownLatch firstHeld = new CountDownLatch(1);
+    Thread first = holder(locks, pairs.get(0), firstHeld, release);
+    assertTrue(firstHeld.await(5, TimeUnit.SECONDS));
+
+    // a disjoint pair is granted while the first one is held
+    CountDownLatch otherHeld = new CountDownLatch(1);
+    Thread other = holder(locks, pairs.get(1), otherHeld, release);
+    assertTrue(otherHeld.await(5, TimeUnit.SECONDS), "disjoint pair should not wait");
+
+    // the same pair parks on the stripe lock until it is released
+    CountDownLatch sameHeld = new CountDownLatch(1);
+    Thread same = holder(locks, pairs.get(0), sameHeld, release);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (same.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertEquals(Thread.State.WAITING, same.getState());
+    assertEquals(1, sameHeld.getCount(), "same pair must wait for the holder");
+
+    release.countDown();
+    assertTrue(sameHeld.await(5, TimeUnit.SECONDS));
+    for (Thread t : List.of(first, other, same)) t.join(5_000);
+  }
+
+  // holds the pair from another thread until `release`; `held` fires once it has the locks
+  private static Thread holder(AccountLockManager locks, String[] pair, CountDownLatch held, CountDownLatch release) {
+    Thread t = new Thread(() -> {
+      try (var h = locks.lockPair(pair[0], pair[1])) {
+        held.countDown();
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    t.setDaemon(true);
+    t.start();
+    return t;
+  }
+
+  // pick account pairs whose stripes don't collide with any other pair
+  private static List<String[]> disjointPairs(AccountLockManager locks, int count) {
+    List<String[]> pairs = new ArrayList<>();
+    Set<Integer> used = new HashSet<>();
+    int n = 0;
+    while (pairs.size() < count) {
+      String a = "acc-" + (n++);
+      String b = "acc-" + (n++);
+      int sa = locks.stripeOf(a);
+      int sb = locks.stripeOf(b);
+      if (sa == sb || used.contains(sa) || used.contains(sb)) continue;
+      used.add(sa);
+      used.add(sb);
+      pairs.add(new String[] { a, b });
+    }
+    return pairs;
+  }
+
+  private interface Worker {
+    void run(int worker) throws Exception;
+  }
+
+  private static void runConcurrently(int threads, Worker body) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < threads; w++) {
+        int worker = w;
+        futures.add(pool.submit(() -> {
+          start.await();
+          body.run(worker);
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
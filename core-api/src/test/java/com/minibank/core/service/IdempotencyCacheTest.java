@@ -0,0 +1,166 @@
+/**
+ * IdempotencyCache: hits skip the supplier, concurrent duplicates coalesce onto one call,
+ * failures aren't cached, and entries expire / get evicted (but never while still in flight).
+ */
+
+package com.minibank.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void replay_isServedFromCache() {
+    IdempotencyCache<String> cache = new IdempotencyCache<>("test", 100, Duration.ofMinutes(1), registry);
+    AtomicInteger calls = new AtomicInteger();
+
+    String first = cache.getOrCompute("u1", "k1", () -> "result-" + calls.incrementAndGet());
+    String second = cache.getOrCompute("u1", "k1", () -> "result-" + calls.incrementAndGet());
+
+    assertEquals("result-1", first);
+    assertEquals("result-1", second);
+    assertEquals(1, calls.get());
+    assertEquals(1.0, count("hit"));
+    assertEquals(1.0, count("miss"));
+  }
+
+  @Test
+  void keysAreScopedPerUser() {
+    IdempotencyCache<String> cache = new IdempotencyCache<>("test", 100, Duration.ofMinutes(1), registry);
+
+    assertEquals("a", cache.getOrCompute("u1", "k1", () -> "a"));
+    assertEquals("b", cache.getOrCompute("u2", "k1", () -> "b"));
+  }
+
+  @Test
+  void concurrentDuplicates_coalesceOntoOneCall() throws Exception {
+    IdempotencyCache<String> cache = new IdempotencyCache<>("test", 100, Duration.ofMinutes(1), registry);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    int duplicates = 8;
+
+    ExecutorService pool = Executors.newFixedThreadPool(duplicates + 1);
+    try {
+      Future<String> original = pool.submit(() -> cache.getOrCompute("u1", "k1", () -> {
+        started.countDown();
+        await(release);
+        return "result-" + calls.incrementAndGet();
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      List<Future<String>> retries = new ArrayList<>();
+      for (int i = 0; i < duplicates; i++) {
+        retries.add(pool.submit(() -> cache.getOrCompute("u1", "k1", () -> "result-" + calls.incrementAndGet())));
+      }
+      // let the duplicates reach the cache before the original completes
+      while (count("coalesced") < duplicates) {
+        Thread.sleep(5);
+      }
+      release.countDown();
+
+      assertEquals("result-1", original.get(5, TimeUnit.SECONDS));
+      for (Future<String> f : retries) {
+        assertEquals("result-1", f.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertEquals(1, calls.get());
+    assertEquals(1.0, count("miss"));
+    assertEquals(duplicates, count("coalesced"));
+  }
+
+  @Test
+  void failures_areNotCached() {
+    IdempotencyCache<String> cache = new IdempotencyCache<>("test", 100, Duration.ofMinutes(1), registry);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> cache.getOrCompute("u1", "k1", () -> { throw new IllegalArgumentException("Insufficient funds"); }));
+
+    assertEquals("ok", cache.getOrCompute("u1", "k1", () -> "ok"));
+    assertEquals(2.0, count("miss"));
+  }
+
+  @Test
+  void expiredAndEvictedEntries_areRecomputed() throws Exception {
+    IdempotencyCache<String> expiring = new IdempotencyCache<>("test", 100, Duration.ofMillis(20), registry);
+    expiring.getOrCompute("u1", "k1", () -> "old");
+    Thread.sleep(50);
+    assertEquals("new", expiring.getOrCompute("u1", "k1", () -> "new"));
+
+    IdempotencyCache<String> small = new IdempotencyCache<>("small", 2, Duration.ofMinutes(1), registry);
+    small.getOrCompute("u1", "k1", () -> "1");
+    small.getOrCompute("u1", "k2", () -> "2");
+    small.getOrCompute("u1", "k3", () -> "3");
+    assertEquals(2, small.size());
+    assertEquals("again", small.getOrCompute("u1", "k1", () -> "again"));
+  }
+
+  @Test
+  void inFlightEntries_areNeverEvicted() throws Exception {
+    IdempotencyCache<String> small = new IdempotencyCache<>("test", 2, Duration.ofMinutes(1), registry);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> original = pool.submit(() -> small.getOrCompute("u1", "k1", () -> {
+        started.countDown();
+        await(release);
+        return "result-" + calls.incrementAndGet();
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      // k1 stays the least recently used entry while the cache overflows
+      for (String key : List.of("k2", "k3", "k4")) {
+        small.getOrCompute("u1", key, () -> key);
+      }
+      assertEquals(2, small.size(), "k1 (in flight) and k4");
+
+      Future<String> duplicate = pool.submit(() -> small.getOrCompute("u1", "k1", () -> "result-" + calls.incrementAndGet()));
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (count("coalesced") < 1) {
+        assertTrue(System.nanoTime() < deadline, "the duplicate must wait for the in-flight call, not run its own");
+        Thread.sleep(5);
+      }
+      release.countDown();
+
+      assertEquals("result-1", original.get(5, TimeUnit.SECONDS));
+      assertEquals("result-1", duplicate.get(5, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(1, calls.get());
+  }
+
+  private double count(String result) {
+    return registry.get("idempotency.cache.requests").tag("cache", "test").tag("result", result).counter().count();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * MinuteWindow: 24h totals from minute buckets, shorter trailing spans, expiry as the window slides,
+ * and exactly-once counting for commits that race the cold load.
+ */
+
+package com.minibank.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import com.minibank.core.domain.Money;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinuteWindowTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-15T12:00:30Z");
+
+  @Test
+  void totals_coverTheLast24Hours() {
+    MinuteWindow w = loaded(List.of(
+        row("t1", NOW.minus(Duration.ofHours(23)), "100.00"),
+        row("t2", NOW.minus(Duration.ofMinutes(5)), "50.00"),
+        row("t3", NOW.minus(Duration.ofHours(25)), "999.00"))); // outside the window
+
+    w.record(row("t4", NOW, "25.00"), NOW);
+
+    MinuteWindow.Totals totals = w.totals(NOW);
+    assertEquals(3, totals.count());
+    assertEquals(17_500, totals.sumMinor());
+  }
+
+  @Test
+  void oldBuckets_dropOutAsTheWindowSlides() {
+    MinuteWindow w = loaded(List.of(row("t1", NOW.minus(Duration.ofHours(23)), "100.00")));
+    w.record(row("t2", NOW, "10.00"), NOW);
+
+    MinuteWindow.Totals later = w.totals(NOW.plus(Duration.ofHours(2)));
+    assertEquals(1, later.count());
+    assertEquals(1_000, later.sumMinor());
+
+    MinuteWindow.Totals muchLater = w.totals(NOW.plus(Duration.ofHours(25)));
+    assertEquals(0, muchLater.count());
+  }
+
+  @Test
+  void shorterSpans_sumOnlyTheNewestMinutes() {
+    MinuteWindow w = loaded(List.of(
+        row("t1", NOW.minus(Duration.ofMinutes(59)), "10.00"),
+        row("t2", NOW.minus(Duration.ofMinutes(60)), "20.00"),
+        row("t3", NOW.minus(Duration.ofHours(5)), "40.00")));
+
+    assertEquals(1_000, w.totals(NOW, 60).sumMinor());
+    assertEquals(3_000, w.totals(NOW, 61).sumMinor());
+    assertEquals(3, w.totals(NOW).count());
+  }
+
+  @Test
+  void commitsRacingTheColdLoad_areCountedOnce() {
+    MinuteWindow w = new MinuteWindow();
+
+    w.ensureLoaded(() -> {
+      // committed before the load query ran (so it's in the rows) but recorded while loading
+      w.record(row("t1", NOW, "10.00"), NOW);
+      // committed after the load query: only the record() knows about it
+      w.record(row("t2", NOW, "20.00"), NOW);
+      return List.of(row("t1", NOW, "10.00"));
+    }, NOW);
+
+    // recorded again after the load finished (late after-commit hook)
+    w.record(row("t1", NOW, "10.00"), NOW);
+
+    MinuteWindow.Totals totals = w.totals(NOW);
+    assertEquals(2, totals.count());
+    assertEquals(3_000, totals.sumMinor());
+  }
+
+  private static MinuteWindow loaded(List<MinuteWindow.Row> rows) {
+    MinuteWindow w = new MinuteWindow();
+    w.ensureLoaded(() -> rows, NOW);
+    return w;
+  }
+
+  private static MinuteWindow.Row row(String id, Instant at, String amount) {
+    return new MinuteWindow.Row(id, at, Money.toMinor(new BigDecimal(amount)));
+  }
+}
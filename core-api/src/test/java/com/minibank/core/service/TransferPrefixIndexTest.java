@@ -0,0 +1,93 @@
+/**
+ * TransferPrefixIndex: prefix matches newest first and capped, out-of-order inserts,
+ * and exactly-once indexing for commits that race the cold load.
+ */
+
+package com.minibank.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferPrefixIndexTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-15T12:00:30Z");
+
+  @Test
+  void search_returnsOnlyMatchingIds_newestFirst() {
+    TransferPrefixIndex index = loaded(List.of(
+        entry("abc001", 3),
+        entry("abc002", 1),
+        entry("abd001", 0),   // different prefix, newest overall
+        entry("abc003", 2)));
+
+    assertEquals(List.of("abc002", "abc003", "abc001"), ids(index.search("abc", 10)));
+    assertEquals(List.of("abd001"), ids(index.search("abd", 10)));
+    assertTrue(index.search("abe", 10).isEmpty());
+    assertTrue(index.search("zzz", 10).isEmpty());
+  }
+
+  @Test
+  void search_keepsTheNewestLimitMatches() {
+    List<TransferPrefixIndex.Entry> rows = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      // ids ascending, createdAt not in id order
+      rows.add(entry(String.format("pre%03d", i), (i * 7) % 50));
+    }
+    TransferPrefixIndex index = loaded(rows);
+
+    List<TransferPrefixIndex.Entry> top = index.search("pre", 3);
+    assertEquals(3, top.size());
+    assertEquals(NOW, top.get(0).createdAt());
+    assertEquals(NOW.minus(Duration.ofMinutes(1)), top.get(1).createdAt());
+    assertEquals(NOW.minus(Duration.ofMinutes(2)), top.get(2).createdAt());
+  }
+
+  @Test
+  void record_insertsInIdOrder_andIgnoresDuplicates() {
+    TransferPrefixIndex index = loaded(List.of(entry("m-002", 5)));
+
+    assertTrue(index.record(entry("m-003", 1)));
+    assertTrue(index.record(entry("m-001", 2)));  // lands before the loaded row
+    assertFalse(index.record(entry("m-002", 5)));
+
+    assertEquals(3, index.size());
+    assertEquals(List.of("m-003", "m-001", "m-002"), ids(index.search("m-", 10)));
+  }
+
+  @Test
+  void commitsRacingTheColdLoad_areIndexedOnce() {
+    TransferPrefixIndex index = new TransferPrefixIndex();
+
+    int loaded = index.ensureLoaded(() -> {
+      // committed before the load query ran (so it's in the rows) but recorded while loading
+      assertFalse(index.record(entry("t1", 1)));
+      // committed after the load query: only the record() knows about it
+      assertFalse(index.record(entry("t2", 0)));
+      return List.of(entry("t1", 1), entry("t0", 2));
+    });
+
+    assertEquals(3, loaded);
+    assertEquals(0, index.ensureLoaded(List::of));
+    assertEquals(List.of("t2", "t1", "t0"), ids(index.search("t", 10)));
+  }
+
+  private static TransferPrefixIndex loaded(List<TransferPrefixIndex.Entry> rows) {
+    TransferPrefixIndex index = new TransferPrefixIndex();
+    index.ensureLoaded(() -> rows);
+    return index;
+  }
+
+  private static TransferPrefixIndex.Entry entry(String id, int minutesAgo) {
+    return new TransferPrefixIndex.Entry(id, NOW.minus(Duration.ofMinutes(minutesAgo)), 1_000, "CAD", "APPROVED");
+  }
+
+  private static List<String> ids(List<TransferPrefixIndex.Entry> entries) {
+    return entries.stream().map(TransferPrefixIndex.Entry::transferId).toList();
+  }
+}
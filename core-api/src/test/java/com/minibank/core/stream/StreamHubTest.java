@@ -0,0 +1,141 @@
+/**
+ * StreamHub against a client that reads slowly: superseded balance events coalesce per account, a subscriber
+ * that falls stream.buffer-size events behind is disconnected, and stream.max-subscribers is enforced.
+ */
+
+package com.minibank.core.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamHubTest {
+
+  /** Blocks every write until the gate opens, then records the event data it was given. */
+  private static final class SlowClient extends SseEmitter {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final CountDownLatch writing = new CountDownLatch(1);
+    final List<Object> received = new CopyOnWriteArrayList<>();
+    volatile boolean completed;
+
+    SlowClient(long timeoutMs) {
+      super(timeoutMs);
+    }
+
+    @Override
+    public void send(SseEventBuilder event) throws IOException {
+      writing.countDown();
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      for (ResponseBodyEmitter.DataWithMediaType d : event.build()) {
+        if (MediaType.APPLICATION_JSON.equals(d.getMediaType())) received.add(d.getData());
+      }
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+      super.complete();
+    }
+  }
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<SlowClient> clients = new CopyOnWriteArrayList<>();
+  private StreamHub hub;
+
+  private StreamHub hub(int maxSubscribers, int bufferSize) {
+    hub = new StreamHub(maxSubscribers, bufferSize, 60_000, 60_000, registry) {
+      @Override
+      SseEmitter newEmitter(long timeoutMs) {
+        SlowClient c = new SlowClient(timeoutMs);
+        clients.add(c);
+        return c;
+      }
+    };
+    return hub;
+  }
+
+  @AfterEach
+  void shutdown() {
+    clients.forEach(c -> c.gate.countDown());
+    if (hub != null) hub.shutdown();
+  }
+
+  private static void awaitReceived(SlowClient c, int n) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (c.received.size() < n) {
+      assertTrue(System.nanoTime() < deadline, "expected " + n + " events, got " + c.received);
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  void supersededBalances_coalescePerAccount_otherEventsAreAllDelivered() throws Exception {
+    StreamHub hub = hub(10, 16);
+    hub.subscribe("u1");
+    SlowClient client = clients.get(0); // stuck writing the "connected" comment
+
+    hub.publish("u1", "balance", "a1", "a1=900");
+    hub.publish("u1", "balance", "a2", "a2=100");
+    hub.publish("u1", "transfer", null, "t1");
+    hub.publish("u1", "balance", "a1", "a1=800");
+    hub.publish("u1", "transfer", null, "t2");
+    hub.publish("u2", "balance", "a3", "not u1's");
+    client.gate.countDown();
+
+    awaitReceived(client, 4);
+    Thread.sleep(50); // nothing else arrives
+    assertEquals(List.of("a2=100", "t1", "a1=800", "t2"), client.received);
+  }
+
+  @Test
+  void aSubscriberThatFallsBufferSizeBehind_isDisconnected() throws Exception {
+    StreamHub hub = hub(10, 4);
+    hub.subscribe("u1");
+    hub.subscribe("u1");
+    SlowClient slow = clients.get(0);
+    SlowClient fast = clients.get(1);
+    fast.gate.countDown();
+    assertTrue(slow.writing.await(5, TimeUnit.SECONDS)); // "connected" is out of its buffer, stuck in the write
+
+    for (int i = 1; i <= 4; i++) hub.publish("u1", "transfer", null, "t" + i);
+    assertFalse(slow.completed, "a full buffer is still kept");
+    hub.publish("u1", "transfer", null, "t5");
+
+    assertTrue(slow.completed);
+    assertEquals(1, hub.subscriberCount());
+    assertEquals(1.0, registry.get("stream.subscribers.overflowed").counter().count());
+
+    awaitReceived(fast, 5);
+    assertEquals(List.of("t1", "t2", "t3", "t4", "t5"), fast.received);
+    slow.gate.countDown();
+    Thread.sleep(50);
+    assertEquals(List.of(), slow.received, "its backlog is dropped, not written");
+  }
+
+  @Test
+  void subscribersBeyondTheCap_areRefused() {
+    StreamHub hub = hub(2, 16);
+
+    assertNotNull(hub.subscribe("u1"));
+    assertNotNull(hub.subscribe("u2"));
+    assertNull(hub.subscribe("u3"));
+    assertEquals(2, hub.subscriberCount());
+    assertEquals(2.0, registry.get("stream.subscribers").gauge().value());
+  }
+}
@@ -3,13 +3,17 @@ FastAPI Risk Scoring Service (rule-based + explainable).
 
 Contract:
 - POST /score -> { riskScore: int, reasons: list[str] }
+- POST /score/batch { items: [ScoreRequest] } -> { results: [ScoreResponse] } (same order, max 500 items)
+- GET /rules -> { version, maxScore, rules: [{ feature, min, points, reason }] } (what a client may cache by)
 
 Used by: core-api (Spring Boot) after it computes transfer stats (24h velocity/total).
 Run: uvicorn app.main:app --reload --port 8000
 """
 
-from fastapi import FastAPI, Request
+from fastapi import FastAPI, HTTPException, Request
 from typing import List
+import hashlib
+import json
 import re
 from datetime import datetime
 from pydantic import BaseModel, Field
@@ -77,25 +81,59 @@ def health():
 
 @app.post("/risk/score", response_model=ScoreResponse)
 def score(req: ScoreRequest):
-    score = 0
-    reasons: List[str] = []
-    
-    # Tuning knobs (demo defaults). These map to the “signals” shown in the dashboard.
-    # In a real service, these would come from config / feature flags.
+    return score_one(req)
+
+
+# Batch form for core-api's micro-batcher: one HTTP round trip for many transfers.
+# Results are positional (results[i] scores items[i]); a bad item fails the whole batch with 422.
+MAX_BATCH_ITEMS = 500
+
+
+class BatchScoreRequest(BaseModel):
+    items: List[ScoreRequest]
+
+
+class BatchScoreResponse(BaseModel):
+    results: List[ScoreResponse]
 
-    if req.amount >= 500:
-        score += 30
-        reasons.append("large_amount")
 
-    if req.last24hTransferCount >= 5:
-        score += 25
-        reasons.append("high_frequency")
+@app.post("/risk/score/batch", response_model=BatchScoreResponse)
+def score_batch(req: BatchScoreRequest):
+    if not 1 <= len(req.items) <= MAX_BATCH_ITEMS:
+        raise HTTPException(status_code=422, detail=f"items must hold 1..{MAX_BATCH_ITEMS} requests")
+    return BatchScoreResponse(results=[score_one(item) for item in req.items])
+
+
+# Tuning knobs (demo defaults). These map to the “signals” shown in the dashboard.
+# In a real service, these would come from config / feature flags.
+# Each rule: feature >= min adds points and the reason code. A score only depends on which side of each
+# min a feature is, so clients may cache results per bucket; RULES_VERSION changes whenever the rules do.
+RULES = [
+    {"feature": "amount", "min": 500, "points": 30, "reason": "large_amount"},
+    {"feature": "last24hTransferCount", "min": 5, "points": 25, "reason": "high_frequency"},
+    {"feature": "last24hTransferTotal", "min": 1000, "points": 20, "reason": "high_total"},
+]
+MAX_SCORE = 100
+RULES_VERSION = hashlib.sha256(
+    json.dumps({"rules": RULES, "maxScore": MAX_SCORE}, sort_keys=True).encode()
+).hexdigest()[:12]
+
+
+@app.get("/risk/rules")
+def rules():
+    return {"version": RULES_VERSION, "maxScore": MAX_SCORE, "rules": RULES}
+
+
+def score_one(req: ScoreRequest) -> ScoreResponse:
+    score = 0
+    reasons: List[str] = []
 
-    if req.last24hTransferTotal >= 1000:
-        score += 20
-        reasons.append("high_total")
+    for rule in RULES:
+        if getattr(req, rule["feature"]) >= rule["min"]:
+            score += rule["points"]
+            reasons.append(rule["reason"])
 
-    return ScoreResponse(riskScore=min(score, 100), reasons=reasons)
+    return ScoreResponse(riskScore=min(score, MAX_SCORE), reasons=reasons)
 
 # Dev tool
 # @app.post("/risk/echo")  
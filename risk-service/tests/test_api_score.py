@@ -81,3 +81,45 @@ def test_high_total_boundary():
     at = assert_ok(post_score(base_req(10, last24hTransferTotal=1000.00)))
     assert "high_total" not in below["reasons"]
     assert "high_total" in at["reasons"]
+
+BATCH_PATH = "/risk/score/batch"
+
+def post_batch(items: list):
+    return client.post(BATCH_PATH, json=jsonable_encoder({"items": items}))
+
+def test_batch_results_match_single_scores_in_order():
+    items = [
+        base_req(10),
+        base_req(500.00),
+        base_req(10, last24hTransferCount=5, last24hTransferTotal=1000.00),
+    ]
+    r = post_batch(items)
+    assert r.status_code == 200, r.text
+    results = r.json()["results"]
+
+    assert len(results) == len(items)
+    for item, result in zip(items, results):
+        assert result == assert_ok(post_score(item))
+
+def test_batch_empty_422():
+    assert post_batch([]).status_code == 422
+
+def test_batch_with_a_bad_item_422():
+    r = post_batch([base_req(10), base_req(-1)])
+    assert r.status_code == 422, r.text
+
+def test_rules_publish_version_and_breakpoints():
+    r = client.get("/risk/rules")
+    assert r.status_code == 200, r.text
+    data = r.json()
+
+    assert isinstance(data["version"], str) and data["version"]
+    assert data["maxScore"] == 100
+    assert [(x["feature"], x["min"], x["reason"]) for x in data["rules"]] == [
+        ("amount", 500, "large_amount"),
+        ("last24hTransferCount", 5, "high_frequency"),
+        ("last24hTransferTotal", 1000, "high_total"),
+    ]
+
+def test_rules_version_is_stable():
+    assert client.get("/risk/rules").json()["version"] == client.get("/risk/rules").json()["version"]